@@ -29,9 +29,6 @@ import java.util.Random;
  */
 public class DemoGame extends Game
 {
-    // Random number gen used in adding variation when creating game objects
-    private static final Random mRanGen = new Random(System.nanoTime());
-
     /**
      * Cloud generation controls
      */
@@ -118,6 +115,12 @@ public class DemoGame extends Game
     // Projectile coefficient of restitution
     private static final float PROJECTILE_RESTITUTION = 0.6f;
 
+    // Projectile collision category (projectiles don't collide with each other)
+    private static final int PROJECTILE_CATEGORY = 0x00000002;
+
+    // Milliseconds before a fired projectile is destroyed
+    private static final long PROJECTILE_LIFETIME = 5000L;
+
     /**
      * Walls
      */
@@ -296,6 +299,9 @@ public class DemoGame extends Game
             body.setVelocity(firingVector);
             body.setIgnoreGObjectParent(true);
             projectile.setParent(obj);
+
+            // Clean up projectiles no matter where they end up
+            destroyAfter(projectile.getHandle(), toTicks(PROJECTILE_LIFETIME));
         }
     };
 
@@ -429,13 +435,15 @@ public class DemoGame extends Game
         image.setTexture(texture.getId());
 
         // Randomize color to identify individual bullets
-        final Random ranGen = new Random(System.nanoTime());
+        final Random ranGen = getRandom();
         image.setTint(ranGen.nextFloat() + 0.7f, ranGen.nextFloat() + 0.7f, ranGen.nextFloat() + 0.7f);
 
         // Assemble bullet
         body.setFriction(PROJECTILE_FRICTION);
         body.setRestitution(PROJECTILE_RESTITUTION);
         body.setCollidable(true);
+        body.setCollisionCategory(PROJECTILE_CATEGORY);
+        body.setCollisionMask(BodyComponent.DEFAULT_MASK & ~PROJECTILE_CATEGORY);
         bullet.setImageComponent(image);
         bullet.setBodyComponent(body);
         bullet.setWidth(0.5f);
@@ -501,16 +509,16 @@ public class DemoGame extends Game
 
             // Set cloud image
             image.setTexture(texture);
-            image.setFlipHorizontally(mRanGen.nextBoolean());
-            image.setFlipVertically(mRanGen.nextBoolean());
+            image.setFlipHorizontally(getRandom().nextBoolean());
+            image.setFlipVertically(getRandom().nextBoolean());
 
             // Apply dimensions
-            final float width = ((CLOUD_MAX_WIDTH - CLOUD_MIN_WIDTH) * mRanGen.nextFloat()) + CLOUD_MIN_WIDTH;
+            final float width = ((CLOUD_MAX_WIDTH - CLOUD_MIN_WIDTH) * getRandom().nextFloat()) + CLOUD_MIN_WIDTH;
             cloud.setWidth(width);
             cloud.setHeight(cloud.getWidth() * heightRatio);
 
             // Place somewhere in the room's top half
-            cloud.moveToCenter(mRanGen.nextInt(maxX), mRanGen.nextInt(rangeY) + minY);
+            cloud.moveToCenter(getRandom().nextInt(maxX), getRandom().nextInt(rangeY) + minY);
         }
     }
 
@@ -562,18 +570,18 @@ public class DemoGame extends Game
         for (int i = 0; i < GRASS_COUNT; i++) {
             // Randomize size while keeping texture's size ratio then randomize location on ground
             final GObject object = getGObjectFactory().get("char");
-            final float width = ((GRASS_MAX_WIDTH - GRASS_MIN_WIDTH) * mRanGen.nextFloat()) + GRASS_MIN_WIDTH;
+            final float width = ((GRASS_MAX_WIDTH - GRASS_MIN_WIDTH) * getRandom().nextFloat()) + GRASS_MIN_WIDTH;
             object.setWidth(width * 1.5f);
             object.setHeight(width * heightRatio);
 
             // Randomize location along ground, horizontally centered to itself.
-            final float z = ((GRASS_MAX_Z - GRASS_MIN_Z) * mRanGen.nextFloat()) + GRASS_MIN_Z;
-            object.moveTo(mRanGen.nextInt(maxX) - (object.getWidth() / 2f), 0f, z);
+            final float z = ((GRASS_MAX_Z - GRASS_MIN_Z) * getRandom().nextFloat()) + GRASS_MIN_Z;
+            object.moveTo(getRandom().nextInt(maxX) - (object.getWidth() / 2f), 0f, z);
 
             // Apply grass texture and randomize horizontal flip
             final ImageComponent image = object.getImageComponent();
             image.setTexture(texture);
-            image.setFlipHorizontally(mRanGen.nextBoolean());
+            image.setFlipHorizontally(getRandom().nextBoolean());
 
             // No collision or physics needed
             object.setBodyComponent(null);
@@ -593,18 +601,19 @@ public class DemoGame extends Game
 
         for (int i = 0; i < MOUNTAIN_COUNT; i++) {
             final GObject object = getGObjectFactory().get("char");
-            final float width = ((MOUNTAIN_MAX_WIDTH - MOUNTAIN_MIN_WIDTH) * mRanGen.nextFloat()) + MOUNTAIN_MIN_WIDTH;
+            final float width = ((MOUNTAIN_MAX_WIDTH - MOUNTAIN_MIN_WIDTH) * getRandom().nextFloat())
+                    + MOUNTAIN_MIN_WIDTH;
             object.setWidth(width);
             object.setHeight(width * heightRatio);
 
             // Move to location
-            final float z = ((MOUNTAIN_MAX_Z - MOUNTAIN_MIN_Z) * mRanGen.nextFloat()) + MOUNTAIN_MIN_Z;
-            object.moveTo(mRanGen.nextInt(maxX) - (object.getWidth() / 2f), 0f, z);
+            final float z = ((MOUNTAIN_MAX_Z - MOUNTAIN_MIN_Z) * getRandom().nextFloat()) + MOUNTAIN_MIN_Z;
+            object.moveTo(getRandom().nextInt(maxX) - (object.getWidth() / 2f), 0f, z);
 
             // Setup image
             final ImageComponent image = object.getImageComponent();
             image.setTexture(texture);
-            image.setFlipHorizontally(mRanGen.nextBoolean());
+            image.setFlipHorizontally(getRandom().nextBoolean());
             image.setOffsets(0f, -1.2f);
 
             // No collision or physics needed
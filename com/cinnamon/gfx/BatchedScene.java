@@ -42,9 +42,10 @@ final class BatchedScene implements Scene<Batch<Drawable>>
      *
      * @param factory factory storing drawing data.
      * @param view View for filtering and transformations.
+     * @param alpha fraction of a tick elapsed since the latest tick, between 0 and 1.
      */
     @Override
-    public void add(ImageFactory factory, View view)
+    public void add(ImageFactory factory, View view, float alpha)
     {
         // Bail out if nothing to draw
         if (factory.isEmpty()) {
@@ -62,8 +63,8 @@ final class BatchedScene implements Scene<Batch<Drawable>>
         batch.mTexture = lastTexture;
 
         // Copy image to scene's arr and allow View to apply its transforms
-        final Drawable firstImg = copyImageTo(0, first);
-        view.transform(firstImg);
+        final Drawable firstImg = copyImageTo(0, first, alpha);
+        view.transform(firstImg, alpha);
         mDrawableCount++;
 
         // Add the rest of the objects
@@ -96,10 +97,10 @@ final class BatchedScene implements Scene<Batch<Drawable>>
             }
 
             // Add Drawable to Scene's arr
-            final Drawable drawable = copyImageTo(to++, comp);
+            final Drawable drawable = copyImageTo(to++, comp, alpha);
 
             // Apply View's transforms and update Scene size
-            view.transform(drawable);
+            view.transform(drawable, alpha);
             mDrawableCount++;
         }
 
@@ -113,9 +114,10 @@ final class BatchedScene implements Scene<Batch<Drawable>>
      *
      * @param index index in drawing order to copy to.
      * @param component ImageComponent to copy.
+     * @param alpha fraction of a tick to interpolate position and rotation by.
      * @return copy of ImageComponent.
      */
-    private Drawable copyImageTo(int index, ImageComponent component)
+    private Drawable copyImageTo(int index, ImageComponent component, float alpha)
     {
         ImageLite img = mDrawables[index];
 
@@ -126,7 +128,7 @@ final class BatchedScene implements Scene<Batch<Drawable>>
         }
 
         // Copy Component data in
-        img.copy(component);
+        img.copy(component, alpha);
 
         return img;
     }
@@ -337,11 +339,13 @@ final class BatchedScene implements Scene<Batch<Drawable>>
         private float mY;
 
         /**
-         * <p>Copies the drawing data from an {@link ImageComponent} with an optional position shift.</p>
+         * <p>Copies the drawing data from an {@link ImageComponent}, interpolating its position and rotation between
+         * the previous and current game tick.</p>
          *
          * @param component ImageComponent to copy.
+         * @param alpha fraction of a tick to interpolate by.
          */
-        private void copy(ImageComponent component)
+        private void copy(ImageComponent component, float alpha)
         {
             // Copy texture id, coordinates, and flip directions
             mTexId = component.getTexture();
@@ -351,7 +355,7 @@ final class BatchedScene implements Scene<Batch<Drawable>>
             // Copy width, and height
             mWidth = component.getWidth();
             mHeight = component.getHeight();
-            mAngle = component.getRotation();
+            mAngle = component.getInterpolatedRotation(alpha);
 
             // Copy color tinting
             mRed = component.getRed();
@@ -359,9 +363,9 @@ final class BatchedScene implements Scene<Batch<Drawable>>
             mBlue = component.getBlue();
             mAlpha = component.getTransparency();
 
-            // Copy position
-            mX = component.getX();
-            mY = component.getY();
+            // Copy position between ticks
+            mX = component.getInterpolatedX(alpha);
+            mY = component.getInterpolatedY(alpha);
         }
 
         @Override
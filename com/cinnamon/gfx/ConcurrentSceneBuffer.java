@@ -16,14 +16,14 @@ import com.cinnamon.system.Game;
  * <pre>
  *     {@code
  *
- *     private void onFrameEnd()
+ *     private void onFrameEnd(float alpha)
  *     {
  *         // Get access to Canvas' buffer
  *         final Canvas.SceneBuffer buffer = getCanvas().getSceneBuffer();
  *
  *         // Write drawing draw data for Canvas to poll
  *         final Scene scene = buffer.getWriteScene();
- *         scene.add(getImagegFactory(), getView());
+ *         scene.add(getImagegFactory(), getView(), alpha);
  *
  *         // Update Scene available for drawing thread
  *         buffer.flush();
@@ -54,6 +54,125 @@ public final class ImageComponent extends ComponentFactory.Component implements
     // Visibility toggle
     private boolean mVisible = true;
 
+    /**
+     * Transform at the start of the current game tick for interpolating between ticks while drawing
+     */
+
+    // Previous position (without offset)
+    private float mPrevX;
+    private float mPrevY;
+
+    // Previous rotation angle in radians
+    private double mPrevAngle;
+
+    // True if a previous transform was stored since the ImageComponent was last requisitioned
+    private boolean mHasPrevious = false;
+
+    /**
+     * <p>Saves the current position and rotation as the transform to interpolate from when drawing between game
+     * ticks.</p>
+     */
+    void storePreviousTransform()
+    {
+        mPrevX = mPosition.getX();
+        mPrevY = mPosition.getY();
+        mPrevAngle = mAngle;
+        mHasPrevious = true;
+    }
+
+    /**
+     * <p>Forgets the stored previous transform so that drawing uses the current transform until
+     * {@link #storePreviousTransform()} is called again. This prevents a recycled ImageComponent from being drawn
+     * sliding from its old position.</p>
+     */
+    void clearPreviousTransform()
+    {
+        mHasPrevious = false;
+    }
+
+    /**
+     * <p>Copies the drawing state of another ImageComponent: offsets, position, texture, flipping, dimensions,
+     * rotation, tint, transparency, and visibility. Listeners, ownership, and the previous transform are not copied.
+     * Changes are applied directly so the {@link OnDrawOrderChangeListener} isn't called and the
+     * {@link OnDrawVisibilityChangedListener} is only called for visibility that ends up different.</p>
+     *
+     * @param image ImageComponent to copy.
+     */
+    void copyFrom(ImageComponent image)
+    {
+        final boolean visible = mVisible;
+        final boolean opaque = mAlpha > 0f;
+
+        mOffset.set(image.mOffset.getX(), image.mOffset.getY());
+        mPosition.set(image.mPosition.getX(), image.mPosition.getY(), image.mPosition.getZ());
+        mTexture = image.mTexture;
+        mFlipH = image.mFlipH;
+        mFlipV = image.mFlipV;
+        mWidth = image.mWidth;
+        mHeight = image.mHeight;
+        mAngle = image.mAngle;
+        mRed = image.mRed;
+        mGreen = image.mGreen;
+        mBlue = image.mBlue;
+        mAlpha = image.mAlpha;
+        mVisible = image.mVisible;
+
+        // Report only the net changes setVisible(boolean) and setTransparency(float) would have reported
+        if (mVisibilityListener != null) {
+            if (mVisible != visible) {
+                mVisibilityListener.onChange(mVisible);
+            }
+            if ((mAlpha > 0f) != opaque) {
+                mVisibilityListener.onChange(mAlpha > 0f);
+            }
+        }
+    }
+
+    /**
+     * <p>Gets the x coordinate, with offset, interpolated between the previous and current transform.</p>
+     *
+     * @param alpha fraction of a tick since the current transform was set, between 0 and 1.
+     * @return interpolated x.
+     */
+    float getInterpolatedX(float alpha)
+    {
+        if (!mHasPrevious) {
+            return getX();
+        }
+
+        return mPrevX + ((mPosition.getX() - mPrevX) * alpha) + mOffset.getX();
+    }
+
+    /**
+     * <p>Gets the y coordinate, with offset, interpolated between the previous and current transform.</p>
+     *
+     * @param alpha fraction of a tick since the current transform was set, between 0 and 1.
+     * @return interpolated y.
+     */
+    float getInterpolatedY(float alpha)
+    {
+        if (!mHasPrevious) {
+            return getY();
+        }
+
+        return mPrevY + ((mPosition.getY() - mPrevY) * alpha) + mOffset.getY();
+    }
+
+    /**
+     * <p>Gets the rotation angle interpolated between the previous and current transform.</p>
+     *
+     * @param alpha fraction of a tick since the current transform was set, between 0 and 1.
+     * @return interpolated angle in radians.
+     */
+    double getInterpolatedRotation(float alpha)
+    {
+        if (!mHasPrevious) {
+            return mAngle;
+        }
+
+        return mPrevAngle + ((mAngle - mPrevAngle) * alpha);
+    }
+
     /**
      * <p>Gets the x offset.</p>
      *
@@ -1,9 +1,12 @@
 package com.cinnamon.gfx;
 
+import com.cinnamon.object.BodyComponent;
 import com.cinnamon.object.GObject;
+import com.cinnamon.object.GObjectFactory;
 import com.cinnamon.system.ComponentFactory;
 import com.cinnamon.system.Game;
 import com.cinnamon.system.OnOrphanChangedListener;
+import com.cinnamon.system.View;
 import com.cinnamon.utils.Comparison;
 import com.cinnamon.utils.Sort;
 
@@ -96,8 +99,49 @@ public abstract class ImageFactory extends ComponentFactory<ImageComponent, Shad
         // Attach listener for changes to the z position
         object.setOnDrawOrderChangeListener(mDrawOrderListener);
 
-        // Add new component to be sorted for drawing
+        // Add new component to be sorted for drawing; batches resort once at the end
         mDrawOrder[mVisibleCount] = object;
+        if (!isBatching()) {
+            notifyDrawOrderChanged();
+        }
+
+        // Don't interpolate from a previous use's position
+        object.clearPreviousTransform();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>ImageComponents copy their drawing state directly so only net changes in visibility are reported.</p>
+     *
+     * @param source ImageComponent to copy.
+     * @param destination ImageComponent to copy to.
+     */
+    @Override
+    protected final void copyPrototype(ImageComponent source, ImageComponent destination)
+    {
+        destination.copyFrom(source);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The draw order array is grown once to fit every {@link ImageComponent} about to be requested.</p>
+     *
+     * @param count number of ImageComponents about to be requested.
+     */
+    @Override
+    protected final void onReserve(int count)
+    {
+        final int needed = mVisibleCount + count;
+        if (needed > mDrawOrder.length) {
+            increaseDrawCapacity(Math.max(needed, (int) (mDrawOrder.length * (1f + mDrawGrowth))));
+        }
+    }
+
+    @Override
+    protected final void onBatchEnd()
+    {
         notifyDrawOrderChanged();
     }
 
@@ -144,7 +188,81 @@ public abstract class ImageFactory extends ComponentFactory<ImageComponent, Shad
     @Override
     protected void onRemove(ImageComponent object)
     {
-        notifyDrawOrderChanged();
+        // Batches resort once at the end
+        if (!isBatching()) {
+            notifyDrawOrderChanged();
+        }
+    }
+
+    /**
+     * <p>Saves each {@link ImageComponent}'s position and rotation as the transform to interpolate from when drawing
+     * before the next game tick completes. This should be called at the start of every tick.</p>
+     */
+    public final void storePreviousTransforms()
+    {
+        for (int i = 0, sz = size(); i < sz; i++) {
+            final ImageComponent image = getAt(i);
+
+            image.storePreviousTransform();
+        }
+    }
+
+    /**
+     * <p>Places the {@link ImageComponent}s of {@link GObject}s whose images are derived from their bodies, as set
+     * with {@link GObjectFactory#setImageSyncLazy(boolean)}, onto their {@link BodyComponent}s. Only images that
+     * would be drawn are placed: those that are visible, not fully transparent, and either in the {@link View} where
+     * they were last placed or in the View once placed. Images elsewhere are left untouched.</p>
+     *
+     * <p>An image takes its body's rotation and is aligned with the body's bottom left corner, or centered on the
+     * body when rotated, as eager synchronization leaves it. An image coming into the View from elsewhere is drawn
+     * without interpolation until the next tick so that it doesn't appear to slide in from where it was left.</p>
+     *
+     * @param objects GObject lookup.
+     * @param view View.
+     */
+    public final void syncToBodies(GObjectFactory<?> objects, View view)
+    {
+        for (int i = 0, sz = size(); i < sz; i++) {
+            final ImageComponent image = getAt(i);
+
+            // Skip images that wouldn't be drawn anyway
+            if (image.isOrphan() || !image.isVisible() || image.getTransparency() <= 0f) {
+                continue;
+            }
+
+            final GObject object = objects.get(image.getOwnerHandle());
+            if (object == null || !object.isImageDerived()) {
+                continue;
+            }
+
+            // Find where the image belongs
+            final BodyComponent body = object.getBodyComponent();
+            final double angle = body.getRotation();
+            final float width = image.getWidth();
+            final float height = image.getHeight();
+            final float x;
+            final float y;
+            if (angle == 0d) {
+                x = body.getX();
+                y = body.getY();
+            } else {
+                x = body.getCenterX() - (width / 2f);
+                y = body.getCenterY() - (height / 2f);
+            }
+
+            // Images neither seen before nor after placing can stay where they were left
+            final boolean wasInView = view.intersects(image);
+            if (!wasInView && !view.intersects(x + image.getOffsetX(), y + image.getOffsetY(), width, height)) {
+                continue;
+            }
+
+            image.moveTo(x, y);
+            image.rotateTo(angle);
+
+            if (!wasInView) {
+                image.clearPreviousTransform();
+            }
+        }
     }
 
     /**
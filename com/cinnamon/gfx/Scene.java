@@ -27,10 +27,15 @@ public interface Scene<E>
     /**
      * <p>Adds all necessary drawing information to the Scene.</p>
      *
+     * <p>Since drawing may occur partway between game ticks, positions and rotations are interpolated between their
+     * values at the start of the latest tick and their current values. An alpha of 0 draws the previous state while
+     * an alpha of 1 draws the current state.</p>
+     *
      * @param factory ImageFactory storing drawing data.
      * @param view View for filtering for visible instances.
+     * @param alpha fraction of a tick elapsed since the latest tick, between 0 and 1.
      */
-    void add(ImageFactory factory, View view);
+    void add(ImageFactory factory, View view, float alpha);
 
     /**
      * <p>Empties the Scene of all drawing data.</p>
@@ -3,6 +3,7 @@ package com.cinnamon.object;
 import com.cinnamon.system.ComponentFactory;
 import com.cinnamon.utils.*;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -28,7 +29,9 @@ import java.util.List;
  * <p>
  *     Aside from collision operations, BodyComponents also hold quantities used during physics computations in the
  *     {@link Solver}. These include (but are not limited to) mass, velocity, and coefficients of restitution and
- *     friction, the first two being measured in kilograms and meters per second, respectively.
+ *     friction, the first two being measured in kilograms and meters per second, respectively. These are kept in the
+ *     BodyComponent's own fields unless its {@link BodyFactory} is packed, in which case they live in a
+ *     {@link BodyStore} shared by all of the factory's bodies.
  * </p>
  *
  * <p>
@@ -37,6 +40,25 @@ import java.util.List;
  * </p>
  *
  * <p>
+ *     Kinematic BodyComponents, set with {@link #setKinematic(boolean)}, move only according to the velocity given
+ *     to them. They push other bodies as if having infinite mass but are never pushed back, are not affected by
+ *     gravity or impulses, and never sleep.
+ * </p>
+ *
+ * <p>
+ *     Sensor BodyComponents, set with {@link #setSensor(boolean)}, detect other bodies without physically reacting
+ *     to them. Their overlaps are reported through an {@link OnOverlapListener} instead of being solved.
+ * </p>
+ *
+ * <p>
+ *     Which bodies may collide can be narrowed further with collision categories and masks. A BodyComponent belongs
+ *     to the categories set through {@link #setCollisionCategory(int)} and only collides with bodies whose
+ *     categories share at least one bit with its {@link #setCollisionMask(int)}. Both bodies of a pair must accept
+ *     each other for their collision to be processed. By default, every BodyComponent belongs to
+ *     {@link #DEFAULT_CATEGORY} and collides with all categories.
+ * </p>
+ *
+ * <p>
  *     Both the SAT detection and contact point generation algorithms were originally learned from http://www.dyn4j
  *     .org/.
  * </p>
@@ -44,38 +66,24 @@ import java.util.List;
 public final class BodyComponent extends ComponentFactory.Component implements Positional, Rotatable
 {
     /**
-     * Collision testing vars to be reused for each SAT run for collidesSAT()
+     * <p>Collision category assigned to new BodyComponents.</p>
      */
-
-    // Separating axis to be used during SAT
-    private final Vector2F mSeparatingAxis = new Vector2F();
-
-    // An edge's start and end points
-    private final float[] mEdgePt0 = new float[2];
-    private final float[] mEdgePt1 = new float[2];
-
-    // Minimum and maximum containers for each Shape's projection
-    private final Vector2F mMinMax0 = new Vector2F();
-    private final Vector2F mMinMax1 = new Vector2F();
-
-    // Separating axis with minimum depth overlap as a result of SAT, for use in contact gen
-    private final Vector2F mMinDepthVec = new Vector2F();
-
-    // Minimum projection used during SAT to find minimum dist to separate
-    private float mMinDepth;
+    public static final int DEFAULT_CATEGORY = 0x00000001;
 
     /**
-     * Contact generation vars for getContacts()
+     * <p>Collision mask assigned to new BodyComponents, accepting collisions with all categories.</p>
      */
+    public static final int DEFAULT_MASK = 0xFFFFFFFF;
 
-    // Reference edge used during contact point generation
-    private final CollidingEdge mRefEdge = new CollidingEdge();
+    // Bytes written by writeState(ByteBuffer): position, rotation, 3 vectors, sleep timer, and sleep flag
+    static final int STATE_BYTES = (4 * 2) + 8 + (4 * 6) + 4 + 1;
 
-    // Incident edge used during contact point generation
-    private final CollidingEdge mIncEdge = new CollidingEdge();
+    /**
+     * Collision testing vars to be reused by collidesWith()
+     */
 
-    // Container vector representing an edge (one end minus the other) used in computations
-    private final Vector2F mEdge = new Vector2F();
+    // Working space for SAT and contact generation when called through this body; created on first use
+    private Scratch mScratch;
 
     /**
      * BodyComponent instance specific properties
@@ -99,6 +107,24 @@ public final class BodyComponent extends ComponentFactory.Component implements P
     // True to ignore collisions with GObject's parent
     private boolean mIgnoreGObjectParent = false;
 
+    // True to report overlaps instead of resolving collisions
+    private boolean mSensor = false;
+
+    // True to move by velocity alone
+    private boolean mKinematic = false;
+
+    // True while outside every simulation region
+    private boolean mFrozen = false;
+
+    // Parent GObject's handle, mirrored from the owning GObject
+    private long mParentObject = Handle.NULL;
+
+    // Categories the body belongs to
+    private int mCategory = DEFAULT_CATEGORY;
+
+    // Categories the body may collide with
+    private int mMask = DEFAULT_MASK;
+
     /**
      * Physics
      */
@@ -110,13 +136,16 @@ public final class BodyComponent extends ComponentFactory.Component implements P
     private float mInvMass = 1f / mMass;
 
     // Meters per second
-    private final Vector2F mVelocity = new Vector2F();
+    private float mVelocityX = 0f;
+    private float mVelocityY = 0f;
 
     // Velocity from previous physics update
-    private final Vector2F mOldVelocity = new Vector2F();
+    private float mOldVelocityX = 0f;
+    private float mOldVelocityY = 0f;
 
-    // Impulse vector to be applied during each move() and cleared afterwards
-    private final Vector2F mImpulse = new Vector2F();
+    // Impulse to be applied during the next physics update
+    private float mImpulseX = 0f;
+    private float mImpulseY = 0f;
 
     // Coefficient of friction
     private float mCOF = 0.5f;
@@ -124,9 +153,21 @@ public final class BodyComponent extends ComponentFactory.Component implements P
     // Coefficient of restitution
     private float mCOR = 0.8f;
 
+    // Shared store holding the above quantities in place of the fields while packed, null when unpacked
+    private BodyStore mStore;
+
+    // Slot within mStore
+    private int mSlot = 0;
+
     // Sleep optimization flag
     private boolean mSleeping = false;
 
+    // Seconds spent continuously eligible for sleep
+    private float mSleepTime = 0f;
+
+    // True if the velocity or impulse was changed from outside the Solver since the last sleep update
+    private boolean mWakeRequested = false;
+
     /**
      * <p>Constructs a BodyComponent with a specific {@link Shape}. The stored Shape is a copy of the given Shape.</p>
      *
@@ -146,20 +187,53 @@ public final class BodyComponent extends ComponentFactory.Component implements P
      * @return true if the Shapes intersect.
      */
     public final boolean collidesWith(BodyComponent other, Manifold manifold)
+    {
+        // The Solver tests with its own working space so most bodies never need one
+        if (mScratch == null) {
+            mScratch = new Scratch();
+        }
+
+        return collide(this, other, manifold, mScratch);
+    }
+
+    /**
+     * <p>Performs the same test as {@link #collidesWith(BodyComponent, Manifold)} but with all working state held
+     * in a given {@link Scratch}. Neither body is modified so calls for different pairs, even pairs sharing a body,
+     * may run on different threads at once as long as each thread has its own Scratch and Manifold and no body is
+     * changed meanwhile.</p>
+     *
+     * @param body BodyComponent whose point of view the Manifold is written from.
+     * @param other other BodyComponent.
+     * @param manifold container for collision info.
+     * @param scratch working space.
+     * @return true if the Shapes intersect.
+     */
+    static boolean collide(BodyComponent body, BodyComponent other, Manifold manifold, Scratch scratch)
     {
         // If either body isn't collidable, no collision ops can be done
-        if (!isCollidable() || !other.isCollidable()) {
+        if (!body.isCollidable() || !other.isCollidable()) {
+            return false;
+        }
+
+        // No separation axis from the body's point of view implies no collision
+        final float depth = findMinOverlap(body.mShape, other.mShape, scratch.mMinDepthVec, scratch);
+        if (depth < 0f) {
             return false;
         }
 
-        // No separation axis implies no collision
-        final Vector2F sepAxis = collidesSAT(other, true);
-        if (sepAxis == null) {
+        // Test SAT once more but from the other body's point of view
+        final float otherDepth = findMinOverlap(other.mShape, body.mShape, scratch.mOtherMinDepthVec, scratch);
+        if (otherDepth < 0f) {
             return false;
         }
 
+        // Use separating axis with min overlap between both Shapes
+        final Vector2F sepAxis = scratch.mSepAxis;
+        sepAxis.copy((depth < otherDepth) ? scratch.mMinDepthVec : scratch.mOtherMinDepthVec);
+
         // Make sure separating axis' direction to point towards the other body
-        if (isPointingTowards(getCenterX(), getCenterY(), sepAxis, other.getCenterX(), other.getCenterY())) {
+        if (isPointingTowards(body.getCenterX(), body.getCenterY(), sepAxis, other.getCenterX(),
+                other.getCenterY())) {
             sepAxis.negate();
         }
 
@@ -167,30 +241,28 @@ public final class BodyComponent extends ComponentFactory.Component implements P
         manifold.clear();
         final List<Vector2F> contacts = manifold.mPoints;
         final List<Float> depths = manifold.mDepths;
+        final List<Integer> features = manifold.mFeatures;
 
         // Compute contact points for current collision
-        getContacts(contacts, depths, other, sepAxis);
+        getContacts(body, other, contacts, depths, features, sepAxis, scratch);
 
         // There should be points of contact if a collision occurred
         assert (!contacts.isEmpty());
 
         // Compute collision normal from the reference edge chosen in contact gen
-        final Vector2F collisionNormal = mRefEdge.mEnd;
-        collisionNormal.subtract(mRefEdge.mBegin);
+        final Vector2F collisionNormal = scratch.mRefEdge.mEnd;
+        collisionNormal.subtract(scratch.mRefEdge.mBegin);
         collisionNormal.normal(true);
         collisionNormal.normalize();
 
         // Make sure collision normal points towards other object
-        if (isPointingTowards(getCenterX(), getCenterY(), collisionNormal, other.getCenterX(), other.getCenterY())) {
+        if (isPointingTowards(body.getCenterX(), body.getCenterY(), collisionNormal, other.getCenterX(),
+                other.getCenterY())) {
             collisionNormal.negate();
         }
 
-        // Fill manifold with collision info
+        // Contact points were written directly to the manifold so only the normal remains
         manifold.setContactNormal(collisionNormal);
-        manifold.setContactPoint(0, contacts.get(0), depths.get(0));
-        if (contacts.size() > 1) {
-            manifold.setContactPoint(1, contacts.get(1), depths.get(1));
-        }
 
         return true;
     }
@@ -206,7 +278,7 @@ public final class BodyComponent extends ComponentFactory.Component implements P
      * @param y1 second position's y.
      * @return true if the first position is pointing towards the second.
      */
-    private boolean isPointingTowards(float x0, float y0, Vector2F velocity, float x1, float y1)
+    private static boolean isPointingTowards(float x0, float y0, Vector2F velocity, float x1, float y1)
     {
         final float xDiff = x0 - x1;
         final float yDiff = y0 - y1;
@@ -216,72 +288,61 @@ public final class BodyComponent extends ComponentFactory.Component implements P
     }
 
     /**
-     * <p>Performs collision testing against another {@link BodyComponent}'s {@link Shape} using the Separating Axis
-     * Theorem.</p>
+     * <p>Performs collision testing of one {@link Shape} against another using the Separating Axis Theorem. Only the
+     * first Shape's edges are used as axes.</p>
      *
-     * @param other other BodyComponent.
-     * @param reverseRoles true to perform SAT from the other body's point of view as well.
-     * @return the separating axis with the minimum distance needed for separation, or null if there was no collision.
+     * @param shape Shape whose edges are tested.
+     * @param otherShape other Shape.
+     * @param minAxis container for the separating axis with the minimum distance needed for separation.
+     * @param scratch working space.
+     * @return the minimum distance needed for separation, or -1 if there was no collision.
      */
-    private Vector2F collidesSAT(BodyComponent other, boolean reverseRoles)
+    private static float findMinOverlap(Shape shape, Shape otherShape, Vector2F minAxis, Scratch scratch)
     {
-        final Shape otherShape = other.getShape();
-
-        mMinDepth = Float.MAX_VALUE;
+        final Vector2F sepAxis = scratch.mSeparatingAxis;
+        final Vector2F minMax0 = scratch.mMinMax0;
+        final Vector2F minMax1 = scratch.mMinMax1;
+        float minDepth = Float.MAX_VALUE;
 
         // Find min/max projected points of first shape
-        for (int i = 0, sz = mShape.getPointCount(); i < sz; i++) {
+        for (int i = 0, sz = shape.getPointCount(); i < sz; i++) {
 
             // Get points forming an edge
-            mShape.getPoint(i, mEdgePt0);
-            mShape.getPoint((i + 1) % sz, mEdgePt1);
+            shape.getPoint(i, scratch.mEdgePt0);
+            shape.getPoint((i + 1) % sz, scratch.mEdgePt1);
 
             // Compute separation axis
-            mSeparatingAxis.set(mEdgePt1[0] - mEdgePt0[0], mEdgePt1[1] - mEdgePt0[1]);
+            sepAxis.set(scratch.mEdgePt1[0] - scratch.mEdgePt0[0], scratch.mEdgePt1[1] - scratch.mEdgePt0[1]);
 
             // Make it a unit vector and transform perpendicular
-            mSeparatingAxis.normalize();
-            mSeparatingAxis.normal(false);
+            sepAxis.normalize();
+            sepAxis.normal(false);
 
             // Find the min/max projections of each shape onto the axis
-            BodyComponent.findMinMaxProjections(mShape, mSeparatingAxis, mMinMax0);
-            BodyComponent.findMinMaxProjections(otherShape, mSeparatingAxis, mMinMax1);
+            BodyComponent.findMinMaxProjections(shape, sepAxis, minMax0);
+            BodyComponent.findMinMaxProjections(otherShape, sepAxis, minMax1);
 
             // Bail out as soon as a separation is found (min = x, max = y)
-            final boolean case0 = (mMinMax0.getX() > mMinMax1.getY() || Point2F.isEqual(mMinMax0.getX(),
-                    mMinMax1.getY()));
-            final boolean case1 = (mMinMax0.getY() < mMinMax1.getX() || Point2F.isEqual(mMinMax0.getY(),
-                    mMinMax1.getX()));
+            final boolean case0 = (minMax0.getX() > minMax1.getY() || Point2F.isEqual(minMax0.getX(),
+                    minMax1.getY()));
+            final boolean case1 = (minMax0.getY() < minMax1.getX() || Point2F.isEqual(minMax0.getY(),
+                    minMax1.getX()));
             if (case0 || case1) {
-                return null;
+                return -1f;
             }
 
             // Compute shape's projection overlap on current separating axis
-            final float depth = Math.min(Math.abs(mMinMax0.getX() - mMinMax1.getY()), Math.abs(mMinMax1.getX() -
-                    mMinMax0.getY()));
+            final float depth = Math.min(Math.abs(minMax0.getX() - minMax1.getY()), Math.abs(minMax1.getX() -
+                    minMax0.getY()));
 
             // Track separating axis with the minimum overlap
-            if (depth < mMinDepth) {
-                mMinDepth = depth;
-                mMinDepthVec.copy(mSeparatingAxis);
+            if (depth < minDepth) {
+                minDepth = depth;
+                minAxis.copy(sepAxis);
             }
         }
 
-        // Test SAT once more but switch BodyComponent's roles
-        if (reverseRoles) {
-
-            // Bail out if a space was found from the other shape's pov
-            final Vector2F otherMinVec = other.collidesSAT(this, false);
-            if (otherMinVec == null) {
-                return null;
-            }
-
-            // Return separating axis with min overlap between both Shapes
-            return new Vector2F((mMinDepth < other.mMinDepth) ? mMinDepthVec : otherMinVec);
-        }
-
-        // Return separating axis with min overlap amongst all local axes
-        return new Vector2F(mMinDepthVec);
+        return minDepth;
     }
 
     /**
@@ -427,7 +488,7 @@ public final class BodyComponent extends ComponentFactory.Component implements P
      */
     public final float getFriction()
     {
-        return mCOF;
+        return (mStore == null) ? mCOF : mStore.mFriction[mSlot];
     }
 
     /**
@@ -437,7 +498,11 @@ public final class BodyComponent extends ComponentFactory.Component implements P
      */
     public final void setFriction(float coefficient)
     {
-        mCOF = coefficient;
+        if (mStore == null) {
+            mCOF = coefficient;
+        } else {
+            mStore.mFriction[mSlot] = coefficient;
+        }
     }
 
     /**
@@ -447,7 +512,7 @@ public final class BodyComponent extends ComponentFactory.Component implements P
      */
     public final float getRestitution()
     {
-        return mCOR;
+        return (mStore == null) ? mCOR : mStore.mRestitution[mSlot];
     }
 
     /**
@@ -457,7 +522,11 @@ public final class BodyComponent extends ComponentFactory.Component implements P
      */
     public final void setRestitution(float coefficient)
     {
-        mCOR = coefficient;
+        if (mStore == null) {
+            mCOR = coefficient;
+        } else {
+            mStore.mRestitution[mSlot] = coefficient;
+        }
     }
 
     /**
@@ -467,7 +536,9 @@ public final class BodyComponent extends ComponentFactory.Component implements P
      */
     public final Vector2F getVelocity()
     {
-        return new Vector2F(mVelocity);
+        final Vector2F velocity = new Vector2F();
+        getVelocity(velocity);
+        return velocity;
     }
 
     /**
@@ -477,23 +548,64 @@ public final class BodyComponent extends ComponentFactory.Component implements P
      */
     public final void getVelocity(Vector2F container)
     {
-        container.copy(mVelocity);
+        if (mStore == null) {
+            container.set(mVelocityX, mVelocityY);
+        } else {
+            container.set(mStore.mVelocityX[mSlot], mStore.mVelocityY[mSlot]);
+        }
     }
 
     /**
      * <p>Sets the velocity. If null is given, the current velocity is zeroed.</p>
      *
+     * <p>If the BodyComponent is sleeping, its group of touching bodies will be woken during the next physics
+     * update.</p>
+     *
      * @param velocity velocity vector.
      */
     public final void setVelocity(Vector2F velocity)
+    {
+        applyVelocity(velocity);
+        mWakeRequested = true;
+    }
+
+    /**
+     * <p>Version of {@link #setVelocity(Vector2F)} for use by the {@link Solver} when applying impulses during a
+     * physics update. Unlike setVelocity(Vector2F), this method does not wake the BodyComponent.</p>
+     *
+     * @param velocity velocity vector.
+     */
+    final void applyVelocity(Vector2F velocity)
     {
         // Clear the velocity if given null
-        if (velocity == null) {
-            mVelocity.set(0f, 0f);
-            return;
+        final float x = (velocity == null) ? 0f : velocity.getX();
+        final float y = (velocity == null) ? 0f : velocity.getY();
+
+        if (mStore == null) {
+            mVelocityX = x;
+            mVelocityY = y;
+        } else {
+            mStore.mVelocityX[mSlot] = x;
+            mStore.mVelocityY[mSlot] = y;
         }
+    }
 
-        mVelocity.copy(velocity);
+    /**
+     * <p>Adds to the velocity. This is used by the {@link Solver} when applying impulses during a physics update and
+     * does not wake the BodyComponent.</p>
+     *
+     * @param x x change.
+     * @param y y change.
+     */
+    final void addVelocity(float x, float y)
+    {
+        if (mStore == null) {
+            mVelocityX += x;
+            mVelocityY += y;
+        } else {
+            mStore.mVelocityX[mSlot] += x;
+            mStore.mVelocityY[mSlot] += y;
+        }
     }
 
     /**
@@ -503,7 +615,11 @@ public final class BodyComponent extends ComponentFactory.Component implements P
      */
     final void getPreviousVelocity(Vector2F container)
     {
-        container.copy(mOldVelocity);
+        if (mStore == null) {
+            container.set(mOldVelocityX, mOldVelocityY);
+        } else {
+            container.set(mStore.mOldVelocityX[mSlot], mStore.mOldVelocityY[mSlot]);
+        }
     }
 
     /**
@@ -515,8 +631,17 @@ public final class BodyComponent extends ComponentFactory.Component implements P
      */
     final void updateVelocity(Vector2F velocity)
     {
-        mOldVelocity.copy(mVelocity);
-        mVelocity.copy(velocity);
+        if (mStore == null) {
+            mOldVelocityX = mVelocityX;
+            mOldVelocityY = mVelocityY;
+            mVelocityX = velocity.getX();
+            mVelocityY = velocity.getY();
+        } else {
+            mStore.mOldVelocityX[mSlot] = mStore.mVelocityX[mSlot];
+            mStore.mOldVelocityY[mSlot] = mStore.mVelocityY[mSlot];
+            mStore.mVelocityX[mSlot] = velocity.getX();
+            mStore.mVelocityY[mSlot] = velocity.getY();
+        }
     }
 
     /**
@@ -526,7 +651,9 @@ public final class BodyComponent extends ComponentFactory.Component implements P
      */
     public final float getSpeed()
     {
-        return mVelocity.magnitude();
+        final float x = (mStore == null) ? mVelocityX : mStore.mVelocityX[mSlot];
+        final float y = (mStore == null) ? mVelocityY : mStore.mVelocityY[mSlot];
+        return (float) Math.sqrt((x * x) + (y * y));
     }
 
     /**
@@ -536,7 +663,9 @@ public final class BodyComponent extends ComponentFactory.Component implements P
      */
     public final Vector2F getImpulse()
     {
-        return new Vector2F(mImpulse);
+        final Vector2F impulse = new Vector2F();
+        getImpulse(impulse);
+        return impulse;
     }
 
     /**
@@ -546,32 +675,56 @@ public final class BodyComponent extends ComponentFactory.Component implements P
      */
     public final void getImpulse(Vector2F container)
     {
-        container.copy(mImpulse);
+        if (mStore == null) {
+            container.set(mImpulseX, mImpulseY);
+        } else {
+            container.set(mStore.mImpulseX[mSlot], mStore.mImpulseY[mSlot]);
+        }
     }
 
     /**
      * <p>Sets the impulse to be added during the next motion step.</p>
      *
+     * <p>A non-null impulse wakes the BodyComponent's group of touching bodies if sleeping.</p>
+     *
      * @param impulse impulse.
      */
     public final void setImpulse(Vector2F impulse)
     {
-        if (impulse == null) {
-            mImpulse.set(0f, 0f);
-            return;
+        final float x = (impulse == null) ? 0f : impulse.getX();
+        final float y = (impulse == null) ? 0f : impulse.getY();
+
+        if (mStore == null) {
+            mImpulseX = x;
+            mImpulseY = y;
+        } else {
+            mStore.mImpulseX[mSlot] = x;
+            mStore.mImpulseY[mSlot] = y;
         }
 
-        mImpulse.copy(impulse);
+        // Clearing the impulse doesn't disturb the body
+        if (impulse != null) {
+            mWakeRequested = true;
+        }
     }
 
     /**
      * <p>Adds an impulse to be added during the next motion step.</p>
      *
+     * <p>The BodyComponent's group of touching bodies will be woken if sleeping.</p>
+     *
      * @param impulse impulse.
      */
     public final void addImpulse(Vector2F impulse)
     {
-        mImpulse.add(impulse);
+        if (mStore == null) {
+            mImpulseX += impulse.getX();
+            mImpulseY += impulse.getY();
+        } else {
+            mStore.mImpulseX[mSlot] += impulse.getX();
+            mStore.mImpulseY[mSlot] += impulse.getY();
+        }
+        mWakeRequested = true;
     }
 
     /**
@@ -583,7 +736,9 @@ public final class BodyComponent extends ComponentFactory.Component implements P
      */
     public final Vector2F getAcceleration()
     {
-        return new Vector2F(mVelocity).subtract(mOldVelocity);
+        final Vector2F acceleration = new Vector2F();
+        getAcceleration(acceleration);
+        return acceleration;
     }
 
     /**
@@ -595,8 +750,12 @@ public final class BodyComponent extends ComponentFactory.Component implements P
      */
     public final void getAcceleration(Vector2F container)
     {
-        container.copy(mVelocity);
-        container.subtract(mOldVelocity);
+        if (mStore == null) {
+            container.set(mVelocityX - mOldVelocityX, mVelocityY - mOldVelocityY);
+        } else {
+            container.set(mStore.mVelocityX[mSlot] - mStore.mOldVelocityX[mSlot],
+                    mStore.mVelocityY[mSlot] - mStore.mOldVelocityY[mSlot]);
+        }
     }
 
     /**
@@ -606,7 +765,7 @@ public final class BodyComponent extends ComponentFactory.Component implements P
      */
     public final float getMass()
     {
-        return mMass;
+        return (mStore == null) ? mMass : mStore.mMass[mSlot];
     }
 
     /**
@@ -622,20 +781,31 @@ public final class BodyComponent extends ComponentFactory.Component implements P
             throw new IllegalArgumentException("Mass should be >= 0: " + mass);
         }
 
-        mMass = mass;
-
         // Precompute inverse mass; store inverse infinite as 0
-        mInvMass = (mass == 0f) ? 0f : 1f / mass;
+        final float invMass = (mass == 0f) ? 0f : 1f / mass;
+
+        if (mStore == null) {
+            mMass = mass;
+            mInvMass = invMass;
+        } else {
+            mStore.mMass[mSlot] = mass;
+            mStore.mInvMass[mSlot] = invMass;
+        }
     }
 
     /**
-     * <p>Gets the inverse mass in kilograms. This value is often used in physics.</p>
+     * <p>Gets the inverse mass in kilograms. This value is often used in physics. Kinematic bodies have an inverse
+     * mass of 0 as they are treated as having infinite mass.</p>
      *
      * @return (1 / mass) kilograms
      */
     public final float getInverseMass()
     {
-        return mInvMass;
+        if (mKinematic) {
+            return 0f;
+        }
+
+        return (mStore == null) ? mInvMass : mStore.mInvMass[mSlot];
     }
 
     @Override
@@ -722,7 +892,61 @@ public final class BodyComponent extends ComponentFactory.Component implements P
      */
     public final boolean isStatic()
     {
-        return mMass == 0f;
+        return getMass() == 0f;
+    }
+
+    /**
+     * <p>Checks if the BodyComponent is kinematic. A static BodyComponent is never kinematic.</p>
+     *
+     * @return true if moved only by its velocity.
+     */
+    public final boolean isKinematic()
+    {
+        return mKinematic && getMass() != 0f;
+    }
+
+    /**
+     * <p>Sets whether or not the BodyComponent is kinematic. A kinematic body's position is integrated from the
+     * velocity set through {@link #setVelocity(Vector2F)} and nothing else; gravity, impulses, and collisions leave
+     * it unaffected. Other bodies colliding with it react as if it had infinite mass.</p>
+     *
+     * <p>Kinematic bodies neither join nor bridge groups of touching bodies for sleeping so they don't keep resting
+     * bodies awake. A sleeping body touched by a moving kinematic body is woken.</p>
+     *
+     * <p>This setting has no effect on static bodies (mass of 0).</p>
+     *
+     * @param enable true to make kinematic.
+     */
+    public final void setKinematic(boolean enable)
+    {
+        mKinematic = enable;
+
+        // Kinematic bodies never sleep
+        if (enable) {
+            mSleeping = false;
+            mSleepTime = 0f;
+        }
+    }
+
+    /**
+     * <p>Checks if the BodyComponent is frozen for being outside every {@link SimulationRegions} region. Frozen
+     * bodies keep their velocity but are neither moved nor tested for collision.</p>
+     *
+     * @return true if frozen.
+     */
+    public final boolean isFrozen()
+    {
+        return mFrozen;
+    }
+
+    /**
+     * <p>Sets whether or not the BodyComponent is frozen.</p>
+     *
+     * @param enable true to freeze.
+     */
+    void setFrozen(boolean enable)
+    {
+        mFrozen = enable;
     }
 
     /**
@@ -748,6 +972,30 @@ public final class BodyComponent extends ComponentFactory.Component implements P
         mCollidable = enable;
     }
 
+    /**
+     * <p>Checks if the BodyComponent is a sensor.</p>
+     *
+     * @return true if a sensor.
+     */
+    public final boolean isSensor()
+    {
+        return mSensor;
+    }
+
+    /**
+     * <p>Sets whether or not the BodyComponent is a sensor. Sensors are tested for collision like other bodies but
+     * neither push nor are pushed by what they touch, never sleep, and never group with other bodies for sleeping.
+     * Instead, each overlap's beginning and end is reported to the {@link Solver}'s {@link OnOverlapListener}.</p>
+     *
+     * <p>Sensors must also be {@link #isCollidable()} to detect overlaps.</p>
+     *
+     * @param enable true to make a sensor.
+     */
+    public final void setSensor(boolean enable)
+    {
+        mSensor = enable;
+    }
+
     /**
      * <p>Checks if collisions with the owning {@link GObject}'s parent are ignored.</p>
      *
@@ -768,6 +1016,80 @@ public final class BodyComponent extends ComponentFactory.Component implements P
         mIgnoreGObjectParent = enable;
     }
 
+    /**
+     * <p>Gets the {@link Handle} of the owning {@link GObject}'s parent.</p>
+     *
+     * @return parent handle.
+     */
+    long getParentObject()
+    {
+        return mParentObject;
+    }
+
+    /**
+     * <p>Sets the {@link Handle} of the owning {@link GObject}'s parent. This is kept in sync by the GObject so that
+     * parent checks during collision detection don't need to look up the GObject.</p>
+     *
+     * @param handle parent handle.
+     */
+    void setParentObject(long handle)
+    {
+        mParentObject = handle;
+    }
+
+    /**
+     * <p>Gets the collision categories the BodyComponent belongs to.</p>
+     *
+     * @return category bits.
+     */
+    public final int getCollisionCategory()
+    {
+        return mCategory;
+    }
+
+    /**
+     * <p>Sets the collision categories the BodyComponent belongs to. Each bit represents a category.</p>
+     *
+     * @param category category bits.
+     */
+    public final void setCollisionCategory(int category)
+    {
+        mCategory = category;
+    }
+
+    /**
+     * <p>Gets the collision categories the BodyComponent may collide with.</p>
+     *
+     * @return mask bits.
+     */
+    public final int getCollisionMask()
+    {
+        return mMask;
+    }
+
+    /**
+     * <p>Sets the collision categories the BodyComponent may collide with. Each bit represents a category. A mask of
+     * 0 prevents all collisions.</p>
+     *
+     * @param mask mask bits.
+     */
+    public final void setCollisionMask(int mask)
+    {
+        mMask = mask;
+    }
+
+    /**
+     * <p>Checks if the collision categories and masks of this and another BodyComponent allow the two to collide.
+     * Each body's categories must match at least one bit of the other's mask.</p>
+     *
+     * @param other other BodyComponent.
+     * @return true if collision between the two is allowed.
+     */
+    public final boolean canCollideWith(BodyComponent other)
+    {
+        return (mCategory & other.mMask) != 0 && (other.mCategory & mMask) != 0;
+    }
+
     /**
      * <p>Gets the {@link BoundingTree.Node} containing the BodyComponent for fast lookup.</p>
      *
@@ -817,31 +1139,39 @@ public final class BodyComponent extends ComponentFactory.Component implements P
     }
 
     /**
-     * <p>Computes contact points between this BodyComponent and another. This method is step #2 of collision
-     * detection from {@link #collidesWith(BodyComponent, Manifold)}.</p>
+     * <p>Computes contact points between two BodyComponents. This method is step #2 of collision detection from
+     * {@link #collide(BodyComponent, BodyComponent, Manifold, Scratch)}.</p>
      *
+     * @param body body whose point of view is used.
+     * @param other colliding body.
      * @param contacts container for points.
      * @param depths container for points' penetration depths.
-     * @param other colliding body.
+     * @param features container for points' feature ids.
      * @param sepAxis separating axis of minimum translation.
+     * @param scratch working space.
      */
-    private void getContacts(List<Vector2F> contacts, List<Float> depths, BodyComponent other, Vector2F sepAxis)
+    private static void getContacts(BodyComponent body, BodyComponent other, List<Vector2F> contacts,
+                                    List<Float> depths, List<Integer> features, Vector2F sepAxis, Scratch scratch)
     {
+        final CollidingEdge refEdge = scratch.mRefEdge;
+        final CollidingEdge incEdge = scratch.mIncEdge;
+
         // Find calling Shape's colliding edge
-        findContactEdge(mRefEdge, mShape, sepAxis);
+        findContactEdge(refEdge, body.mShape, sepAxis);
 
         // Find other Shape's colliding edge (flip separating axis to originate from other body)
         sepAxis.negate();
-        other.findContactEdge(mIncEdge, other.mShape, sepAxis);
+        findContactEdge(incEdge, other.mShape, sepAxis);
         sepAxis.negate();
 
         // Swap reference and incident edges if incident is more perpendicular against axis
-        if (shouldSwap(mRefEdge, mIncEdge, sepAxis)) {
-            swapRoles(mRefEdge, mIncEdge);
+        final boolean flipped = shouldSwap(refEdge, incEdge, sepAxis, scratch.mEdge);
+        if (flipped) {
+            swapRoles(refEdge, incEdge);
         }
 
-        // Clip shapes and save contact points and penetration depths
-        clipShapes(contacts, depths, mRefEdge, mIncEdge);
+        // Clip shapes and save contact points, penetration depths, and feature ids
+        clipShapes(contacts, depths, features, refEdge, incEdge, flipped, scratch.mEdge);
     }
 
     /**
@@ -850,22 +1180,28 @@ public final class BodyComponent extends ComponentFactory.Component implements P
      * @param reference reference edge.
      * @param incident incident edge.
      */
-    private void swapRoles(CollidingEdge reference, CollidingEdge incident)
+    private static void swapRoles(CollidingEdge reference, CollidingEdge incident)
     {
         // Set aside reference's data
         final Vector2F begin = reference.mBegin;
         final Vector2F end = reference.mEnd;
         final boolean farthest = reference.mBeginFarthest;
+        final int beginIndex = reference.mBeginIndex;
+        final int pointCount = reference.mPointCount;
 
         // Copy incident's data to reference
         reference.mBegin = incident.mBegin;
         reference.mEnd = incident.mEnd;
         reference.mBeginFarthest = incident.mBeginFarthest;
+        reference.mBeginIndex = incident.mBeginIndex;
+        reference.mPointCount = incident.mPointCount;
 
         // Set reference's old data as incident
         incident.mBegin = begin;
         incident.mEnd = end;
         incident.mBeginFarthest = farthest;
+        incident.mBeginIndex = beginIndex;
+        incident.mPointCount = pointCount;
     }
 
     /**
@@ -873,49 +1209,99 @@ public final class BodyComponent extends ComponentFactory.Component implements P
      *
      * @param contacts contact points.
      * @param depths penetration depths.
+     * @param features feature ids.
      * @param reference reference edge.
      * @param incident incident edge.
+     * @param flipped true if the reference edge belongs to the other body.
+     * @param edge container for the reference edge's direction.
      */
-    private void clipShapes(List<Vector2F> contacts, List<Float> depths, CollidingEdge reference, CollidingEdge incident)
+    private static void clipShapes(List<Vector2F> contacts, List<Float> depths, List<Integer> features,
+                                   CollidingEdge reference, CollidingEdge incident, boolean flipped, Vector2F edge)
     {
         // Make direction vector from reference edge
-        mEdge.copy(reference.mEnd);
-        mEdge.subtract(reference.mBegin);
-        mEdge.normalize();
+        edge.copy(reference.mEnd);
+        edge.subtract(reference.mBegin);
+        edge.normalize();
 
         // Clip at reference edge's first vertex
-        float offset = mEdge.dotProduct(reference.mBegin);
-        clip(contacts, incident.mBegin, incident.mEnd, mEdge, offset);
+        float offset = edge.dotProduct(reference.mBegin);
+        clip(contacts, incident.mBegin, incident.mEnd, edge, offset);
 
         assert (contacts.size() >= 2);
 
         // Clip at reference edge's second vertex with direction reversed
-        offset = mEdge.dotProduct(reference.mEnd);
-        mEdge.negate();
-        clip(contacts, contacts.get(0), contacts.get(1), mEdge, -offset);
-        mEdge.negate();
+        offset = edge.dotProduct(reference.mEnd);
+        edge.negate();
+        clip(contacts, contacts.get(0), contacts.get(1), edge, -offset);
+        edge.negate();
 
         // Transform ref unit vector into a normal towards the reference edge
-        makeNormalTowardsReference(mEdge, reference, incident);
+        makeNormalTowardsReference(edge, reference, incident);
 
         // Add first contact point if within clip area (depth >= 0f is inside)
-        offset = mEdge.dotProduct(reference.getFarthestVertex());
-        final float depth0 = mEdge.dotProduct(contacts.get(0)) - offset;
+        offset = edge.dotProduct(reference.getFarthestVertex());
+        final float depth0 = edge.dotProduct(contacts.get(0)) - offset;
         if (depth0 < 0f) {
             contacts.remove(0);
         } else {
             depths.add(depth0);
+            features.add(getFeatureId(contacts.get(0), reference, incident, flipped));
         }
 
         // Add second contact point if within clip area (depth >= 0f is inside)
-        final float depth1 = mEdge.dotProduct(contacts.get(contacts.size() - 1)) - offset;
+        final Vector2F last = contacts.get(contacts.size() - 1);
+        final float depth1 = edge.dotProduct(last) - offset;
         if (depth1 < 0f) {
             contacts.remove(contacts.size() - 1);
         } else {
             depths.add(depth1);
+            features.add(getFeatureId(last, reference, incident, flipped));
         }
     }
 
+    /**
+     * <p>Computes the feature id of a contact point produced by
+     * {@link #clipShapes(List, List, List, CollidingEdge, CollidingEdge, boolean, Vector2F)}. See
+     * {@link Manifold#getFeatureIdAt(int)} for the id's layout.</p>
+     *
+     * @param point contact point.
+     * @param reference reference edge.
+     * @param incident incident edge.
+     * @param flipped true if the reference edge belongs to the other body.
+     * @return feature id.
+     */
+    private static int getFeatureId(Vector2F point, CollidingEdge reference, CollidingEdge incident, boolean flipped)
+    {
+        final boolean clipped;
+        final int incidentFeature;
+
+        if (point == incident.mBegin) {
+            // Incident edge's first vertex survived clipping
+            clipped = false;
+            incidentFeature = incident.mBeginIndex;
+
+        } else if (point == incident.mEnd) {
+            // Incident edge's second vertex survived clipping
+            clipped = false;
+            incidentFeature = incident.getEndIndex();
+
+        } else {
+            // Clipped point lies on the side plane of the nearer reference vertex
+            final float toBeginX = point.getX() - reference.mBegin.getX();
+            final float toBeginY = point.getY() - reference.mBegin.getY();
+            final float toEndX = point.getX() - reference.mEnd.getX();
+            final float toEndY = point.getY() - reference.mEnd.getY();
+            final int side = ((toBeginX * toBeginX) + (toBeginY * toBeginY)
+                    <= (toEndX * toEndX) + (toEndY * toEndY)) ? 0 : 1;
+
+            clipped = true;
+            incidentFeature = (incident.mBeginIndex << 1) | side;
+        }
+
+        return (reference.mBeginIndex << 16) | ((incidentFeature & 0x3FFF) << 2) | ((clipped) ? 2 : 0)
+                | ((flipped) ? 1 : 0);
+    }
+
     /**
      * <p>Turns the reference unit vector into a perpendicular vector facing towards the reference edge.</p>
      *
@@ -923,7 +1309,7 @@ public final class BodyComponent extends ComponentFactory.Component implements P
      * @param refEdge reference edge.
      * @param incEdge incident edge.
      */
-    private void makeNormalTowardsReference(Vector2F refUnit, CollidingEdge refEdge, CollidingEdge incEdge)
+    private static void makeNormalTowardsReference(Vector2F refUnit, CollidingEdge refEdge, CollidingEdge incEdge)
     {
         final Vector2F incVertex = incEdge.getFarthestVertex();
 
@@ -956,7 +1342,7 @@ public final class BodyComponent extends ComponentFactory.Component implements P
      * @param normal normal to clip against.
      * @param offset normal's offset.
      */
-    private void clip(List<Vector2F> points, Vector2F incBegin, Vector2F incEnd, Vector2F normal, float offset)
+    private static void clip(List<Vector2F> points, Vector2F incBegin, Vector2F incEnd, Vector2F normal, float offset)
     {
         // Compute dot products of each point on the edge with an offset to origin
         final float edgeDot0 = incBegin.dotProduct(normal) - offset;
@@ -1009,19 +1395,20 @@ public final class BodyComponent extends ComponentFactory.Component implements P
      * @param reference reference edge.
      * @param incident incident edge.
      * @param axis separating axis.
+     * @param edge container for computations.
      * @return true if given incident edge should be reference.
      */
-    private boolean shouldSwap(CollidingEdge reference, CollidingEdge incident, Vector2F axis)
+    private static boolean shouldSwap(CollidingEdge reference, CollidingEdge incident, Vector2F axis, Vector2F edge)
     {
         // Create a vector from reference edge and project onto axis
-        mEdge.copy(reference.mEnd);
-        mEdge.subtract(reference.mBegin);
-        final float refDot = Math.abs(mEdge.dotProduct(axis));
+        edge.copy(reference.mEnd);
+        edge.subtract(reference.mBegin);
+        final float refDot = Math.abs(edge.dotProduct(axis));
 
         // Create a vector from incident edge and project onto axis
-        mEdge.copy(incident.mEnd);
-        mEdge.subtract(incident.mBegin);
-        final float incDot = Math.abs(mEdge.dotProduct(axis));
+        edge.copy(incident.mEnd);
+        edge.subtract(incident.mBegin);
+        final float incDot = Math.abs(edge.dotProduct(axis));
 
         // Should swap roles so edge less perpendicular to separating axis is "incident edge"
         return incDot < refDot;
@@ -1034,7 +1421,7 @@ public final class BodyComponent extends ComponentFactory.Component implements P
      * @param shape Shape which the edge belongs to.
      * @param sepAxis separating axis facing outwards from the Shape.
      */
-    private void findContactEdge(CollidingEdge edge, Shape shape, Vector2F sepAxis)
+    private static void findContactEdge(CollidingEdge edge, Shape shape, Vector2F sepAxis)
     {
         final float[] pt = new float[2];
         final int ptCount = shape.getPointCount();
@@ -1083,32 +1470,313 @@ public final class BodyComponent extends ComponentFactory.Component implements P
             endPt.set(pt[0], pt[1]);
 
             // Edge starts at end point and ends with farthest point
-            edge.update(endPt, farthestPt, false);
+            edge.update(endPt, farthestPt, false, endPtIndex0, ptCount);
         } else {
 
             shape.getPoint(endPtIndex1, pt);
             endPt.set(pt[0], pt[1]);
 
             // Edge starts at farthest point and ends with end point
-            edge.update(farthestPt, endPt, true);
+            edge.update(farthestPt, endPt, true, farthestIndex, ptCount);
         }
     }
 
+    /**
+     * <p>Gets the BodyComponent's slot in its shared {@link BodyStore}.</p>
+     *
+     * @return slot.
+     */
+    int getSlot()
+    {
+        return mSlot;
+    }
+
+    /**
+     * <p>Moves the BodyComponent's physics quantities into a slot of a shared {@link BodyStore}, growing the store if
+     * needed. Current values are carried over.</p>
+     *
+     * @param store shared store.
+     * @param slot slot.
+     */
+    void pack(BodyStore store, int slot)
+    {
+        store.ensureCapacity(slot);
+        writeTo(store, slot);
+        mStore = store;
+        mSlot = slot;
+    }
+
+    /**
+     * <p>Moves the BodyComponent's physics quantities out of a shared {@link BodyStore} and back into its own fields
+     * so that its former slot can be given to another body. Current values are carried over.</p>
+     */
+    void unpack()
+    {
+        // Already unpacked
+        if (mStore == null) {
+            return;
+        }
+
+        final BodyStore store = mStore;
+        mStore = null;
+        readFrom(store, mSlot);
+        mSlot = 0;
+    }
+
+    /**
+     * <p>Writes the physics quantities held wherever the BodyComponent keeps them into a slot of a
+     * {@link BodyStore}.</p>
+     *
+     * @param store store.
+     * @param slot slot.
+     */
+    private void writeTo(BodyStore store, int slot)
+    {
+        if (mStore != null) {
+            store.copy(mStore, mSlot, slot);
+            return;
+        }
+
+        store.mVelocityX[slot] = mVelocityX;
+        store.mVelocityY[slot] = mVelocityY;
+        store.mOldVelocityX[slot] = mOldVelocityX;
+        store.mOldVelocityY[slot] = mOldVelocityY;
+        store.mImpulseX[slot] = mImpulseX;
+        store.mImpulseY[slot] = mImpulseY;
+        store.mMass[slot] = mMass;
+        store.mInvMass[slot] = mInvMass;
+        store.mFriction[slot] = mCOF;
+        store.mRestitution[slot] = mCOR;
+    }
+
+    /**
+     * <p>Replaces the physics quantities held wherever the BodyComponent keeps them with those in a slot of a
+     * {@link BodyStore}.</p>
+     *
+     * @param store store.
+     * @param slot slot.
+     */
+    private void readFrom(BodyStore store, int slot)
+    {
+        if (mStore != null) {
+            mStore.copy(store, slot, mSlot);
+            return;
+        }
+
+        mVelocityX = store.mVelocityX[slot];
+        mVelocityY = store.mVelocityY[slot];
+        mOldVelocityX = store.mOldVelocityX[slot];
+        mOldVelocityY = store.mOldVelocityY[slot];
+        mImpulseX = store.mImpulseX[slot];
+        mImpulseY = store.mImpulseY[slot];
+        mMass = store.mMass[slot];
+        mInvMass = store.mInvMass[slot];
+        mCOF = store.mFriction[slot];
+        mCOR = store.mRestitution[slot];
+    }
+
+    /**
+     * <p>Copies the configurable state of another BodyComponent: its {@link Shape}, collision flags and filters, and
+     * its mass, velocity, impulse, friction, and restitution. The Shape's points are copied in place unless this body's Shape
+     * is too small to hold them. Membership in trees and the contact graph, the parent, and the sleep and freeze
+     * states are left alone as these belong to the Solver and owning GObject.</p>
+     *
+     * @param body BodyComponent to copy.
+     */
+    void copyFrom(BodyComponent body)
+    {
+        if (!mShape.copy(body.mShape)) {
+            mShape = new Shape(body.mShape);
+        }
+
+        mSelectable = body.mSelectable;
+        mCollidable = body.mCollidable;
+        mIgnoreGObjectParent = body.mIgnoreGObjectParent;
+        mSensor = body.mSensor;
+        mKinematic = body.mKinematic;
+        mCategory = body.mCategory;
+        mMask = body.mMask;
+
+        if (body.mStore != null) {
+            readFrom(body.mStore, body.mSlot);
+        } else if (mStore != null) {
+            body.writeTo(mStore, mSlot);
+        } else {
+            mVelocityX = body.mVelocityX;
+            mVelocityY = body.mVelocityY;
+            mOldVelocityX = body.mOldVelocityX;
+            mOldVelocityY = body.mOldVelocityY;
+            mImpulseX = body.mImpulseX;
+            mImpulseY = body.mImpulseY;
+            mMass = body.mMass;
+            mInvMass = body.mInvMass;
+            mCOF = body.mCOF;
+            mCOR = body.mCOR;
+        }
+    }
+
+    /**
+     * <p>Checks if the BodyComponent has been put to sleep by the sleep optimization.</p>
+     *
+     * @return true if sleeping.
+     */
     boolean isSleeping()
     {
         return mSleeping;
     }
 
+    /**
+     * <p>Sets whether or not the BodyComponent is sleeping.</p>
+     *
+     * @param enable true to sleep.
+     */
     void setSleeping(boolean enable)
     {
         mSleeping = enable;
     }
 
+    /**
+     * <p>Gets the number of seconds the BodyComponent has continuously been eligible for sleep.</p>
+     *
+     * @return seconds.
+     */
+    float getSleepTime()
+    {
+        return mSleepTime;
+    }
+
+    /**
+     * <p>Sets the number of seconds the BodyComponent has continuously been eligible for sleep.</p>
+     *
+     * @param seconds seconds.
+     */
+    void setSleepTime(float seconds)
+    {
+        mSleepTime = seconds;
+    }
+
+    /**
+     * <p>Checks if the velocity or impulse has been changed from outside the {@link Solver} since the last call to
+     * {@link #clearWakeRequest()}.</p>
+     *
+     * @return true if the BodyComponent's group should be woken.
+     */
+    boolean isWakeRequested()
+    {
+        return mWakeRequested;
+    }
+
+    /**
+     * <p>Sets the BodyComponent as wanting its group woken.</p>
+     */
+    void requestWake()
+    {
+        mWakeRequested = true;
+    }
+
+    /**
+     * <p>Removes the request to wake the BodyComponent's group.</p>
+     */
+    void clearWakeRequest()
+    {
+        mWakeRequested = false;
+    }
+
+    /**
+     * <p>Zeroes both the current and previous velocities. This is used when putting a BodyComponent to sleep so that
+     * no motion remains to be integrated when woken.</p>
+     */
+    void clearMotion()
+    {
+        if (mStore == null) {
+            mVelocityX = 0f;
+            mVelocityY = 0f;
+            mOldVelocityX = 0f;
+            mOldVelocityY = 0f;
+        } else {
+            mStore.mVelocityX[mSlot] = 0f;
+            mStore.mVelocityY[mSlot] = 0f;
+            mStore.mOldVelocityX[mSlot] = 0f;
+            mStore.mOldVelocityY[mSlot] = 0f;
+        }
+    }
+
+    /**
+     * <p>Writes the position, rotation, current and previous velocity, pending impulse, and sleep state to a
+     * {@link ByteBuffer}. Exactly {@link #STATE_BYTES} are written.</p>
+     *
+     * @param buffer destination.
+     */
+    void writeState(ByteBuffer buffer)
+    {
+        buffer.putFloat(mShape.getX());
+        buffer.putFloat(mShape.getY());
+        buffer.putDouble(mShape.getRotation());
+
+        if (mStore == null) {
+            buffer.putFloat(mVelocityX);
+            buffer.putFloat(mVelocityY);
+            buffer.putFloat(mOldVelocityX);
+            buffer.putFloat(mOldVelocityY);
+            buffer.putFloat(mImpulseX);
+            buffer.putFloat(mImpulseY);
+        } else {
+            buffer.putFloat(mStore.mVelocityX[mSlot]);
+            buffer.putFloat(mStore.mVelocityY[mSlot]);
+            buffer.putFloat(mStore.mOldVelocityX[mSlot]);
+            buffer.putFloat(mStore.mOldVelocityY[mSlot]);
+            buffer.putFloat(mStore.mImpulseX[mSlot]);
+            buffer.putFloat(mStore.mImpulseY[mSlot]);
+        }
+
+        buffer.putFloat(mSleepTime);
+        buffer.put((byte) ((mSleeping) ? 1 : 0));
+    }
+
+    /**
+     * <p>Reads state written by {@link #writeState(ByteBuffer)} from a {@link ByteBuffer}. Exactly
+     * {@link #STATE_BYTES} are read. Pending wake requests are discarded.</p>
+     *
+     * @param buffer source.
+     */
+    void readState(ByteBuffer buffer)
+    {
+        final float x = buffer.getFloat();
+        final float y = buffer.getFloat();
+        final double angle = buffer.getDouble();
+
+        // Rotate before moving since rotation can shift the shape; skip recomputing vertices if unchanged
+        if (angle != mShape.getRotation()) {
+            mShape.rotateTo(angle);
+        }
+        mShape.moveTo(x, y);
+
+        if (mStore == null) {
+            mVelocityX = buffer.getFloat();
+            mVelocityY = buffer.getFloat();
+            mOldVelocityX = buffer.getFloat();
+            mOldVelocityY = buffer.getFloat();
+            mImpulseX = buffer.getFloat();
+            mImpulseY = buffer.getFloat();
+        } else {
+            mStore.mVelocityX[mSlot] = buffer.getFloat();
+            mStore.mVelocityY[mSlot] = buffer.getFloat();
+            mStore.mOldVelocityX[mSlot] = buffer.getFloat();
+            mStore.mOldVelocityY[mSlot] = buffer.getFloat();
+            mStore.mImpulseX[mSlot] = buffer.getFloat();
+            mStore.mImpulseY[mSlot] = buffer.getFloat();
+        }
+
+        mSleepTime = buffer.getFloat();
+        mSleeping = buffer.get() != 0;
+        mWakeRequested = false;
+    }
+
     /**
      * <p>Represents a colliding edge during contact point generation in
-     * {@link #getContacts(List, List, BodyComponent, Vector2F)}.</p>
+     * {@link #getContacts(BodyComponent, BodyComponent, List, List, List, Vector2F, Scratch)}.</p>
      */
-    private class CollidingEdge
+    private static class CollidingEdge
     {
         // Beginning vertex
         private Vector2F mBegin;
@@ -1119,21 +1787,44 @@ public final class BodyComponent extends ComponentFactory.Component implements P
         // Whether the beginning vertex is the farthest along the separating axis
         private boolean mBeginFarthest = false;
 
+        // Shape's index of the beginning vertex, also the edge's index
+        private int mBeginIndex;
+
+        // Number of vertices in the edge's Shape
+        private int mPointCount;
+
         /**
          * <p>Sets the beginning and ending vertices.</p>
          *
          * <p>The farthest vertex is considered the vertex whose projected position is the farthest along the
          * separating axis when the axis points from the vertex's body to another.</p>
          *
+         * <p>The ending vertex must follow the beginning vertex in the {@link Shape}'s point order so that an edge
+         * can be identified by its beginning vertex's index.</p>
+         *
          * @param begin beginning vertex.
          * @param end ending vertex.
          * @param beginIsFarthest whether beginning vertex is farthest along separating axis.
+         * @param beginIndex Shape's index of the beginning vertex.
+         * @param pointCount Shape's number of vertices.
          */
-        public void update(Vector2F begin, Vector2F end, boolean beginIsFarthest)
+        public void update(Vector2F begin, Vector2F end, boolean beginIsFarthest, int beginIndex, int pointCount)
         {
             mBegin = begin;
             mEnd = end;
             mBeginFarthest = beginIsFarthest;
+            mBeginIndex = beginIndex;
+            mPointCount = pointCount;
+        }
+
+        /**
+         * <p>Gets the {@link Shape}'s index of the ending vertex.</p>
+         *
+         * @return ending vertex index.
+         */
+        public int getEndIndex()
+        {
+            return (mBeginIndex == mPointCount - 1) ? 0 : mBeginIndex + 1;
         }
 
         /**
@@ -1148,6 +1839,50 @@ public final class BodyComponent extends ComponentFactory.Component implements P
         }
     }
 
+    /**
+     * <p>
+     *     Working space for {@link #collide(BodyComponent, BodyComponent, Manifold, Scratch)}. A Scratch holds no
+     *     results between calls but must not be used by more than one thread at a time.
+     * </p>
+     */
+    static final class Scratch
+    {
+        /**
+         * SAT vars
+         */
+
+        // Separating axis to be used during SAT
+        private final Vector2F mSeparatingAxis = new Vector2F();
+
+        // An edge's start and end points
+        private final float[] mEdgePt0 = new float[2];
+        private final float[] mEdgePt1 = new float[2];
+
+        // Minimum and maximum containers for each Shape's projection
+        private final Vector2F mMinMax0 = new Vector2F();
+        private final Vector2F mMinMax1 = new Vector2F();
+
+        // Separating axes with minimum depth overlap from each body's point of view
+        private final Vector2F mMinDepthVec = new Vector2F();
+        private final Vector2F mOtherMinDepthVec = new Vector2F();
+
+        // Chosen separating axis, for use in contact gen
+        private final Vector2F mSepAxis = new Vector2F();
+
+        /**
+         * Contact generation vars
+         */
+
+        // Reference edge used during contact point generation
+        private final CollidingEdge mRefEdge = new CollidingEdge();
+
+        // Incident edge used during contact point generation
+        private final CollidingEdge mIncEdge = new CollidingEdge();
+
+        // Container vector representing an edge (one end minus the other) used in computations
+        private final Vector2F mEdge = new Vector2F();
+    }
+
     /**
      * <p>
      *     Container for data about the collision of two {@link BodyComponent}s such as contact points and the
@@ -1157,7 +1892,8 @@ public final class BodyComponent extends ComponentFactory.Component implements P
      * <p>
      *     The collision normal is a unit vector denoting direction from one BodyComponent to another. The
      *     BodyComponent the collision normal faces away from is always the "owning" body. Each contact point is
-     *     two-dimensional and stored with the depth of penetration into the body.
+     *     two-dimensional and stored with the depth of penetration into the body and a feature id naming the edge
+     *     and vertex which produced it.
      * </p>
      */
     public static final class Manifold
@@ -1168,6 +1904,9 @@ public final class BodyComponent extends ComponentFactory.Component implements P
         // Penetration depths for each contact point
         private final List<Float> mDepths = new ArrayList<Float>();
 
+        // Feature ids for each contact point
+        private final List<Integer> mFeatures = new ArrayList<Integer>();
+
         // Contact normal
         private final Vector2F mNormal = new Vector2F();
 
@@ -1183,16 +1922,20 @@ public final class BodyComponent extends ComponentFactory.Component implements P
         }
 
         /**
-         * <p>Sets the contact point at a specific index.</p>
+         * <p>Gets the feature id of a contact point. The same pair of bodies touching by the same features produces
+         * the same ids across updates, allowing per point data to be carried over.</p>
          *
-         * @param i index.
-         * @param point contact point.
-         * @param penetration penetration depth.
+         * <p>Bits 16 and up hold the index of the reference edge, bit 0 is set if the reference edge belongs to the
+         * other body, and bit 1 is set if the point was clipped against a side of the reference edge. Bits 2 to 15
+         * hold the index of the incident vertex or, for clipped points, the incident edge's index shifted left by one
+         * with the clipping side in the lowest bit.</p>
+         *
+         * @param i contact point index.
+         * @return feature id.
          */
-        private void setContactPoint(int i, Vector2F point, float penetration)
+        public int getFeatureIdAt(int i)
         {
-            mPoints.add(i, point);
-            mDepths.add(i, penetration);
+            return mFeatures.get(i);
         }
 
         /**
@@ -1253,6 +1996,10 @@ public final class BodyComponent extends ComponentFactory.Component implements P
             mDepths.clear();
             mDepths.addAll(manifold.mDepths);
 
+            // Replace feature ids with given Manifold's
+            mFeatures.clear();
+            mFeatures.addAll(manifold.mFeatures);
+
             // Replace collision normal
             mNormal.copy(manifold.mNormal);
         }
@@ -1264,6 +2011,7 @@ public final class BodyComponent extends ComponentFactory.Component implements P
         {
             mPoints.clear();
             mDepths.clear();
+            mFeatures.clear();
             mNormal.set(0f, 0f);
         }
     }
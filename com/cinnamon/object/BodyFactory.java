@@ -4,6 +4,8 @@ import com.cinnamon.system.ComponentFactory;
 import com.cinnamon.system.Config;
 import com.cinnamon.utils.Shape;
 
+import java.nio.ByteBuffer;
+
 /**
  * <p>
  *     Provides {@link BodyComponent} lookup when computing physics updates.
@@ -17,6 +19,15 @@ public abstract class BodyFactory extends ComponentFactory<BodyComponent, Object
     // Height to use when body's instantiated
     private static final float DEFAULT_HEIGHT = 1f;
 
+    // Bytes per body in writeState(ByteBuffer): id, version, and body state
+    private static final int RECORD_BYTES = 4 + 4 + BodyComponent.STATE_BYTES;
+
+    // Shared physics quantities of all bodies, indexed by id; null if not packed
+    private BodyStore mStore;
+
+    // Initial number of slots when packing
+    private final int mLoad;
+
     /**
      * <p>Constructs a BodyFactory.</p>
      *
@@ -27,6 +38,72 @@ public abstract class BodyFactory extends ComponentFactory<BodyComponent, Object
     protected BodyFactory(Object object, int load, float growth)
     {
         super(object, load, growth);
+        mLoad = load;
+    }
+
+    /**
+     * <p>Checks if {@link BodyComponent}s share a single {@link BodyStore}.</p>
+     *
+     * @return true if packed.
+     */
+    public final boolean isPacked()
+    {
+        return mStore != null;
+    }
+
+    /**
+     * <p>Sets whether or not all {@link BodyComponent}s should keep their mass, velocity, impulse, friction, and
+     * restitution in one shared {@link BodyStore}, each body's slot being its id. Packed bodies let the
+     * {@link Solver} process these quantities as loops over contiguous arrays. Existing bodies are moved in or out of
+     * the shared store with their values unchanged.</p>
+     *
+     * <p>This should only be changed between {@link Solver} updates.</p>
+     *
+     * @param enable true to pack.
+     */
+    public final void setPacked(boolean enable)
+    {
+        if (enable == isPacked()) {
+            return;
+        }
+
+        final BodyStore store = (enable) ? new BodyStore(Math.max(1, mLoad)) : mStore;
+        mStore = (enable) ? store : null;
+
+        for (int i = 0, sz = size(); i < sz; i++) {
+            final BodyComponent body = getAt(i);
+            if (enable) {
+                body.pack(store, body.getId());
+            } else {
+                body.unpack();
+            }
+        }
+    }
+
+    /**
+     * <p>Gets the {@link BodyStore} shared by all {@link BodyComponent}s.</p>
+     *
+     * @return store, or null if not packed.
+     */
+    final BodyStore getStore()
+    {
+        return mStore;
+    }
+
+    /**
+     * <p>Moves a newly requested {@link BodyComponent} into the shared {@link BodyStore}, if packed. Every request
+     * passes through {@link #requisition(Config)} so only that method needs to pack.</p>
+     *
+     * @param body body.
+     * @return body.
+     */
+    private BodyComponent pack(BodyComponent body)
+    {
+        if (mStore != null) {
+            body.pack(mStore, body.getId());
+        }
+
+        return body;
     }
 
     /**
@@ -57,6 +134,18 @@ public abstract class BodyFactory extends ComponentFactory<BodyComponent, Object
         return super.get(configName);
     }
 
+    @Override
+    protected final void copyPrototype(BodyComponent source, BodyComponent destination)
+    {
+        destination.copyFrom(source);
+    }
+
+    @Override
+    protected final BodyComponent requisition(Config<BodyComponent, Object> config)
+    {
+        return pack(super.requisition(config));
+    }
+
     @Override
     public final BodyComponent get(int id, int version)
     {
@@ -69,6 +158,73 @@ public abstract class BodyFactory extends ComponentFactory<BodyComponent, Object
         return super.get(id);
     }
 
+    @Override
+    public final BodyComponent get(long handle)
+    {
+        return super.get(handle);
+    }
+
+    /**
+     * <p>Gets the number of bytes {@link #writeState(ByteBuffer)} would currently write.</p>
+     *
+     * @return byte count.
+     */
+    public final int getStateSize()
+    {
+        return 4 + (size() * RECORD_BYTES);
+    }
+
+    /**
+     * <p>Writes the physics state of every {@link BodyComponent} to a {@link ByteBuffer}, starting at the buffer's
+     * position. This includes each body's position, rotation, velocity, pending impulse, and sleep state. The
+     * buffer's position is advanced by {@link #getStateSize()} bytes.</p>
+     *
+     * <p>Direct buffers sized once for the largest expected body count avoid allocation entirely.</p>
+     *
+     * @param buffer destination.
+     * @throws java.nio.BufferOverflowException if the buffer has less than getStateSize() bytes remaining.
+     */
+    public final void writeState(ByteBuffer buffer)
+    {
+        buffer.putInt(size());
+
+        for (int i = 0, sz = size(); i < sz; i++) {
+            final BodyComponent body = getAt(i);
+            final int id = body.getId();
+
+            buffer.putInt(id);
+            buffer.putInt(body.getVersion());
+            body.writeState(buffer);
+        }
+    }
+
+    /**
+     * <p>Restores {@link BodyComponent}s to the state written by {@link #writeState(ByteBuffer)}, starting at the
+     * buffer's position. Bodies removed since the state was written are skipped while bodies created since then are
+     * left untouched.</p>
+     *
+     * @param buffer source.
+     * @throws java.nio.BufferUnderflowException if the buffer ends before all written bodies are read.
+     */
+    public final void readState(ByteBuffer buffer)
+    {
+        final int count = buffer.getInt();
+
+        for (int i = 0; i < count; i++) {
+            final int id = buffer.getInt();
+            final int version = buffer.getInt();
+
+            // Skip state belonging to a body that's gone
+            final BodyComponent body = get(id, version);
+            if (body == null) {
+                buffer.position(buffer.position() + BodyComponent.STATE_BYTES);
+                continue;
+            }
+
+            body.readState(buffer);
+        }
+    }
+
     @Override
     protected final BodyComponent createIdentifiable()
     {
@@ -81,10 +237,23 @@ public abstract class BodyFactory extends ComponentFactory<BodyComponent, Object
         return super.remove(id, version);
     }
 
+    @Override
+    public final BodyComponent remove(long handle)
+    {
+        return super.remove(handle);
+    }
+
     @Override
     public final BodyComponent remove(int id)
     {
-        return super.remove(id);
+        final BodyComponent body = super.remove(id);
+
+        // Give up the id's slot for whichever body reuses the id
+        if (body != null && mStore != null) {
+            body.unpack();
+        }
+
+        return body;
     }
 
     @Override
@@ -0,0 +1,180 @@
+package com.cinnamon.object;
+
+import com.cinnamon.utils.Vector2F;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ *     Copy of every {@link BodyComponent}'s position and velocity at the end of a {@link Solver} update. Values are
+ *     looked up by body id and the body's version must match the captured version for the values to be considered
+ *     valid.
+ * </p>
+ *
+ * <p>
+ *     BodySnapshots allow the physics state to be read while the bodies themselves are being modified on another
+ *     thread. A BodySnapshot is not thread-safe and should only be captured and read on one thread at a time.
+ * </p>
+ */
+public final class BodySnapshot
+{
+    // Version stored for ids with no captured body
+    private static final int NO_BODY = -1;
+
+    // Minimum capacity when the snapshot must grow
+    private static final int MIN_CAPACITY = 16;
+
+    // Version of captured body; index = body id
+    private int[] mVersions = new int[0];
+
+    // Center x; index = body id
+    private float[] mCenterX = new float[0];
+
+    // Center y; index = body id
+    private float[] mCenterY = new float[0];
+
+    // Velocity x; index = body id
+    private float[] mVelocityX = new float[0];
+
+    // Velocity y; index = body id
+    private float[] mVelocityY = new float[0];
+
+    // Highest body id captured + 1
+    private int mLength = 0;
+
+    // Container for reading a body's velocity
+    private final Vector2F mVelocity = new Vector2F();
+
+    /**
+     * <p>Replaces the snapshot's contents with the state of all {@link BodyComponent}s in a {@link BodyFactory}.</p>
+     *
+     * @param factory body lookup.
+     */
+    public void capture(BodyFactory factory)
+    {
+        // Forget previously captured bodies; ids between those captured next are then left empty
+        for (int i = 0; i < mLength; i++) {
+            mVersions[i] = NO_BODY;
+        }
+        mLength = 0;
+
+        // Copy each body's state
+        for (int i = 0, sz = factory.size(); i < sz; i++) {
+            final BodyComponent body = factory.getAt(i);
+            final int id = body.getId();
+
+            ensureCapacity(id + 1);
+
+            mVersions[id] = body.getVersion();
+            mCenterX[id] = body.getCenterX();
+            mCenterY[id] = body.getCenterY();
+            body.getVelocity(mVelocity);
+            mVelocityX[id] = mVelocity.getX();
+            mVelocityY[id] = mVelocity.getY();
+
+            // Dense order isn't id order once bodies have been removed
+            mLength = Math.max(mLength, id + 1);
+        }
+    }
+
+    /**
+     * <p>Grows the arrays to hold at least a given number of ids.</p>
+     *
+     * @param capacity number of ids.
+     */
+    private void ensureCapacity(int capacity)
+    {
+        if (capacity <= mVersions.length) {
+            return;
+        }
+
+        final int newCapacity = Math.max(Math.max(capacity, mVersions.length * 2), MIN_CAPACITY);
+        final int oldCapacity = mVersions.length;
+
+        mVersions = Arrays.copyOf(mVersions, newCapacity);
+        mCenterX = Arrays.copyOf(mCenterX, newCapacity);
+        mCenterY = Arrays.copyOf(mCenterY, newCapacity);
+        mVelocityX = Arrays.copyOf(mVelocityX, newCapacity);
+        mVelocityY = Arrays.copyOf(mVelocityY, newCapacity);
+
+        // Mark new ids as empty
+        Arrays.fill(mVersions, oldCapacity, newCapacity, NO_BODY);
+    }
+
+    /**
+     * <p>Checks if a {@link BodyComponent} with a specific id and version was captured.</p>
+     *
+     * @param id body id.
+     * @param version body version.
+     * @return true if captured.
+     */
+    public boolean contains(int id, int version)
+    {
+        return id >= 0 && id < mLength && mVersions[id] == version;
+    }
+
+    /**
+     * <p>Gets the captured center x of a {@link BodyComponent}.</p>
+     *
+     * @param id body id.
+     * @return center x.
+     * @throws IndexOutOfBoundsException if no body with the id was captured.
+     */
+    public float getCenterX(int id)
+    {
+        checkCaptured(id);
+        return mCenterX[id];
+    }
+
+    /**
+     * <p>Gets the captured center y of a {@link BodyComponent}.</p>
+     *
+     * @param id body id.
+     * @return center y.
+     * @throws IndexOutOfBoundsException if no body with the id was captured.
+     */
+    public float getCenterY(int id)
+    {
+        checkCaptured(id);
+        return mCenterY[id];
+    }
+
+    /**
+     * <p>Gets the captured x velocity of a {@link BodyComponent}.</p>
+     *
+     * @param id body id.
+     * @return x velocity.
+     * @throws IndexOutOfBoundsException if no body with the id was captured.
+     */
+    public float getVelocityX(int id)
+    {
+        checkCaptured(id);
+        return mVelocityX[id];
+    }
+
+    /**
+     * <p>Gets the captured y velocity of a {@link BodyComponent}.</p>
+     *
+     * @param id body id.
+     * @return y velocity.
+     * @throws IndexOutOfBoundsException if no body with the id was captured.
+     */
+    public float getVelocityY(int id)
+    {
+        checkCaptured(id);
+        return mVelocityY[id];
+    }
+
+    /**
+     * <p>Throws an {@link IndexOutOfBoundsException} if no {@link BodyComponent} was captured with the given id.</p>
+     *
+     * @param id body id.
+     * @throws IndexOutOfBoundsException if no body with the id was captured.
+     */
+    private void checkCaptured(int id)
+    {
+        if (id < 0 || id >= mLength || mVersions[id] == NO_BODY) {
+            throw new IndexOutOfBoundsException("No body captured with id: " + id);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.cinnamon.object;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ *     Structure-of-arrays storage for the physics quantities of {@link BodyComponent}s: velocity, previous velocity
+ *     (from which acceleration is derived), pending impulse, mass, inverse mass, and coefficients of friction and
+ *     restitution. Each quantity lives in its own primitive array and each body is given a slot across all arrays.
+ * </p>
+ *
+ * <p>
+ *     By default every BodyComponent keeps these quantities in its own fields and no BodyStore is used. When a
+ *     {@link BodyFactory} is packed with {@link BodyFactory#setPacked(boolean)}, all of its bodies instead share one
+ *     BodyStore with each body's slot being its id. The {@link Solver} can then integrate, limit speeds, and apply
+ *     impulses as loops over contiguous arrays rather than through scattered objects. Positions are not stored here
+ *     since each body's {@link com.cinnamon.utils.Shape} must move its vertices along with it.
+ * </p>
+ */
+public final class BodyStore
+{
+    // Default kilograms for a new slot
+    private static final float DEFAULT_MASS = 70f;
+
+    // Default coefficient of friction for a new slot
+    private static final float DEFAULT_FRICTION = 0.5f;
+
+    // Default coefficient of restitution for a new slot
+    private static final float DEFAULT_RESTITUTION = 0.8f;
+
+    // Growth factor when the store runs out of slots
+    private static final float GROWTH = 0.5f;
+
+    // Meters per second; index = slot
+    float[] mVelocityX;
+    float[] mVelocityY;
+
+    // Velocity from previous physics update; index = slot
+    float[] mOldVelocityX;
+    float[] mOldVelocityY;
+
+    // Impulse to be applied during the next physics update; index = slot
+    float[] mImpulseX;
+    float[] mImpulseY;
+
+    // Kilograms; index = slot
+    float[] mMass;
+
+    // Inverse kilograms, 0 for infinite mass; index = slot
+    float[] mInvMass;
+
+    // Coefficient of friction; index = slot
+    float[] mFriction;
+
+    // Coefficient of restitution; index = slot
+    float[] mRestitution;
+
+    /**
+     * <p>Constructs a BodyStore with a number of slots, each set to default values.</p>
+     *
+     * @param capacity number of slots.
+     * @throws IllegalArgumentException if capacity is < 1.
+     */
+    BodyStore(int capacity)
+    {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be >= 1, capacity: " + capacity);
+        }
+
+        mVelocityX = new float[capacity];
+        mVelocityY = new float[capacity];
+        mOldVelocityX = new float[capacity];
+        mOldVelocityY = new float[capacity];
+        mImpulseX = new float[capacity];
+        mImpulseY = new float[capacity];
+        mMass = new float[capacity];
+        mInvMass = new float[capacity];
+        mFriction = new float[capacity];
+        mRestitution = new float[capacity];
+
+        reset(0, capacity);
+    }
+
+    /**
+     * <p>Gets the number of slots.</p>
+     *
+     * @return slot count.
+     */
+    int capacity()
+    {
+        return mMass.length;
+    }
+
+    /**
+     * <p>Makes sure a slot exists, growing every array together if needed. New slots are set to default values.</p>
+     *
+     * @param slot slot.
+     */
+    void ensureCapacity(int slot)
+    {
+        final int old = capacity();
+        if (slot < old) {
+            return;
+        }
+
+        final int capacity = Math.max(slot + 1, (int) (old * (1f + GROWTH)));
+        mVelocityX = Arrays.copyOf(mVelocityX, capacity);
+        mVelocityY = Arrays.copyOf(mVelocityY, capacity);
+        mOldVelocityX = Arrays.copyOf(mOldVelocityX, capacity);
+        mOldVelocityY = Arrays.copyOf(mOldVelocityY, capacity);
+        mImpulseX = Arrays.copyOf(mImpulseX, capacity);
+        mImpulseY = Arrays.copyOf(mImpulseY, capacity);
+        mMass = Arrays.copyOf(mMass, capacity);
+        mInvMass = Arrays.copyOf(mInvMass, capacity);
+        mFriction = Arrays.copyOf(mFriction, capacity);
+        mRestitution = Arrays.copyOf(mRestitution, capacity);
+
+        reset(old, capacity);
+    }
+
+    /**
+     * <p>Sets a range of slots to default values.</p>
+     *
+     * @param from first slot.
+     * @param to slot after the last.
+     */
+    private void reset(int from, int to)
+    {
+        for (int i = from; i < to; i++) {
+            mVelocityX[i] = 0f;
+            mVelocityY[i] = 0f;
+            mOldVelocityX[i] = 0f;
+            mOldVelocityY[i] = 0f;
+            mImpulseX[i] = 0f;
+            mImpulseY[i] = 0f;
+            mMass[i] = DEFAULT_MASS;
+            mInvMass[i] = 1f / DEFAULT_MASS;
+            mFriction[i] = DEFAULT_FRICTION;
+            mRestitution[i] = DEFAULT_RESTITUTION;
+        }
+    }
+
+    /**
+     * <p>Copies every quantity of a slot in another BodyStore into a slot of this one.</p>
+     *
+     * @param source BodyStore to copy from.
+     * @param from slot to copy from.
+     * @param to slot to copy to.
+     */
+    void copy(BodyStore source, int from, int to)
+    {
+        mVelocityX[to] = source.mVelocityX[from];
+        mVelocityY[to] = source.mVelocityY[from];
+        mOldVelocityX[to] = source.mOldVelocityX[from];
+        mOldVelocityY[to] = source.mOldVelocityY[from];
+        mImpulseX[to] = source.mImpulseX[from];
+        mImpulseY[to] = source.mImpulseY[from];
+        mMass[to] = source.mMass[from];
+        mInvMass[to] = source.mInvMass[from];
+        mFriction[to] = source.mFriction[from];
+        mRestitution[to] = source.mRestitution[from];
+    }
+
+    /**
+     * <p>Scales down the velocity of each given slot whose speed is above a maximum to exactly that maximum.</p>
+     *
+     * @param slots slots.
+     * @param from position in slots of the first slot.
+     * @param to position in slots after the last slot.
+     * @param max maximum speed.
+     */
+    void limitSpeeds(int[] slots, int from, int to, float max)
+    {
+        for (int i = from; i < to; i++) {
+            final int s = slots[i];
+            final float x = mVelocityX[s];
+            final float y = mVelocityY[s];
+            final float speed = (float) Math.sqrt((x * x) + (y * y));
+
+            if (speed > max) {
+                mVelocityX[s] = (x / speed) * max;
+                mVelocityY[s] = (y / speed) * max;
+            }
+        }
+    }
+
+    /**
+     * <p>Integrates the velocity of each given slot with a velocity verlet scheme, writing how far each slot's body
+     * should move. The new velocity includes gravity and each slot's previous acceleration.</p>
+     *
+     * @param slots slots.
+     * @param from position in slots of the first slot.
+     * @param to position in slots after the last slot.
+     * @param timestep seconds per update.
+     * @param gravityX gravity's x.
+     * @param gravityY gravity's y.
+     * @param moveX receives each slot's x displacement; index = position in slots.
+     * @param moveY receives each slot's y displacement; index = position in slots.
+     */
+    void integrate(int[] slots, int from, int to, float timestep, float gravityX, float gravityY, float[] moveX,
+                   float[] moveY)
+    {
+        final float halfStep = timestep / 2f;
+
+        for (int i = from; i < to; i++) {
+            final int s = slots[i];
+            final float vx = mVelocityX[s];
+            final float vy = mVelocityY[s];
+
+            // Acceleration is the change in velocity from the previous update
+            final float ax = vx - mOldVelocityX[s];
+            final float ay = vy - mOldVelocityY[s];
+            final float halfAx = ax * halfStep;
+            final float halfAy = ay * halfStep;
+
+            moveX[i] = (vx * timestep) + halfAx;
+            moveY[i] = (vy * timestep) + halfAy;
+
+            // Save new velocity for next update
+            mOldVelocityX[s] = vx;
+            mOldVelocityY[s] = vy;
+            mVelocityX[s] = vx + (((ax + gravityX) + halfAx) * timestep);
+            mVelocityY[s] = vy + (((ay + gravityY) + halfAy) * timestep);
+        }
+    }
+
+    /**
+     * <p>Writes how far each given slot's body should move by velocity alone, without gravity or acceleration.</p>
+     *
+     * @param slots slots.
+     * @param from position in slots of the first slot.
+     * @param to position in slots after the last slot.
+     * @param timestep seconds per update.
+     * @param moveX receives each slot's x displacement; index = position in slots.
+     * @param moveY receives each slot's y displacement; index = position in slots.
+     */
+    void integrateKinematic(int[] slots, int from, int to, float timestep, float[] moveX, float[] moveY)
+    {
+        for (int i = from; i < to; i++) {
+            final int s = slots[i];
+            moveX[i] = mVelocityX[s] * timestep;
+            moveY[i] = mVelocityY[s] * timestep;
+        }
+    }
+}
@@ -13,6 +13,12 @@ import java.util.Stack;
  *     detection by comparing axis aligned {@link Rect2D}s surrounding each BodyComponent before more complex
  *     detection algorithms are used.
  * </p>
+ *
+ * <p>
+ *     Each {@link Node} also carries the union of the collision categories of all BodyComponents beneath it (see
+ *     {@link BodyComponent#setCollisionCategory(int)}). Subtrees whose categories don't match a queried body's
+ *     collision mask are skipped without testing their bounding boxes.
+ * </p>
  */
 public final class BoundingTree
 {
@@ -32,7 +38,9 @@ public final class BoundingTree
     private Node mChild;
 
     /**
-     * <p>Fills a {@link List} with {@link BodyComponent}s that collide with a given BodyComponent.</p>
+     * <p>Fills a {@link List} with {@link BodyComponent}s that collide with a given BodyComponent. Only bodies whose
+     * collision categories and masks allow collision with the given body, as per
+     * {@link BodyComponent#canCollideWith(BodyComponent)}, are added.</p>
      *
      * @param collisions List to fill.
      * @param body BodyComponent to test against.
@@ -50,6 +58,9 @@ public final class BoundingTree
             return;
         }
 
+        // Only subtrees with categories the body accepts can hold potential collisions
+        final int mask = body.getCollisionMask();
+
         // Begin traversal from root
         Node cursor = mRoot;
         mFrames.clear();
@@ -60,11 +71,16 @@ public final class BoundingTree
             // Get Node to examine
             cursor = mFrames.pop();
 
+            // Skip subtree (or leaf) if no category beneath can collide with the body
+            if ((cursor.mCategories & mask) == 0) {
+                continue;
+            }
+
             // Add Node's BodyComponent to list if leaf and intersects
             if (isLeaf(cursor)) {
                 final Rect2D bodyRect = body.getBounds();
                 final Rect2D cursorRect = cursor.mBody.getBounds();
-                if (body != cursor.mBody && bodyRect.intersects(cursorRect)) {
+                if (body != cursor.mBody && body.canCollideWith(cursor.mBody) && bodyRect.intersects(cursorRect)) {
                     collisions.add(cursor.mBody);
                 }
 
@@ -99,6 +115,7 @@ public final class BoundingTree
         if (isEmpty()) {
             mRoot = new Node();
             mRoot.mBody = body;
+            mRoot.mCategories = body.getCollisionCategory();
             body.setContainer(mRoot);
             mRoot.mHeight = 0;
         } else {
@@ -106,6 +123,7 @@ public final class BoundingTree
             // Create Node for new body
             final Node node = new Node();
             node.mBody = body;
+            node.mCategories = body.getCollisionCategory();
             body.setContainer(node);
 
             // Get desired sibling Node for new child Node
@@ -179,7 +197,8 @@ public final class BoundingTree
     /**
      * <p>Checks and updates, if needed, a {@link BodyComponent}'s placement within the BoundingTree. This method
      * should be called for a BodyComponent after it has moved or its size has changed in order to ensure proper
-     * placement within the tree for correct results from {@link #getCollisions(List, BodyComponent)}.</p>
+     * placement within the tree for correct results from {@link #getCollisions(List, BodyComponent)}. Changes to the
+     * BodyComponent's collision category are also brought into the tree.</p>
      *
      * @param body {@link BodyComponent} to update.
      * @return true if the BodyComponent's in-tree position had to be updated.
@@ -192,6 +211,15 @@ public final class BoundingTree
             return false;
         }
 
+        // Bring changed category up the tree
+        final int category = container.mBody.getCollisionCategory();
+        if (container.mCategories != category) {
+            container.mCategories = category;
+            for (Node cursor = container.mParent; cursor != null; cursor = cursor.mParent) {
+                updateCategories(cursor);
+            }
+        }
+
         // Nothing to update if only one in tree (null parent implies container is root)
         final Node parent = container.mParent;
         if (parent == null) {
@@ -232,6 +260,9 @@ public final class BoundingTree
             // Perform rotations to balance
             cursor = balance(cursor, mChild, mGrandchild);
 
+            // Carry children's categories
+            updateCategories(cursor);
+
             // Ensure AABB fully contains children's dimensions
             resizeContainer(cursor.mBox, cursor.mLeft.getRect(), cursor.mRight.getRect());
 
@@ -333,6 +364,7 @@ public final class BoundingTree
         // Create encompassing Node
         final Node container = new Node();
         container.mBox = box;
+        container.mCategories = sibling.mCategories | child.mCategories;
 
         // Link container and parent
         final Node parent = sibling.mParent;
@@ -492,6 +524,10 @@ public final class BoundingTree
         // Update heights based off of left and right children's heights
         updateHeight(parent);
         updateHeight(node);
+
+        // Rebuild category unions for the new arrangement
+        updateCategories(parent);
+        updateCategories(node);
     }
 
     /**
@@ -504,6 +540,16 @@ public final class BoundingTree
         node.mHeight = Math.max(node.mLeft.mHeight, node.mRight.mHeight) + 1;
     }
 
+    /**
+     * <p>Updates the collision categories of a given non-leaf {@link Node} to the union of its children's.</p>
+     *
+     * @param node Node to update.
+     */
+    private void updateCategories(Node node)
+    {
+        node.mCategories = node.mLeft.mCategories | node.mRight.mCategories;
+    }
+
     /**
      * <p>Checks whether or not a {@link BodyComponent} has been added to the tree.</p>
      *
@@ -561,6 +607,9 @@ public final class BoundingTree
         // Subtree height
         private int mHeight;
 
+        // Union of collision categories of all BodyComponents in subtree
+        private int mCategories;
+
         // Node links for parent and children
         private Node mParent;
         private Node mLeft;
@@ -616,6 +665,17 @@ public final class BoundingTree
             return mBody;
         }
 
+        /**
+         * <p>Gets the union of the collision categories of all {@link BodyComponent}s in the subtree with this node
+         * as root.</p>
+         *
+         * @return category bits.
+         */
+        public int getCategories()
+        {
+            return mCategories;
+        }
+
         /**
          * <p>Gets the height of the subtree with this node as root.</p>
          *
@@ -1,5 +1,6 @@
 package com.cinnamon.object;
 
+import com.cinnamon.utils.PoolStats;
 import com.cinnamon.utils.PooledQueue;
 
 import java.util.*;
@@ -27,25 +28,23 @@ import java.util.*;
  * <h4>Sleeping components</h4>
  * <p>
  *     ContactGraph also offers a sleep optimization (also known as deactivation) for groups of bodies through the
- *     graph's connected components. All non-static bodies are arranged according to connected components and checked
- *     for optimization eligibility. Below is an example of handling this optimization.
+ *     graph's connected components. All non-static bodies are arranged according to connected components and each
+ *     awake body accumulates the time it has continuously been eligible for sleep, as decided by
+ *     {@link #isEligibleForSleep(BodyComponent)}. A component is only put to sleep once every one of its bodies has
+ *     been eligible for at least {@link #getTimeToSleep()} seconds.
+ * </p>
+ * <p>
+ *     A sleeping component stays asleep across updates without being reexamined. It is woken only when an awake body
+ *     joins its component through a new {@link Contact}, when one of its bodies is removed from the graph, or when
+ *     one of its bodies has its velocity or impulse changed from outside the {@link Solver}. Below is an example of
+ *     handling this optimization once per update.
  * </p>
  * <br>
  * <pre>
  *     {@code
  *
- *     // Update each component's sleeping
- *     for (int component = 0, count = graph.getComponentCount(); component < count; component++) {
- *
- *         // Sleep if allowed to
- *         if (graph.isSleepEligible(component)) {
- *             graph.sleep(component);
- *
- *         } else {
- *             // Wake since shouldn't be sleeping
- *             graph.wake(component);
- *         }
- *     }
+ *     // Advance sleep timers and sleep/wake components
+ *     graph.updateSleep(timestep);
  *     }
  * </pre>
  */
@@ -59,6 +58,31 @@ public abstract class ContactGraph<E extends ContactGraph.Contact>
     // Connections to track frames instead of recursion
     private final Stack<ContactGraph.Node> mDFSTrace = new Stack<ContactGraph.Node>();
 
+    /**
+     * Sleep optimization
+     */
+
+    // Default number of seconds a component must be eligible for sleep before sleeping
+    private static final float DEFAULT_TIME_TO_SLEEP = 0.5f;
+
+    // Component contains at least one sleeping body
+    private static final int FLAG_SLEEPING = 1;
+
+    // Component contains at least one awake body
+    private static final int FLAG_AWAKE = 1 << 1;
+
+    // Component contains a body requesting to be woken
+    private static final int FLAG_WAKE_REQUESTED = 1 << 2;
+
+    // Seconds a component must be eligible for sleep before sleeping
+    private float mTimeToSleep = DEFAULT_TIME_TO_SLEEP;
+
+    // Smallest sleep timer among each component's bodies; index = component
+    private float[] mComponentSleepTimes = new float[0];
+
+    // Sleep state flags gathered from each component's bodies; index = component
+    private int[] mComponentFlags = new int[0];
+
     /**
      * General structure members; obj pools, size
      */
@@ -66,6 +90,9 @@ public abstract class ContactGraph<E extends ContactGraph.Contact>
     // Obj pool to recycle Nodes
     private final PooledQueue<ContactGraph.Node> mNodePool = new PooledQueue<ContactGraph.Node>();
 
+    // Node pool hits, misses, and live Nodes
+    private final PoolStats mNodeStats = new PoolStats("graph nodes");
+
     // For resetting visit flags after sleep/wake traversal
     private final List<ContactGraph.Node> mNodesInUse = new ArrayList<ContactGraph.Node>();
 
@@ -75,9 +102,6 @@ public abstract class ContactGraph<E extends ContactGraph.Contact>
     // Entry points into components; index = component
     private List<ContactGraph.Node> mComponents = new ArrayList<ContactGraph.Node>();
 
-    // Whether or not a component can sleep
-    private List<Boolean> mComponentSleepablility = new ArrayList<Boolean>();
-
     // Number of Nodes in use
     private int mSize = 0;
 
@@ -97,6 +121,27 @@ public abstract class ContactGraph<E extends ContactGraph.Contact>
     // Obj pool to recycle Contacts
     private final PooledQueue<E> mContactPool = new PooledQueue<E>();
 
+    // Contact pool hits, misses, and live Contacts
+    private final PoolStats mContactStats = new PoolStats("contacts");
+
+    // Orders Contacts by their bodies' ids for sortContacts()
+    private static final Comparator<Contact> BODY_ID_ORDER = new Comparator<Contact>()
+    {
+        @Override
+        public int compare(Contact a, Contact b)
+        {
+            final int lowA = Math.min(a.getBodyA().getId(), a.getBodyB().getId());
+            final int lowB = Math.min(b.getBodyA().getId(), b.getBodyB().getId());
+            if (lowA != lowB) {
+                return (lowA < lowB) ? -1 : 1;
+            }
+
+            final int highA = Math.max(a.getBodyA().getId(), a.getBodyB().getId());
+            final int highB = Math.max(b.getBodyA().getId(), b.getBodyB().getId());
+            return (highA < highB) ? -1 : ((highA == highB) ? 0 : 1);
+        }
+    };
+
     /**
      * <p>Constructs a ContactGraph with an initial capacity for {@link BodyComponent}s.</p>
      *
@@ -183,6 +228,13 @@ public abstract class ContactGraph<E extends ContactGraph.Contact>
         node.setBody(null);
         body.setContactNode(null);
 
+        // Body no longer supports its neighbors so they should reexamine sleep
+        requestWakeForNeighbors(node);
+
+        // Body shouldn't stay asleep outside the graph
+        body.setSleeping(false);
+        body.setSleepTime(0f);
+
         // Erase inbound and outbound links used in traversal
         clearLinks(body, node);
 
@@ -192,6 +244,24 @@ public abstract class ContactGraph<E extends ContactGraph.Contact>
         return true;
     }
 
+    /**
+     * <p>Flags each non-static {@link BodyComponent} linked to the given {@link Node} as wanting to be woken.</p>
+     *
+     * @param node Node.
+     */
+    private void requestWakeForNeighbors(Node node)
+    {
+        final List<ContactGraph.Node> connections = node.getLinks();
+
+        for (int i = 0, sz = connections.size(); i < sz; i++) {
+            final BodyComponent neighbor = connections.get(i).getBody();
+
+            if (!isAnchor(neighbor)) {
+                neighbor.requestWake();
+            }
+        }
+    }
+
     /**
      * <p>Removes all inbound and outbound links between the {@link Node} and its neighbors and places the Node back
      * in the object pool. Afterwards, the BodyComponent and its Node can no longer be reached by traversal.</p>
@@ -213,6 +283,7 @@ public abstract class ContactGraph<E extends ContactGraph.Contact>
         connections.clear();
         mNodesInUse.remove(node);
         mNodePool.add(node);
+        mNodeStats.released();
     }
 
     /**
@@ -342,8 +413,10 @@ public abstract class ContactGraph<E extends ContactGraph.Contact>
 
                 // Clear and place back in obj pool
                 final E con = contacts.remove(i);
+                onContactRemoved(con);
                 con.clear();
                 mContactPool.add(con);
+                mContactStats.released();
                 contact = con;
 
                 break;
@@ -401,6 +474,43 @@ public abstract class ContactGraph<E extends ContactGraph.Contact>
         }
     }
 
+    /**
+     * <p>Sorts the listing of all {@link Contact}s by the ids of their bodies, lower id first, so that iterating
+     * through {@link #getContactAt(int)} visits Contacts in the same order no matter when each was added. Contacts
+     * with invalid bodies should be removed beforehand with {@link #removeInvalidContacts()}.</p>
+     */
+    public final void sortContacts()
+    {
+        Collections.sort(mGlobalContacts, BODY_ID_ORDER);
+    }
+
+    /**
+     * <p>Removes every {@link Contact} from the graph without calling {@link #onContactRemoved(Contact)}. This is
+     * meant for restoring saved state, where the Contacts being replaced never existed and so never ended.</p>
+     */
+    final void clearContacts()
+    {
+        for (int i = 0, sz = mGlobalContacts.size(); i < sz; i++) {
+            final E con = mGlobalContacts.get(i);
+
+            // Contacts are only listed under body A
+            getContactListOf(con.getBodyA()).clear();
+
+            // Clear and place back in obj pool
+            con.clear();
+            mContactPool.add(con);
+            mContactStats.released();
+        }
+
+        // Links only exist between bodies in contact
+        for (int i = 0, sz = mNodesInUse.size(); i < sz; i++) {
+            mNodesInUse.get(i).getLinks().clear();
+        }
+
+        mGlobalContacts.clear();
+        mGraphChanged = true;
+    }
+
     /**
      * <p>Checks if a {@link Contact} is no longer valid.</p>
      *
@@ -414,6 +524,17 @@ public abstract class ContactGraph<E extends ContactGraph.Contact>
         return contact.getBodyA() == null || contact.getBodyB() == null;
     }
 
+    /**
+     * <p>Called when a {@link Contact} is about to be removed from the graph, while its bodies are still set. This
+     * includes Contacts removed along with a body through {@link #remove(BodyComponent)}.</p>
+     *
+     * @param contact Contact.
+     */
+    protected void onContactRemoved(E contact)
+    {
+
+    }
+
     /**
      * <p>Gets a {@link BodyComponent}'s list of {@link Contact}s.</p>
      *
@@ -446,8 +567,10 @@ public abstract class ContactGraph<E extends ContactGraph.Contact>
 
             // Clear Contact info and recycle to pool
             final E con = contacts.get(i);
+            onContactRemoved(con);
             con.clear();
             mContactPool.add(con);
+            mContactStats.released();
 
             // Remove from global list
             mGlobalContacts.remove(con);
@@ -467,7 +590,20 @@ public abstract class ContactGraph<E extends ContactGraph.Contact>
      */
     private E getContact()
     {
-        return (mContactPool.isEmpty()) ? createContact() : mContactPool.poll();
+        final boolean reused = !mContactPool.isEmpty();
+        mContactStats.acquired(reused);
+        return (reused) ? mContactPool.poll() : createContact();
+    }
+
+    /**
+     * <p>Adds the {@link PoolStats} of the Contact and Node pools to a list.</p>
+     *
+     * @param stats list to add to.
+     */
+    public final void getPoolStats(List<PoolStats> stats)
+    {
+        stats.add(mContactStats);
+        stats.add(mNodeStats);
     }
 
     /**
@@ -519,6 +655,19 @@ public abstract class ContactGraph<E extends ContactGraph.Contact>
         return mGlobalContacts;
     }
 
+    /**
+     * <p>Gets a {@link Contact} by its position in the listing of all Contacts. This allows iterating over all
+     * Contacts without an {@link java.util.Iterator}.</p>
+     *
+     * @param index index, from 0 to {@link #getContactCount()} - 1.
+     * @return Contact.
+     * @throws IndexOutOfBoundsException if index is out of range.
+     */
+    public final E getContactAt(int index)
+    {
+        return mGlobalContacts.get(index);
+    }
+
     /**
      * <p>Gets the number of {@link Contact}s.</p>
      *
@@ -546,26 +695,22 @@ public abstract class ContactGraph<E extends ContactGraph.Contact>
             mNodesInUse.get(i).setComponent(-1);
         }
 
-        // Erase previous components' starting points, sleep eligibility, and sleep status
+        // Erase previous components' starting points
         mComponents.clear();
-        mComponentSleepablility.clear();
 
         // Do a DFS on each Node, marking each as part of a component if unassigned
         for (int i = 0, cmpt = 0, sz = mNodesInUse.size(); i < sz; i++) {
             final ContactGraph.Node cursor = mNodesInUse.get(i);
             final int component = cursor.getComponent();
 
-            // Skip those already assigned a component or static body
-            if (component != -1 || cursor.getBody().isStatic()) {
+            // Skip those already assigned a component or static or kinematic body
+            if (component != -1 || isAnchor(cursor.getBody())) {
                 continue;
             }
 
             // Set as an entry point for the component
             mComponents.add(cursor);
 
-            // Component can be put to sleep unless one node's found ineligible
-            mComponentSleepablility.add(true);
-
             // Set component index of all Nodes reachable from cursor
             setComponentFrom(cursor, cmpt);
 
@@ -575,6 +720,15 @@ public abstract class ContactGraph<E extends ContactGraph.Contact>
             // Switch to new component index
             cmpt++;
         }
+
+        // Make room for each component's sleep state
+        if (mComponentFlags.length < mComponents.size()) {
+            mComponentFlags = new int[mComponents.size()];
+            mComponentSleepTimes = new float[mComponents.size()];
+        }
+
+        // Components are now up-to-date
+        mGraphChanged = false;
     }
 
     /**
@@ -596,25 +750,32 @@ public abstract class ContactGraph<E extends ContactGraph.Contact>
             cursor.setComponent(component);
             cursor.setVisited(true);
 
-            // Flag entire component as not sleep eligible if at least one body is not
-            if (!isEligibleForSleep(cursor.getBody())) {
-                mComponentSleepablility.set(component, false);
-            }
-
             final List<ContactGraph.Node> links = cursor.getLinks();
 
             // Add all unvisited neighbors to the stack to be visited
             for (int i = 0, sz = links.size(); i < sz; i++) {
                 final ContactGraph.Node neighbor = links.get(i);
 
-                // Skip unvisited and static bodies
-                if (!neighbor.isVisited() && !neighbor.getBody().isStatic()) {
+                // Skip unvisited and static or kinematic bodies
+                if (!neighbor.isVisited() && !isAnchor(neighbor.getBody())) {
                     mDFSTrace.add(neighbor);
                 }
             }
         }
     }
 
+    /**
+     * <p>Checks if a {@link BodyComponent} is static or kinematic. Such bodies are not moved by {@link Contact}s and
+     * so don't belong to, or link together, components.</p>
+     *
+     * @param body body.
+     * @return true if static or kinematic.
+     */
+    private static boolean isAnchor(BodyComponent body)
+    {
+        return body.isStatic() || body.isKinematic();
+    }
+
     /**
      * <p>Checks if a {@link BodyComponent can be put to sleep.</p>
      *
@@ -624,20 +785,102 @@ public abstract class ContactGraph<E extends ContactGraph.Contact>
     protected abstract boolean isEligibleForSleep(BodyComponent body);
 
     /**
-     * <p>Checks if a component is eligible for sleep.</p>
+     * <p>Advances the sleep timers of all awake {@link BodyComponent}s and sleeps or wakes components accordingly.</p>
      *
-     * @param component component.
-     * @return true if component can be put to sleep.
-     * @throws IllegalArgumentException if the component is < 0 or >= {@link #getComponentCount()}.
+     * <p>An awake body's timer grows by the given timestep while {@link #isEligibleForSleep(BodyComponent)} is true
+     * and is reset to 0 otherwise. A component whose bodies are all awake is put to sleep once its smallest timer
+     * reaches {@link #getTimeToSleep()}. Sleeping bodies are not reexamined; their component is woken only if it
+     * also contains an awake body (i.e. something new touched it) or one of its bodies requested waking.</p>
+     *
+     * @param timestep seconds since the last call.
      */
-    public final boolean isSleepEligible(int component)
+    public final void updateSleep(float timestep)
     {
-        checkComponent(component);
-
-        // Make sure components are up-to-date
+        // Ensure listed components are up-to-date
         updateComponents();
 
-        return mComponentSleepablility.get(component);
+        final int count = mComponents.size();
+
+        // Reset gathered state for each component
+        for (int i = 0; i < count; i++) {
+            mComponentFlags[i] = 0;
+            mComponentSleepTimes[i] = Float.MAX_VALUE;
+        }
+
+        // Gather each component's sleep state from its bodies without traversal
+        for (int i = 0, sz = mNodesInUse.size(); i < sz; i++) {
+            final ContactGraph.Node node = mNodesInUse.get(i);
+            final BodyComponent body = node.getBody();
+
+            // Static and kinematic bodies don't belong to a component
+            if (isAnchor(body)) {
+                continue;
+            }
+
+            final int component = node.getComponent();
+
+            if (body.isSleeping()) {
+                mComponentFlags[component] |= FLAG_SLEEPING;
+
+            } else {
+                mComponentFlags[component] |= FLAG_AWAKE;
+
+                // Accumulate time while eligible, otherwise start over
+                body.setSleepTime(isEligibleForSleep(body) ? body.getSleepTime() + timestep : 0f);
+            }
+
+            if (body.isWakeRequested()) {
+                mComponentFlags[component] |= FLAG_WAKE_REQUESTED;
+                body.clearWakeRequest();
+            }
+
+            // Component can only sleep as soon as its least rested body
+            mComponentSleepTimes[component] = Math.min(mComponentSleepTimes[component], body.getSleepTime());
+        }
+
+        // Sleep or wake each component
+        for (int i = 0; i < count; i++) {
+            final int flags = mComponentFlags[i];
+            final boolean mixed = (flags & FLAG_SLEEPING) != 0 && (flags & FLAG_AWAKE) != 0;
+
+            if (mixed || (flags & FLAG_WAKE_REQUESTED) != 0) {
+                // Touched by an awake body or disturbed from outside
+                if ((flags & FLAG_SLEEPING) != 0) {
+                    setSleepForAll(mComponents.get(i), false);
+                }
+
+            } else if ((flags & FLAG_AWAKE) != 0 && mComponentSleepTimes[i] >= mTimeToSleep) {
+                // All bodies have rested long enough
+                setSleepForAll(mComponents.get(i), true);
+            }
+        }
+    }
+
+    /**
+     * <p>Gets the number of seconds every {@link BodyComponent} in a component must be eligible for sleep before the
+     * component is put to sleep.</p>
+     *
+     * @return seconds.
+     */
+    public final float getTimeToSleep()
+    {
+        return mTimeToSleep;
+    }
+
+    /**
+     * <p>Sets the number of seconds every {@link BodyComponent} in a component must be eligible for sleep before the
+     * component is put to sleep.</p>
+     *
+     * @param seconds seconds.
+     * @throws IllegalArgumentException if seconds < 0.
+     */
+    public final void setTimeToSleep(float seconds)
+    {
+        if (seconds < 0f) {
+            throw new IllegalArgumentException("Time to sleep must be >= 0: " + seconds);
+        }
+
+        mTimeToSleep = seconds;
     }
 
     /**
@@ -698,8 +941,8 @@ public abstract class ContactGraph<E extends ContactGraph.Contact>
      */
     private void setSleepForAll(Node start, boolean sleep)
     {
-        // Static bodies shouldn't connect components for sleep
-        assert (!start.getBody().isStatic());
+        // Static and kinematic bodies shouldn't connect components for sleep
+        assert (!isAnchor(start.getBody()));
 
         mDFSTrace.push(start);
 
@@ -708,8 +951,8 @@ public abstract class ContactGraph<E extends ContactGraph.Contact>
             final Node cursor = mDFSTrace.pop();
             final List<ContactGraph.Node> connections = cursor.getLinks();
 
-            // Reached leaf so skip
-            if (connections.isEmpty()) {
+            // Already applied through another link
+            if (cursor.isVisited()) {
                 continue;
             }
 
@@ -718,7 +961,7 @@ public abstract class ContactGraph<E extends ContactGraph.Contact>
                 final ContactGraph.Node toVisit = connections.get(i);
 
                 // Only add unvisited to prevent cycling
-                if (!toVisit.isVisited() && !toVisit.getBody().isStatic()) {
+                if (!toVisit.isVisited() && !isAnchor(toVisit.getBody())) {
                     mDFSTrace.push(connections.get(i));
                 }
             }
@@ -727,9 +970,15 @@ public abstract class ContactGraph<E extends ContactGraph.Contact>
             final BodyComponent body = cursor.getBody();
             cursor.setVisited(true);
             body.setSleeping(sleep);
+            body.clearWakeRequest();
 
             // Allow subclass ops
-            onSleep(body);
+            if (sleep) {
+                onSleep(body);
+            } else {
+                // Woken bodies must rest again before sleeping
+                body.setSleepTime(0f);
+            }
         }
 
         // Set all visit flags back to false
@@ -784,7 +1033,9 @@ public abstract class ContactGraph<E extends ContactGraph.Contact>
     private Node getNode()
     {
         // Reuse old Node or create new if no old
-        final Node node = (mNodePool.isEmpty()) ? new Node() : mNodePool.poll();
+        final boolean reused = !mNodePool.isEmpty();
+        final Node node = (reused) ? mNodePool.poll() : new Node();
+        mNodeStats.acquired(reused);
 
         // Add to list of those in use
         mNodesInUse.add(node);
@@ -989,8 +1240,19 @@ public abstract class ContactGraph<E extends ContactGraph.Contact>
         public final void setManifold(BodyComponent.Manifold manifold)
         {
             mManifold.copy(manifold);
+
+            // Let subclasses match their per point data
+            onManifoldSet(mManifold);
         }
 
+        /**
+         * <p>This method is called after {@link #setManifold(BodyComponent.Manifold)} and allows subclasses to update
+         * data kept per contact point, such as by matching {@link BodyComponent.Manifold#getFeatureIdAt(int)}.</p>
+         *
+         * @param manifold new collision data.
+         */
+        protected abstract void onManifoldSet(BodyComponent.Manifold manifold);
+
         /**
          * <p>Gets {@link BodyComponent} A.</p>
          *
@@ -1078,6 +1340,16 @@ public abstract class ContactGraph<E extends ContactGraph.Contact>
             return mPersistence;
         }
 
+        /**
+         * <p>Sets the number of frames in which the Contact has been valid, such as when restoring saved state.</p>
+         *
+         * @param frames number of frames since first use.
+         */
+        final void setPersistence(int frames)
+        {
+            mPersistence = frames;
+        }
+
         /**
          * <p>Erases all contact data including the handle flag and frame persistence.</p>
          */
@@ -0,0 +1,242 @@
+package com.cinnamon.object;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ *     Reusable buffer of contact records written by a {@link Solver} during an update. Each record describes a pair of
+ *     {@link BodyComponent}s, referred to by id and version, that began touching, stayed touching, or stopped
+ *     touching, along with the collision normal pointing from body A to body B.
+ * </p>
+ *
+ * <p>
+ *     Records are stored in parallel primitive arrays which only grow, so once a ContactRecords has grown to fit a
+ *     scene's typical number of contacts, recording allocates nothing. Records are read by index from 0 to
+ *     {@link #size()} - 1.
+ * </p>
+ */
+public final class ContactRecords
+{
+    /**
+     * <p>Bodies began touching during the update.</p>
+     */
+    public static final int TYPE_BEGIN = 0;
+
+    /**
+     * <p>Bodies were touching in the previous update and still are.</p>
+     */
+    public static final int TYPE_PERSIST = 1;
+
+    /**
+     * <p>Bodies stopped touching or one of them was removed. The normal of an end record is always (0,0).</p>
+     */
+    public static final int TYPE_END = 2;
+
+    // Initial number of records
+    private static final int LOAD = 32;
+
+    // Record type; index = record
+    private int[] mTypes = new int[LOAD];
+
+    // Body A's id; index = record
+    private int[] mIdsA = new int[LOAD];
+
+    // Body A's version; index = record
+    private int[] mVersionsA = new int[LOAD];
+
+    // Body B's id; index = record
+    private int[] mIdsB = new int[LOAD];
+
+    // Body B's version; index = record
+    private int[] mVersionsB = new int[LOAD];
+
+    // Collision normal x; index = record
+    private float[] mNormalsX = new float[LOAD];
+
+    // Collision normal y; index = record
+    private float[] mNormalsY = new float[LOAD];
+
+    // Number of records
+    private int mSize = 0;
+
+    /**
+     * <p>Adds a record.</p>
+     *
+     * @param type record type, such as {@link #TYPE_BEGIN}.
+     * @param bodyA body A.
+     * @param bodyB body B.
+     * @param normalX collision normal x.
+     * @param normalY collision normal y.
+     */
+    void add(int type, BodyComponent bodyA, BodyComponent bodyB, float normalX, float normalY)
+    {
+        // Grow all arrays together
+        if (mSize == mTypes.length) {
+            final int capacity = mTypes.length * 2;
+            mTypes = Arrays.copyOf(mTypes, capacity);
+            mIdsA = Arrays.copyOf(mIdsA, capacity);
+            mVersionsA = Arrays.copyOf(mVersionsA, capacity);
+            mIdsB = Arrays.copyOf(mIdsB, capacity);
+            mVersionsB = Arrays.copyOf(mVersionsB, capacity);
+            mNormalsX = Arrays.copyOf(mNormalsX, capacity);
+            mNormalsY = Arrays.copyOf(mNormalsY, capacity);
+        }
+
+        mTypes[mSize] = type;
+        mIdsA[mSize] = bodyA.getId();
+        mVersionsA[mSize] = bodyA.getVersion();
+        mIdsB[mSize] = bodyB.getId();
+        mVersionsB[mSize] = bodyB.getVersion();
+        mNormalsX[mSize] = normalX;
+        mNormalsY[mSize] = normalY;
+        mSize++;
+    }
+
+    /**
+     * <p>Removes all records. Capacity is kept.</p>
+     */
+    public void clear()
+    {
+        mSize = 0;
+    }
+
+    /**
+     * <p>Gets the number of records.</p>
+     *
+     * @return record count.
+     */
+    public int size()
+    {
+        return mSize;
+    }
+
+    /**
+     * <p>Checks if there are no records.</p>
+     *
+     * @return true if empty.
+     */
+    public boolean isEmpty()
+    {
+        return mSize == 0;
+    }
+
+    /**
+     * <p>Gets a record's type.</p>
+     *
+     * @param index record index.
+     * @return {@link #TYPE_BEGIN}, {@link #TYPE_PERSIST}, or {@link #TYPE_END}.
+     * @throws IndexOutOfBoundsException if index is outside 0 to size() - 1.
+     */
+    public int getType(int index)
+    {
+        checkIndex(index);
+        return mTypes[index];
+    }
+
+    /**
+     * <p>Gets the id of a record's body A.</p>
+     *
+     * @param index record index.
+     * @return body id.
+     * @throws IndexOutOfBoundsException if index is outside 0 to size() - 1.
+     */
+    public int getBodyIdA(int index)
+    {
+        checkIndex(index);
+        return mIdsA[index];
+    }
+
+    /**
+     * <p>Gets the version of a record's body A.</p>
+     *
+     * @param index record index.
+     * @return body version.
+     * @throws IndexOutOfBoundsException if index is outside 0 to size() - 1.
+     */
+    public int getBodyVersionA(int index)
+    {
+        checkIndex(index);
+        return mVersionsA[index];
+    }
+
+    /**
+     * <p>Gets the id of a record's body B.</p>
+     *
+     * @param index record index.
+     * @return body id.
+     * @throws IndexOutOfBoundsException if index is outside 0 to size() - 1.
+     */
+    public int getBodyIdB(int index)
+    {
+        checkIndex(index);
+        return mIdsB[index];
+    }
+
+    /**
+     * <p>Gets the version of a record's body B.</p>
+     *
+     * @param index record index.
+     * @return body version.
+     * @throws IndexOutOfBoundsException if index is outside 0 to size() - 1.
+     */
+    public int getBodyVersionB(int index)
+    {
+        checkIndex(index);
+        return mVersionsB[index];
+    }
+
+    /**
+     * <p>Gets the x component of a record's collision normal.</p>
+     *
+     * @param index record index.
+     * @return normal x.
+     * @throws IndexOutOfBoundsException if index is outside 0 to size() - 1.
+     */
+    public float getNormalX(int index)
+    {
+        checkIndex(index);
+        return mNormalsX[index];
+    }
+
+    /**
+     * <p>Gets the y component of a record's collision normal.</p>
+     *
+     * @param index record index.
+     * @return normal y.
+     * @throws IndexOutOfBoundsException if index is outside 0 to size() - 1.
+     */
+    public float getNormalY(int index)
+    {
+        checkIndex(index);
+        return mNormalsY[index];
+    }
+
+    /**
+     * <p>Checks if a record involves a specific {@link BodyComponent} as either body A or body B.</p>
+     *
+     * @param index record index.
+     * @param id body id.
+     * @param version body version.
+     * @return true if the body is part of the record.
+     * @throws IndexOutOfBoundsException if index is outside 0 to size() - 1.
+     */
+    public boolean involves(int index, int id, int version)
+    {
+        checkIndex(index);
+        return (mIdsA[index] == id && mVersionsA[index] == version)
+                || (mIdsB[index] == id && mVersionsB[index] == version);
+    }
+
+    /**
+     * <p>Throws an {@link IndexOutOfBoundsException} if an index doesn't refer to a record.</p>
+     *
+     * @param index record index.
+     * @throws IndexOutOfBoundsException if index is outside 0 to size() - 1.
+     */
+    private void checkIndex(int index)
+    {
+        if (index < 0 || index >= mSize) {
+            throw new IndexOutOfBoundsException("Record index: " + index + ", size: " + mSize);
+        }
+    }
+}
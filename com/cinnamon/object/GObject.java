@@ -3,6 +3,7 @@ package com.cinnamon.object;
 import com.cinnamon.gfx.ImageComponent;
 import com.cinnamon.gfx.Texture;
 import com.cinnamon.system.ComponentFactory;
+import com.cinnamon.utils.Handle;
 import com.cinnamon.utils.IndexedFactory;
 import com.cinnamon.system.MouseEvent;
 import com.cinnamon.utils.OnClickListener;
@@ -30,11 +31,8 @@ public class GObject extends IndexedFactory.Identifiable implements Positional,
     // Callback for on click events
     private OnClickListener mOnClickListener;
 
-    // Parent GObject's id
-    private int mParentId;
-
-    // Parent GObject's version
-    private int mParentVer;
+    // Parent GObject's id and version
+    private long mParent = Handle.NULL;
 
     // Collision
     private BodyComponent mBodyComp;
@@ -42,6 +40,12 @@ public class GObject extends IndexedFactory.Identifiable implements Positional,
     // Visual
     private ImageComponent mImgComp;
 
+    // Place among attached GObjects; null if neither attached nor attached to
+    TransformHierarchy.Node mNode;
+
+    // True if the ImageComponent is only moved to the BodyComponent when drawn
+    private boolean mImageDerived = false;
+
     /**
      * <p>Constructs an empty game object.</p>
      */
@@ -138,13 +142,15 @@ public class GObject extends IndexedFactory.Identifiable implements Positional,
     @Override
     public final void moveTo(float x, float y)
     {
+        markMoved();
+
         // Move BodyComponent to match pos
         if (mBodyComp != null) {
             mBodyComp.moveTo(x, y);
         }
 
-        // Move ImageComponent to match pos
-        if (mImgComp != null) {
+        // Move ImageComponent to match pos unless left for drawing
+        if (mImgComp != null && !isImageDerived()) {
             mImgComp.moveTo(x, y);
         }
     }
@@ -162,14 +168,20 @@ public class GObject extends IndexedFactory.Identifiable implements Positional,
     @Override
     public final void moveTo(float x, float y, float z)
     {
+        markMoved();
+
         // Move BodyComponent to match pos
         if (mBodyComp != null) {
             mBodyComp.moveTo(x, y, z);
         }
 
-        // Move ImageComponent to match pos
+        // Move ImageComponent to match pos; depth still applies immediately as it decides drawing order
         if (mImgComp != null) {
-            mImgComp.moveTo(x, y, z);
+            if (isImageDerived()) {
+                mImgComp.moveBy(0f, 0f, z - mImgComp.getZ());
+            } else {
+                mImgComp.moveTo(x, y, z);
+            }
         }
     }
 
@@ -201,14 +213,20 @@ public class GObject extends IndexedFactory.Identifiable implements Positional,
     @Override
     public final void moveBy(float x, float y, float z)
     {
+        markMoved();
+
         // Move BodyComponent to match pos
         if (mBodyComp != null) {
             mBodyComp.moveBy(x, y, z);
         }
 
-        // Move ImageComponent to match pos
+        // Move ImageComponent to match pos; depth still applies immediately as it decides drawing order
         if (mImgComp != null) {
-            mImgComp.moveBy(x, y, z);
+            if (isImageDerived()) {
+                mImgComp.moveBy(0f, 0f, z);
+            } else {
+                mImgComp.moveBy(x, y, z);
+            }
         }
     }
 
@@ -226,6 +244,9 @@ public class GObject extends IndexedFactory.Identifiable implements Positional,
     {
         // Get representative positional; either body or image
         final Positional pos = (mBodyComp != null) ? mBodyComp : mImgComp;
+        if (pos == null) {
+            return;
+        }
 
         // Compute bottom left position and move
         moveTo(x - (pos.getWidth() / 2f), y - (pos.getHeight() / 2f));
@@ -342,7 +363,7 @@ public class GObject extends IndexedFactory.Identifiable implements Positional,
      */
     public final int getParentId()
     {
-        return mParentId;
+        return Handle.getId(mParent);
     }
 
     /**
@@ -352,18 +373,34 @@ public class GObject extends IndexedFactory.Identifiable implements Positional,
      */
     public final int getParentVersion()
     {
-        return mParentVer;
+        return Handle.getVersion(mParent);
+    }
+
+    /**
+     * <p>Gets the parent's id and version packed into a {@link Handle}.</p>
+     *
+     * @return parent handle, or {@link Handle#NULL} if no parent was set.
+     */
+    public final long getParentHandle()
+    {
+        return mParent;
     }
 
     /**
-     * <p>Sets the parent.</p>
+     * <p>Sets the parent. The parent only affects collision as the GObject won't collide with its parent; to have
+     * the GObject also follow the parent's movement, attach it with
+     * {@link TransformHierarchy#attach(GObject, GObject)}.</p>
      *
      * @param object parent.
      */
     public final void setParent(GObject object)
     {
-        mParentId = object.getId();
-        mParentVer = object.getVersion();
+        mParent = object.getHandle();
+
+        // Keep body's copy for collision filtering
+        if (mBodyComp != null) {
+            mBodyComp.setParentObject(mParent);
+        }
     }
 
     @Override
@@ -381,14 +418,16 @@ public class GObject extends IndexedFactory.Identifiable implements Positional,
     @Override
     public final void rotateTo(double angle)
     {
+        markMoved();
+
         // Rotate body if available
         final boolean hasBody = mBodyComp != null;
         if (hasBody) {
             mBodyComp.rotateTo(angle);
         }
 
-        // Rotate image if available
-        if (mImgComp != null) {
+        // Rotate image if available and not left for drawing
+        if (mImgComp != null && !isImageDerived()) {
             mImgComp.rotateTo(angle);
 
             // Center image onto body
@@ -404,14 +443,16 @@ public class GObject extends IndexedFactory.Identifiable implements Positional,
     @Override
     public final void rotateBy(double angle)
     {
+        markMoved();
+
         // Rotate body if available
         final boolean hasBody = mBodyComp != null;
         if (hasBody) {
             mBodyComp.rotateBy(angle);
         }
 
-        // Rotate image if available
-        if (mImgComp != null) {
+        // Rotate image if available and not left for drawing
+        if (mImgComp != null && !isImageDerived()) {
             mImgComp.rotateBy(angle);
 
             // Center image onto body
@@ -424,6 +465,69 @@ public class GObject extends IndexedFactory.Identifiable implements Positional,
         }
     }
 
+    /**
+     * <p>Brings the GObject up to date after its {@link BodyComponent} was moved directly, such as by a
+     * {@link Solver}. The {@link ImageComponent} is moved along unless {@link #isImageDerived()}.</p>
+     */
+    final void followBody()
+    {
+        markMoved();
+        if (!mImageDerived) {
+            syncImageToBody();
+        }
+    }
+
+    /**
+     * <p>Checks if the {@link ImageComponent} is left behind by moves and only placed onto the
+     * {@link BodyComponent} when drawn. See {@link GObjectFactory#setImageSyncLazy(boolean)}.</p>
+     *
+     * @return true if the GObject has a BodyComponent and its image is derived from it.
+     */
+    public final boolean isImageDerived()
+    {
+        return mImageDerived && mBodyComp != null;
+    }
+
+    /**
+     * <p>Sets whether the {@link ImageComponent} is only placed onto the {@link BodyComponent} when drawn. Switching
+     * back immediately moves the image to the body.</p>
+     *
+     * @param derive true to leave the image behind until drawn.
+     */
+    final void setImageDerived(boolean derive)
+    {
+        if (mImageDerived && !derive) {
+            syncImageToBody();
+        }
+        mImageDerived = derive;
+    }
+
+    /**
+     * <p>Flags the GObject for its children in a {@link TransformHierarchy} to follow on the next update.</p>
+     */
+    private void markMoved()
+    {
+        if (mNode != null) {
+            mNode.mDirty = true;
+        }
+    }
+
+    /**
+     * <p>Copies another GObject's {@link OnClickListener} and parent. Components are not copied.</p>
+     *
+     * @param object GObject to copy.
+     */
+    final void copyFrom(GObject object)
+    {
+        mOnClickListener = object.mOnClickListener;
+        mParent = object.mParent;
+
+        // Keep body's copy for collision filtering
+        if (mBodyComp != null) {
+            mBodyComp.setParentObject(mParent);
+        }
+    }
+
     /**
      * <p>Gets the {@link ImageComponent} to use when drawing.</p>
      *
@@ -498,6 +602,7 @@ public class GObject extends IndexedFactory.Identifiable implements Positional,
 
             // Apply component ownership
             mBodyComp.setGObject(this);
+            mBodyComp.setParentObject(mParent);
 
             syncImageToBody();
         }
@@ -1,10 +1,15 @@
 package com.cinnamon.object;
 
 
+import com.cinnamon.gfx.ImageComponent;
 import com.cinnamon.system.Config;
 import com.cinnamon.system.Game;
+import com.cinnamon.utils.Handle;
 import com.cinnamon.utils.IndexedFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * <p>
  *     GObjectFactory is responsible for producing {@link GObject}s to act as whatever game object is needed.
@@ -25,6 +30,12 @@ import com.cinnamon.utils.IndexedFactory;
  */
 public abstract class GObjectFactory<E extends GObject> extends IndexedFactory<E, Game.Resources>
 {
+    // GObjects attached to follow others
+    private final TransformHierarchy mHierarchy = new TransformHierarchy();
+
+    // True if images of GObjects with bodies are only placed when drawn
+    private boolean mImageSyncLazy = false;
+
     /**
      * <p>Constructor for GObjectFactory.</p>
      *
@@ -49,6 +60,102 @@ public abstract class GObjectFactory<E extends GObject> extends IndexedFactory<E
         return super.get(configName);
     }
 
+    @Override
+    protected final E requisition(Config<E, Game.Resources> config)
+    {
+        final E object = super.requisition(config);
+        object.setImageDerived(mImageSyncLazy);
+        return object;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The prototype's {@link BodyComponent} and {@link ImageComponent}, if any, are themselves prototypes from
+     * their factories and so are neither tracked nor drawn.</p>
+     *
+     * @param source GObject to copy.
+     * @return prototype.
+     */
+    @Override
+    public final E createPrototype(E source)
+    {
+        final E prototype = createIdentifiable();
+        prototype.copyFrom(source);
+
+        final Game.Resources resources = getResource();
+        final BodyComponent body = source.getBodyComponent();
+        if (body != null) {
+            prototype.setBodyComponent(resources.getBodyFactory().createPrototype(body));
+        }
+
+        final ImageComponent image = source.getImageComponent();
+        if (image != null) {
+            prototype.setImageComponent(resources.getImageFactory().createPrototype(image));
+        }
+
+        return prototype;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The destination receives new {@link BodyComponent} and {@link ImageComponent} copies of the source's, each
+     * requested from its own factory, in place of any it had.</p>
+     *
+     * @param source GObject to copy.
+     * @param destination GObject to copy to.
+     */
+    @Override
+    protected final void copyPrototype(E source, E destination)
+    {
+        // Parent is copied first so the new body mirrors it
+        destination.copyFrom(source);
+
+        final Game.Resources resources = getResource();
+        final BodyComponent body = source.getBodyComponent();
+        destination.setBodyComponent((body == null) ? null : resources.getBodyFactory().getCopyOf(body));
+
+        final ImageComponent image = source.getImageComponent();
+        destination.setImageComponent((image == null) ? null : resources.getImageFactory().getCopyOf(image));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The {@link BodyComponent}s and {@link ImageComponent}s the GObjects were configured with are removed from
+     * their factories as well, prewarming those pools too.</p>
+     *
+     * @param configName configuration name.
+     * @param count number of GObjects to pool.
+     */
+    @Override
+    public final void prewarm(String configName, int count)
+    {
+        final List<E> objects = new ArrayList<E>(count);
+        getMany(configName, count, objects);
+
+        final long[] handles = new long[count];
+        final long[] bodies = new long[count];
+        final long[] images = new long[count];
+        for (int i = 0; i < count; i++) {
+            final E object = objects.get(i);
+            final BodyComponent body = object.getBodyComponent();
+            final ImageComponent image = object.getImageComponent();
+
+            handles[i] = object.getHandle();
+            bodies[i] = (body == null) ? Handle.NULL : body.getHandle();
+            images[i] = (image == null) ? Handle.NULL : image.getHandle();
+        }
+
+        // GObjects release their components before the components are removed
+        removeMany(handles);
+
+        final Game.Resources resources = getResource();
+        resources.getBodyFactory().removeMany(bodies);
+        resources.getImageFactory().removeMany(images);
+    }
+
     @Override
     public final E get(int id, int version)
     {
@@ -61,12 +168,24 @@ public abstract class GObjectFactory<E extends GObject> extends IndexedFactory<E
         return super.get(id);
     }
 
+    @Override
+    public final E get(long handle)
+    {
+        return super.get(handle);
+    }
+
     @Override
     public final E remove(int id, int version)
     {
         return super.remove(id, version);
     }
 
+    @Override
+    public final E remove(long handle)
+    {
+        return super.remove(handle);
+    }
+
     @Override
     public final E remove(int id)
     {
@@ -75,6 +194,9 @@ public abstract class GObjectFactory<E extends GObject> extends IndexedFactory<E
             return null;
         }
 
+        // Let go of parent and children
+        mHierarchy.remove(obj);
+
         // Remove body and image
         obj.setBodyComponent(null);
         obj.setImageComponent(null);
@@ -82,6 +204,53 @@ public abstract class GObjectFactory<E extends GObject> extends IndexedFactory<E
         return obj;
     }
 
+    @Override
+    protected final void onClear()
+    {
+        mHierarchy.clear();
+    }
+
+    /**
+     * <p>Checks if the {@link ImageComponent}s of GObjects with a {@link BodyComponent} are only placed onto their
+     * bodies when drawn.</p>
+     *
+     * @return true if image synchronization is lazy.
+     */
+    public final boolean isImageSyncLazy()
+    {
+        return mImageSyncLazy;
+    }
+
+    /**
+     * <p>Sets whether the {@link ImageComponent}s of GObjects with a {@link BodyComponent} are only placed onto
+     * their bodies when drawn. When lazy, the body is the one source of a GObject's position and rotation: moving the
+     * GObject, or the {@link Solver} moving its body, leaves the image where it is except for depth, and
+     * {@link com.cinnamon.gfx.ImageFactory#syncToBodies(GObjectFactory, com.cinnamon.system.View)} places only the
+     * images that can be seen. Whoever draws should call it before drawing a frame and, when interpolating between
+     * ticks, before remembering each tick's starting transforms.</p>
+     *
+     * <p>Switching back to eager synchronization moves every image onto its body.</p>
+     *
+     * @param lazy true to place images only when drawn.
+     */
+    public final void setImageSyncLazy(boolean lazy)
+    {
+        mImageSyncLazy = lazy;
+        for (int i = 0, sz = size(); i < sz; i++) {
+            getAt(i).setImageDerived(lazy);
+        }
+    }
+
+    /**
+     * <p>Gets the {@link TransformHierarchy} through which GObjects are attached to follow others.</p>
+     *
+     * @return TransformHierarchy.
+     */
+    public final TransformHierarchy getHierarchy()
+    {
+        return mHierarchy;
+    }
+
     @Override
     public final Config<E, Game.Resources> getConfig(String name)
     {
@@ -1,12 +1,16 @@
 package com.cinnamon.object;
 
 import com.cinnamon.gfx.ImageComponent;
+import com.cinnamon.utils.Handle;
 import com.cinnamon.utils.OnRemoveListener;
+import com.cinnamon.utils.PoolStats;
 import com.cinnamon.utils.Shape;
 import com.cinnamon.utils.Vector2F;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * <p>
@@ -190,6 +194,20 @@ public final class IterativeSolver extends Solver
     // Vector for friction impulse
     private final Vector2F mFriction = new Vector2F();
 
+    /**
+     * Bodies gathered for integration
+     */
+
+    // Bodies to move; non-kinematic from the front, kinematic from the back
+    private BodyComponent[] mMoving = new BodyComponent[0];
+
+    // Each moving body's slot in the shared BodyStore, if packed; index = position in mMoving
+    private int[] mMovingSlots = new int[0];
+
+    // How far each moving body moves this update; index = position in mMoving
+    private float[] mMoveX = new float[0];
+    private float[] mMoveY = new float[0];
+
     /**
      * Spacial partitioning trees and list for querying them
      */
@@ -206,6 +224,9 @@ public final class IterativeSolver extends Solver
     // Stores collision data during collision detection
     private final BodyComponent.Manifold mManifold = new BodyComponent.Manifold();
 
+    // Candidate pairs from the BoundingTrees awaiting fine-grain testing
+    private final NarrowPhase mNarrowPhase = new NarrowPhase();
+
     /**
      * Contacts retaining info on collisions
      */
@@ -213,6 +234,20 @@ public final class IterativeSolver extends Solver
     // Tracks SIContacts between colliding bodies
     private final ContactGraph<SIContact> mGraph = new SIContactGraph();
 
+    // Maximum number of contact points with their own accumulated impulses
+    private static final int MAX_CONTACT_POINTS = 2;
+
+    // Bytes per Contact in writeState(): both bodies' ids and versions, persistence, point count, and each point's
+    // feature id and accumulated impulses
+    private static final int CONTACT_STATE_BYTES = (4 * 4) + 4 + 4 + (MAX_CONTACT_POINTS * 4 * 3);
+
+    // Accumulated impulses matched to a Contact's new points while the old are still being read
+    private final float[] mMatchedSeparations = new float[MAX_CONTACT_POINTS];
+    private final float[] mMatchedFrictions = new float[MAX_CONTACT_POINTS];
+
+    // Tracks overlaps involving sensors, which never get SIContacts
+    private final OverlapTracker mOverlaps = new OverlapTracker();
+
     /**
      * <p>Constructs an IterativeSolver.</p>
      *
@@ -297,23 +332,60 @@ public final class IterativeSolver extends Solver
     @Override
     public void update(GObjectFactory objectFactory, BodyFactory bodyFactory)
     {
-        // Make sure all bodies are properly spatially partitioned
+        // Null unless measuring phases
+        final SolverProfiler profiler = getProfiler();
+        if (profiler != null) {
+            profiler.begin();
+        }
+
+        // Find where regions are this update then make sure all bodies are properly spatially partitioned
+        getRegions().resolve(objectFactory);
         ensureSpacialPartitioning(bodyFactory);
+        if (profiler != null) {
+            profiler.lap(SolverProfiler.PHASE_PARTITION);
+        }
 
         // Detect collisions and SIContacts
-        searchForContacts(objectFactory, bodyFactory);
+        mOverlaps.begin();
+        searchForContacts(bodyFactory);
+        mOverlaps.end(getOnOverlapListener());
+        if (profiler != null) {
+            profiler.lap(SolverProfiler.PHASE_CONTACT_SEARCH);
+        }
 
         // Remove SIContacts from previous update whose bodies are now separated
         mGraph.removeInvalidContacts();
 
+        // Solve in body order rather than the order Contacts happened to be found
+        if (isDeterministic()) {
+            mGraph.sortContacts();
+        }
+        if (profiler != null) {
+            profiler.lap(SolverProfiler.PHASE_INVALID_REMOVAL);
+        }
+
         // Apply impulses carried over from previous update
         warmstart();
+        if (profiler != null) {
+            profiler.lap(SolverProfiler.PHASE_WARMSTART);
+        }
 
         // Attempt to separate all SIContacts
         solve();
+        if (profiler != null) {
+            profiler.lap(SolverProfiler.PHASE_SOLVE);
+        }
 
         // Move all bodies according to their velocities
         moveAll(objectFactory, bodyFactory);
+        if (profiler != null) {
+            profiler.lap(SolverProfiler.PHASE_MOVE);
+
+            // Record graph state and finish update's measurements
+            profiler.count(SolverProfiler.COUNTER_CONTACTS, mGraph.getContactCount());
+            profiler.count(SolverProfiler.COUNTER_ISLANDS, mGraph.getComponentCount());
+            profiler.end();
+        }
     }
 
     /**
@@ -330,7 +402,7 @@ public final class IterativeSolver extends Solver
         for (SIContact contact : mGraph.getContacts()) {
 
             // Apply accumulated separation and friction impulses from previous update
-            contact.warm(mVelocityA, mVelocityB, mFriction);
+            contact.warm(mVelocityB, mFriction);
         }
     }
 
@@ -340,67 +412,109 @@ public final class IterativeSolver extends Solver
      *
      * <p>This method also limits the speed of all bodies to {@link Solver#MAX_SPEED}.</p>
      *
+     * <p>Bodies to move are gathered first. If the {@link BodyFactory} is packed, speeds are then limited and
+     * velocities integrated as single loops over the shared {@link BodyStore}'s arrays before any body is moved.</p>
+     *
      * @param objectFactory game object lookup.
      * @param bodyFactory body lookup.
      */
     private void moveAll(GObjectFactory objectFactory, BodyFactory bodyFactory)
     {
-        // Move all bodies and synchronize positions with their GObjects
-        for (int id = 0, i = 0, sz = bodyFactory.size(); i < sz; id++) {
-            final BodyComponent body = bodyFactory.get(id);
+        // Tallies for profiling
+        int awake = 0;
+        int sleeping = 0;
 
-            // Skip unused id
-            if (body == null) {
-                continue;
-            } else {
-                // Count active id towards expected body count
-                i++;
-            }
+        final int sz = bodyFactory.size();
+        ensureMovingCapacity(sz);
+
+        // Ends of the non-kinematic and kinematic ranges in mMoving
+        int dynamicEnd = 0;
+        int kinematicBegin = sz;
+
+        // Gather bodies to move
+        for (int i = 0; i < sz; i++) {
+            final BodyComponent body = bodyFactory.getAt(i);
 
             // Tint body according to sleep status
-            if (mSleepOptim) {
+            if (mSleepOptim && !isSyncDeferred()) {
                 debugColorizeSleep(objectFactory, body);
             }
 
+            // Frozen bodies are neither moved nor synchronized
+            if (body.isFrozen()) {
+                continue;
+            }
+
             // Static and sleeping bodies shouldn't be moved
             if (!isDynamic(body)) {
+                if (body.isSleeping()) {
+                    sleeping++;
+                }
                 continue;
             }
 
-            // Keep speed from getting too high
-            limitSpeed(body);
-
-            // Move body
-            integrate(body);
+            awake++;
 
-            // Synchronize position with GObject (and therefore other Components)
-            final GObject obj = objectFactory.get(body.getGObjectId());
-            obj.moveToCenter(body.getCenterX(), body.getCenterY());
+            if (body.isKinematic()) {
+                kinematicBegin--;
+                mMoving[kinematicBegin] = body;
+                mMovingSlots[kinematicBegin] = body.getSlot();
+            } else {
+                mMoving[dynamicEnd] = body;
+                mMovingSlots[dynamicEnd] = body.getSlot();
+                dynamicEnd++;
+            }
         }
-    }
 
-    private void debugColorizeSleep(GObjectFactory factory, BodyComponent body)
-    {
-        // Bail out if no coloring wanted
-        if (!mColorizeSleep) {
-            return;
+        // Keep speed from getting too high then compute how far each body moves
+        final BodyStore store = bodyFactory.getStore();
+        if (store != null) {
+            integrate(store, 0, dynamicEnd, kinematicBegin, sz);
+        } else {
+            for (int i = 0; i < dynamicEnd; i++) {
+                limitSpeed(mMoving[i]);
+                integrate(i);
+            }
+            for (int i = kinematicBegin; i < sz; i++) {
+                limitSpeed(mMoving[i]);
+                integrateKinematic(i);
+            }
         }
 
-        // Get ImageComponent representing the body
-        final ImageComponent img = factory.get(body.getGObjectId()).getImageComponent();
+        // Move bodies
+        for (int i = 0; i < dynamicEnd; i++) {
+            moveGathered(objectFactory, i);
+        }
+        for (int i = kinematicBegin; i < sz; i++) {
+            moveGathered(objectFactory, i);
+        }
 
-        // Color static
-        if (body.isStatic()) {
-            img.setTint(STATIC_R, STATIC_G, STATIC_B);
+        final SolverProfiler profiler = getProfiler();
+        if (profiler != null) {
+            profiler.count(SolverProfiler.COUNTER_AWAKE_BODIES, awake);
+            profiler.count(SolverProfiler.COUNTER_SLEEPING_BODIES, sleeping);
+        }
+    }
 
-        } else if (body.isSleeping()) {
-            // Color sleeping
-            img.setTint(SLEEP_R, SLEEP_G, SLEEP_B);
+    /**
+     * <p>Limits speeds to {@link Solver#MAX_SPEED} then integrates velocities for ranges of gathered bodies sharing
+     * a {@link BodyStore}. Non-kinematic bodies use a velocity verlet scheme while kinematic bodies move by their
+     * velocity alone.</p>
+     *
+     * @param store store holding the bodies' quantities.
+     * @param dynamicBegin position in mMoving of the first non-kinematic body.
+     * @param dynamicEnd position in mMoving after the last non-kinematic body.
+     * @param kinematicBegin position in mMoving of the first kinematic body.
+     * @param kinematicEnd position in mMoving after the last kinematic body.
+     */
+    private void integrate(BodyStore store, int dynamicBegin, int dynamicEnd, int kinematicBegin, int kinematicEnd)
+    {
+        store.limitSpeeds(mMovingSlots, dynamicBegin, dynamicEnd, Solver.MAX_SPEED);
+        store.integrate(mMovingSlots, dynamicBegin, dynamicEnd, getTimestep(), mGravity.getX(), mGravity.getY(),
+                mMoveX, mMoveY);
 
-        } else {
-            // Color awake
-            img.setTint(WAKE_R, WAKE_G, WAKE_B);
-        }
+        store.limitSpeeds(mMovingSlots, kinematicBegin, kinematicEnd, Solver.MAX_SPEED);
+        store.integrateKinematic(mMovingSlots, kinematicBegin, kinematicEnd, getTimestep(), mMoveX, mMoveY);
     }
 
     /**
@@ -419,19 +533,21 @@ public final class IterativeSolver extends Solver
             mVelocityA.multiply(Solver.MAX_SPEED);
 
             // Apply
-            body.setVelocity(mVelocityA);
+            body.applyVelocity(mVelocityA);
         }
     }
 
     /**
-     * <p>Integrates a {@link BodyComponent}'s velocities to move the body's position accordingly.</p>
+     * <p>Integrates a gathered {@link BodyComponent}'s velocities to find how far the body moves.</p>
      *
      * <p>This method uses a velocity verlet scheme.</p>
      *
-     * @param body body to move.
+     * @param position position in mMoving.
      */
-    private void integrate(BodyComponent body)
+    private void integrate(int position)
     {
+        final BodyComponent body = mMoving[position];
+
         // Scale working copy of velocity to timestep
         body.getVelocity(mVelocityA);
         mVelocityA.multiply(getTimestep());
@@ -441,8 +557,9 @@ public final class IterativeSolver extends Solver
         mVelocityB.multiply(getTimestep() / 2f);
         mVelocityA.add(mVelocityB);
 
-        // Move body according to scaled velocity
-        body.moveBy(mVelocityA.getX(), mVelocityA.getY());
+        // Body moves according to scaled velocity
+        mMoveX[position] = mVelocityA.getX();
+        mMoveY[position] = mVelocityA.getY();
 
         // Compute velocity for next update (add gravity then previous accel)
         body.getAcceleration(mImpulse);
@@ -456,6 +573,99 @@ public final class IterativeSolver extends Solver
         body.updateVelocity(mVelocityA);
     }
 
+    /**
+     * <p>Finds how far a gathered kinematic {@link BodyComponent} moves by its velocity alone. Neither gravity nor
+     * acceleration are applied.</p>
+     *
+     * @param position position in mMoving.
+     */
+    private void integrateKinematic(int position)
+    {
+        mMoving[position].getVelocity(mVelocityA);
+        mVelocityA.multiply(getTimestep());
+        mMoveX[position] = mVelocityA.getX();
+        mMoveY[position] = mVelocityA.getY();
+    }
+
+    /**
+     * <p>Moves a gathered body by its integrated displacement and synchronizes its {@link GObject}.</p>
+     *
+     * @param objectFactory game object lookup.
+     * @param position position in mMoving.
+     */
+    private void moveGathered(GObjectFactory objectFactory, int position)
+    {
+        final BodyComponent body = mMoving[position];
+        mMoving[position] = null;
+        body.moveBy(mMoveX[position], mMoveY[position]);
+
+        // Synchronize position with GObject (and therefore other Components) unless left for later
+        if (!isSyncDeferred()) {
+            final GObject obj = objectFactory.get(body.getGObjectId());
+            obj.followBody();
+        }
+    }
+
+    /**
+     * <p>Makes sure there's room to gather every body for integration.</p>
+     *
+     * @param count number of bodies.
+     */
+    private void ensureMovingCapacity(int count)
+    {
+        if (count <= mMoving.length) {
+            return;
+        }
+
+        mMoving = new BodyComponent[count];
+        mMovingSlots = new int[count];
+        mMoveX = new float[count];
+        mMoveY = new float[count];
+    }
+
+    @Override
+    public void synchronize(GObjectFactory objectFactory, BodyFactory bodyFactory)
+    {
+        super.synchronize(objectFactory, bodyFactory);
+
+        // Tint left for synchronization when deferred
+        if (!mSleepOptim || !mColorizeSleep) {
+            return;
+        }
+
+        for (int i = 0, sz = bodyFactory.size(); i < sz; i++) {
+            final BodyComponent body = bodyFactory.getAt(i);
+
+            if (!body.isOrphan()) {
+                debugColorizeSleep(objectFactory, body);
+            }
+        }
+    }
+
+    private void debugColorizeSleep(GObjectFactory factory, BodyComponent body)
+    {
+        // Bail out if no coloring wanted
+        if (!mColorizeSleep) {
+            return;
+        }
+
+        // Get ImageComponent representing the body
+        final ImageComponent img = factory.get(body.getGObjectId()).getImageComponent();
+
+        // Color static and kinematic
+        if (body.isStatic() || body.isKinematic()) {
+            img.setTint(STATIC_R, STATIC_G, STATIC_B);
+
+        } else if (body.isSleeping()) {
+            // Color sleeping
+            img.setTint(SLEEP_R, SLEEP_G, SLEEP_B);
+
+        } else {
+            // Color awake
+            img.setTint(WAKE_R, WAKE_G, WAKE_B);
+        }
+    }
+
     /**
      * <p>Attempts to solve all active {@link SIContact}s by applying separation and friction impulses iteratively,
      * terminating after {@link #mIterations}.</p>
@@ -472,8 +682,13 @@ public final class IterativeSolver extends Solver
         // Precompute velocity bias
         for (SIContact contact : mGraph.getContacts()) {
 
-            // Precompute velocity bias
-            contact.setSeparationBias(computeSeparationBias(contact));
+            // Pick up mass changes, such as from kinematic toggling
+            contact.updateInverseSystemMass();
+
+            // Precompute velocity bias for each contact point
+            for (int p = 0, count = contact.getPointCount(); p < count; p++) {
+                contact.setSeparationBias(p, computeSeparationBias(contact, p));
+            }
         }
 
         // Apply friction then separation impulses iteratively
@@ -497,24 +712,167 @@ public final class IterativeSolver extends Solver
     }
 
     /**
-     * <p>Groups {@link BodyComponent} in the {@link ContactGraph} and places groups to sleep if they're deemed slow
-     * enough and their speed has not changed too much since the last frame update. Sleeping bodies skip physics
-     * computations and do not move.</p>
+     * <p>Groups {@link BodyComponent} in the {@link ContactGraph} and places groups to sleep once they've been slow
+     * enough, with speeds not changing too much between updates, for at least {@link #getTimeToSleep()} seconds.
+     * Sleeping bodies skip physics computations and do not move until touched by an awake body or given a new
+     * velocity or impulse.</p>
      */
     private void optimizeWithSleep()
     {
-        // Wake/sleep components
-        for (int component = 0, sz = mGraph.getComponentCount(); component < sz; component++) {
+        mGraph.updateSleep(getTimestep());
+    }
+
+    /**
+     * <p>Gets the number of seconds a group of touching {@link BodyComponent}s must remain slow before being put to
+     * sleep.</p>
+     *
+     * @return seconds.
+     */
+    public float getTimeToSleep()
+    {
+        return mGraph.getTimeToSleep();
+    }
 
-            // Put component to sleep if should be sleeping
-            if (mGraph.isSleepEligible(component)) {
-                mGraph.sleep(component);
+    /**
+     * <p>Sets the number of seconds a group of touching {@link BodyComponent}s must remain slow before being put to
+     * sleep.</p>
+     *
+     * @param seconds seconds.
+     * @throws IllegalArgumentException if seconds < 0.
+     */
+    public void setTimeToSleep(float seconds)
+    {
+        mGraph.setTimeToSleep(seconds);
+    }
 
-            } else {
-                // Wake component if shouldn't be sleeping
-                mGraph.wake(component);
+    @Override
+    public void getPoolStats(List<PoolStats> stats)
+    {
+        mGraph.getPoolStats(stats);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The accumulated impulses of every {@link ContactGraph.Contact} are mixed in as well.</p>
+     */
+    @Override
+    public long hashState(BodyFactory factory)
+    {
+        long hash = super.hashState(factory);
+
+        for (int i = 0, count = mGraph.getContactCount(); i < count; i++) {
+            final SIContact contact = mGraph.getContactAt(i);
+            hash = hash(hash, contact.getBodyA().getId());
+            hash = hash(hash, contact.getBodyB().getId());
+
+            for (int p = 0; p < contact.mPointCount; p++) {
+                hash = hash(hash, contact.mFeatureIds[p]);
+                hash = hash(hash, Float.floatToRawIntBits(contact.mAccuSeparations[p]));
+                hash = hash(hash, Float.floatToRawIntBits(contact.mAccuFrictions[p]));
             }
         }
+
+        return hash;
+    }
+
+    /**
+     * <p>Gets the number of bytes {@link #writeState(BodyFactory, ByteBuffer)} would currently write.</p>
+     *
+     * @param factory body lookup.
+     * @return byte count.
+     */
+    public int getStateSize(BodyFactory factory)
+    {
+        return factory.getStateSize() + 4 + (mGraph.getContactCount() * CONTACT_STATE_BYTES);
+    }
+
+    /**
+     * <p>Writes the state of every {@link BodyComponent} (see {@link BodyFactory#writeState(ByteBuffer)}) followed by
+     * each {@link ContactGraph.Contact} and its accumulated impulses to a {@link ByteBuffer}. Together with {@link #readState(GObjectFactory, BodyFactory, ByteBuffer)}, this allows
+     * the simulation to be rolled back and stepped again.</p>
+     *
+     * <p>Neither method allocates, so a direct ByteBuffer of at least {@link #getStateSize(BodyFactory)} bytes can
+     * be written and read several times per tick. Both must be called between updates and not while a
+     * {@link com.cinnamon.system.PhysicsPipeline} is running one.</p>
+     *
+     * @param factory body lookup.
+     * @param buffer destination.
+     * @throws java.nio.BufferOverflowException if the buffer has less than getStateSize(BodyFactory) bytes
+     * remaining.
+     */
+    public void writeState(BodyFactory factory, ByteBuffer buffer)
+    {
+        factory.writeState(buffer);
+
+        final int count = mGraph.getContactCount();
+        buffer.putInt(count);
+
+        for (int i = 0; i < count; i++) {
+            final SIContact contact = mGraph.getContactAt(i);
+            final BodyComponent bodyA = contact.getBodyA();
+            final BodyComponent bodyB = contact.getBodyB();
+
+            buffer.putInt(bodyA.getId());
+            buffer.putInt(bodyA.getVersion());
+            buffer.putInt(bodyB.getId());
+            buffer.putInt(bodyB.getVersion());
+            buffer.putInt(contact.getPersistence());
+
+            // Every point slot is written to keep records a fixed size
+            buffer.putInt(contact.mPointCount);
+            for (int p = 0; p < MAX_CONTACT_POINTS; p++) {
+                buffer.putInt(contact.mFeatureIds[p]);
+                buffer.putFloat(contact.mAccuSeparations[p]);
+                buffer.putFloat(contact.mAccuFrictions[p]);
+            }
+        }
+    }
+
+    /**
+     * <p>Restores state written by {@link #writeState(BodyFactory, ByteBuffer)} and moves each {@link GObject} to its
+     * restored body through {@link #synchronize(GObjectFactory, BodyFactory)}.</p>
+     *
+     * <p>Every current {@link ContactGraph.Contact} is replaced by those recorded, in their recorded order and with
+     * their accumulated impulses, so pairs that have since separated warmstart as before. Contacts that began after
+     * the state was written are removed without being reported as ended. Only pairs involving a body removed since
+     * are lost.</p>
+     *
+     * @param objectFactory {@link GObject} lookup.
+     * @param bodyFactory body lookup.
+     * @param buffer source.
+     * @throws java.nio.BufferUnderflowException if the buffer ends before all written state is read.
+     */
+    public void readState(GObjectFactory objectFactory, BodyFactory bodyFactory, ByteBuffer buffer)
+    {
+        bodyFactory.readState(buffer);
+
+        // Rebuild Contacts from the record alone so none are kept in the wrong body order
+        mGraph.clearContacts();
+
+        final int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            final BodyComponent bodyA = bodyFactory.get(buffer.getInt(), buffer.getInt());
+            final BodyComponent bodyB = bodyFactory.get(buffer.getInt(), buffer.getInt());
+
+            // Either body gone or out of the graph means nothing to restore
+            if (bodyA == null || bodyB == null || !mGraph.contains(bodyA) || !mGraph.contains(bodyB)) {
+                buffer.position(buffer.position() + CONTACT_STATE_BYTES - (4 * 4));
+                continue;
+            }
+
+            final SIContact contact = mGraph.addContact(bodyA, bodyB);
+            contact.setPersistence(buffer.getInt());
+            contact.mPointCount = buffer.getInt();
+            for (int p = 0; p < MAX_CONTACT_POINTS; p++) {
+                contact.mFeatureIds[p] = buffer.getInt();
+                contact.mAccuSeparations[p] = buffer.getFloat();
+                contact.mAccuFrictions[p] = buffer.getFloat();
+            }
+        }
+
+        // Shapes were moved directly so GObjects and their images must catch up
+        synchronize(objectFactory, bodyFactory);
     }
 
     /**
@@ -522,7 +880,8 @@ public final class IterativeSolver extends Solver
      * {@link BodyComponent#setImpulse(Vector2F)} or {@link BodyComponent#addImpulse(Vector2F)} with the body's
      * velocity.</p>
      *
-     * <p>The impulse will be cleared and {@link BodyComponent#getImpulse()} will return a zero vector.</p>
+     * <p>The impulse will be cleared and {@link BodyComponent#getImpulse()} will return a zero vector. Kinematic
+     * bodies discard the impulse without changing velocity.</p>
      *
      * @param body body.
      */
@@ -535,18 +894,24 @@ public final class IterativeSolver extends Solver
             return;
         }
 
+        // Kinematic bodies are only moved by their velocity
+        if (body.isKinematic()) {
+            body.setImpulse(null);
+            return;
+        }
+
         // Clear externally set impulse
         body.setImpulse(null);
 
         // Sum and set new velocity
         body.getVelocity(mVelocityA);
         mVelocityA.add(mImpulse);
-        body.setVelocity(mVelocityA);
+        body.applyVelocity(mVelocityA);
     }
 
     /**
-     * <p>Computes the separation bias term to use when computing a separation impulse for a given {@link SIContact}
-     * .</p>
+     * <p>Computes the separation bias term to use when computing a separation impulse for a contact point of a given
+     * {@link SIContact}.</p>
      *
      * <p>This bias term can be thought of as a target velocity that should be aimed for when computing a separation
      * impulse.</p>
@@ -554,9 +919,10 @@ public final class IterativeSolver extends Solver
      * <p>This method mostly follows Box2D's constraint initialization.</p>
      *
      * @param contact contact.
+     * @param point contact point index.
      * @return bias.
      */
-    private float computeSeparationBias(SIContact contact)
+    private float computeSeparationBias(SIContact contact, int point)
     {
         // Get collision normal
         final BodyComponent.Manifold manifold = contact.getManifold();
@@ -572,7 +938,7 @@ public final class IterativeSolver extends Solver
         if (relativeSpeed < -MIN_COLLISION_SPEED) {
 
             // Compute baumgarte stabilizing term
-            final float penetration = manifold.getPenetrationDepthAt(0);
+            final float penetration = manifold.getPenetrationDepthAt(point);
             final float baumgarte = (BAUMGARTE * Math.max(penetration - PENETRATION_SLOP, 0f));
 
             // Compute fraction of separating speed by mixing restitutions
@@ -593,6 +959,8 @@ public final class IterativeSolver extends Solver
      * <p>Applies an impulse along a vector perpendicular to the collision normal, in the opposite direction of the
      * velocity along the perpendicular in order to simulate friction.</p>
      *
+     * <p>Each contact point is solved in turn with its own accumulated impulse.</p>
+     *
      * <p>This method follows Box2D's tangent impulse computations.</p>
      *
      * @param contact SIContact.
@@ -603,32 +971,37 @@ public final class IterativeSolver extends Solver
         final BodyComponent bodyA = contact.getBodyA();
         final BodyComponent bodyB = contact.getBodyB();
         final BodyComponent.Manifold manifold = contact.getManifold();
+        final float coefficient = bodyA.getFriction() * bodyB.getFriction();
 
-        // Get vector perpendicular to collision normal for friction's direction
-        manifold.getCollisionNormal(mFriction);
-        mFriction.normal(false);
+        for (int p = 0, count = contact.getPointCount(); p < count; p++) {
 
-        // Compute initial friction magnitude along friction's direction
-        final Vector2F relativeVelocity = getRelativeVelocity(bodyA, bodyB);
-        float friction = -(relativeVelocity.dotProduct(mFriction)) * contact.getInverseSystemMass() * FRICTION_DAMPING;
+            // Get vector perpendicular to collision normal for friction's direction
+            manifold.getCollisionNormal(mFriction);
+            mFriction.normal(false);
 
-        // Accumulate friction impulse for warmstarting while clamping to Coloumb friction
-        friction = accumulateFriction(contact, friction, bodyA.getFriction() * bodyB.getFriction());
+            // Compute initial friction magnitude along friction's direction
+            final Vector2F relativeVelocity = getRelativeVelocity(bodyA, bodyB);
+            float friction = -(relativeVelocity.dotProduct(mFriction)) * contact.getInverseSystemMass()
+                    * FRICTION_DAMPING;
 
-        // Compute friction impulse distributed over mass then apply to body A
-        mFriction.multiply(friction * bodyA.getInverseMass());
-        addImpulse(bodyA, mVelocityA, mFriction);
+            // Accumulate friction impulse for warmstarting while clamping to Coloumb friction
+            friction = accumulateFriction(contact, p, friction, coefficient);
 
-        // Only movable bodies should receive a friction impulse
-        if (!bodyB.isStatic()) {
+            // Compute friction impulse distributed over mass then apply to body A
+            mFriction.multiply(friction * bodyA.getInverseMass());
+            addImpulse(bodyA, mFriction);
 
-            // Get friction's direction for body B
-            manifold.getCollisionNormal(mFriction);
-            mFriction.normal(true);
+            // Only movable bodies should receive a friction impulse
+            if (!bodyB.isStatic()) {
+
+                // Get friction's direction for body B
+                manifold.getCollisionNormal(mFriction);
+                mFriction.normal(true);
 
-            // Scale friction down by body B's mass then apply to body B
-            mFriction.multiply(friction * bodyB.getInverseMass());
-            addImpulse(bodyB, mVelocityB, mFriction);
+                // Scale friction down by body B's mass then apply to body B
+                mFriction.multiply(friction * bodyB.getInverseMass());
+                addImpulse(bodyB, mFriction);
+            }
         }
     }
 
@@ -636,6 +1009,8 @@ public final class IterativeSolver extends Solver
      * <p>Creates and imparts an impulse on both {@link BodyComponent}s in opposite directions according to a
      * collision normal.</p>
      *
+     * <p>Each contact point is solved in turn with its own accumulated impulse and velocity bias.</p>
+     *
      * <p>This method follows Box2D's separating impulse computations.</p>
      *
      * @param contact SIContact to separate.
@@ -650,37 +1025,41 @@ public final class IterativeSolver extends Solver
         // Static bodies aren't checked for collisions (only against) so body A is never static
         assert (!bodyA.isStatic());
 
-        // Compute relative velocity in regards to body A
-        final Vector2F relativeV = getRelativeVelocity(bodyA, bodyB);
+        final float totalInverseMass = contact.getInverseSystemMass();
 
-        // Get collision normal
-        manifold.getCollisionNormal(mCollisionNormal);
-        mCollisionNormal.negate();
+        for (int p = 0, count = contact.getPointCount(); p < count; p++) {
 
-        // Compute a portion of the impulse needed to separate the bodies
-        final float totalInverseMass = contact.getInverseSystemMass();
-        final float separatingSpeed = relativeV.dotProduct(mCollisionNormal);
-        final float bias = contact.getBias();
-        float impulse = -totalInverseMass * (separatingSpeed - bias);
+            // Compute relative velocity in regards to body A
+            final Vector2F relativeV = getRelativeVelocity(bodyA, bodyB);
 
-        // Add impulse to accumulation and use impulse computed from accumulation
-        impulse = accumulateSeparation(contact, impulse);
+            // Get collision normal
+            manifold.getCollisionNormal(mCollisionNormal);
+            mCollisionNormal.negate();
 
-        // Scale down impulse for body A according to its mass
-        mCollisionNormal.multiply(impulse * bodyA.getInverseMass());
+            // Compute a portion of the impulse needed to separate the bodies
+            final float separatingSpeed = relativeV.dotProduct(mCollisionNormal);
+            final float bias = contact.getBias(p);
+            float impulse = -totalInverseMass * (separatingSpeed - bias);
 
-        // Apply impulse to body A
-        addImpulse(bodyA, mVelocityA, mCollisionNormal);
+            // Add impulse to accumulation and use impulse computed from accumulation
+            impulse = accumulateSeparation(contact, p, impulse);
 
-        // Only apply an impulse to body B if it's movable
-        if (!bodyB.isStatic()) {
+            // Scale down impulse for body A according to its mass
+            mCollisionNormal.multiply(impulse * bodyA.getInverseMass());
 
-            // Distribute impulse over body B's mass
-            manifold.getCollisionNormal(mCollisionNormal);
-            mCollisionNormal.multiply(impulse * bodyB.getInverseMass());
+            // Apply impulse to body A
+            addImpulse(bodyA, mCollisionNormal);
+
+            // Only apply an impulse to body B if it's movable
+            if (!bodyB.isStatic()) {
 
-            // Apply impulse to body B
-            addImpulse(bodyB, mVelocityB, mCollisionNormal);
+                // Distribute impulse over body B's mass
+                manifold.getCollisionNormal(mCollisionNormal);
+                mCollisionNormal.multiply(impulse * bodyB.getInverseMass());
+
+                // Apply impulse to body B
+                addImpulse(bodyB, mCollisionNormal);
+            }
         }
     }
 
@@ -707,47 +1086,44 @@ public final class IterativeSolver extends Solver
      * combined at a later time.</p>
      *
      * @param body body.
-     * @param container vector for computations.
      * @param impulse impulse to add.
      */
-    private void addImpulse(BodyComponent body, Vector2F container, Vector2F impulse)
+    private void addImpulse(BodyComponent body, Vector2F impulse)
     {
-        // Combine velocity vectors and set new velocity
-        body.getVelocity(container);
-        container.add(impulse);
-        body.setVelocity(container);
+        body.addVelocity(impulse.getX(), impulse.getY());
     }
 
     /**
-     * <p>Adds the friction impulse to the {@link SIContact}'s accumulation while keeping the accumulation within a
+     * <p>Adds the friction impulse to a contact point's accumulation while keeping the accumulation within a
      * range defined by the given friction coefficient and returns the impulse that should actually be used when
      * applying friction to a body.</p>
      *
      * <p>This method follows Box2D's impulse clamping and accumulation scheme.</p>
      *
      * @param contact SIContact.
+     * @param point contact point index.
      * @param impulse friction impulse magnitude.
      * @param coefficient friction coefficient between both surfaces.
      * @return friction impulse to use instead.
      */
-    private float accumulateFriction(SIContact contact, float impulse, float coefficient)
+    private float accumulateFriction(SIContact contact, int point, float impulse, float coefficient)
     {
         // Compute accumulated friction impulse
-        final float accumulated = contact.getAccumulatedFriction();
+        final float accumulated = contact.getAccumulatedFriction(point);
         final float newAccumulation = accumulated + impulse;
 
         // Compute fraction of separation impulse as min/max (using coefficient of friction)
-        final float cofSep = contact.getAccumulatedSeparation() * coefficient * FRICTION_DAMPING;
+        final float cofSep = contact.getAccumulatedSeparation(point) * coefficient * FRICTION_DAMPING;
 
         // Make sure sum of all friction impulses obeys Coloumb friction
-        contact.setAccumulatedFriction(Math.max(Math.min(newAccumulation, cofSep), -cofSep));
+        contact.setAccumulatedFriction(point, Math.max(Math.min(newAccumulation, cofSep), -cofSep));
 
         // Return new impulse to use (this differs from given impulse if accumulated's clamped)
-        return contact.getAccumulatedFriction() - accumulated;
+        return contact.getAccumulatedFriction(point) - accumulated;
     }
 
     /**
-     * <p>Adds the magnitude of the separation impulse to the given {@link SIContact}'s accumulation and returns
+     * <p>Adds the magnitude of the separation impulse to a contact point's accumulation and returns
      * the impulse to replace the magnitude passed as argument.</p>
      *
      * <p>The returned separation magnitude is only different than the magnitude passed in as an argument if the
@@ -756,45 +1132,45 @@ public final class IterativeSolver extends Solver
      * <p>This method follows Box2D's impulse clamping and accumulation scheme.</p>
      *
      * @param contact SIContact.
+     * @param point contact point index.
      * @param separation impulse magnitude.
      * @return new separation impulse magnitude
      */
-    private float accumulateSeparation(SIContact contact, float separation)
+    private float accumulateSeparation(SIContact contact, int point, float separation)
     {
-        final float accumulated = contact.getAccumulatedSeparation();
+        final float accumulated = contact.getAccumulatedSeparation(point);
 
         // Make sure sum of all impulses is never negative
-        contact.setAccumulatedSeparation(Math.max(accumulated + separation, 0f));
+        contact.setAccumulatedSeparation(point, Math.max(accumulated + separation, 0f));
 
         // Return new impulse to use (this differs from given impulse if accumulated's clamped)
-        return contact.getAccumulatedSeparation() - accumulated;
+        return contact.getAccumulatedSeparation(point) - accumulated;
     }
 
     /**
      * <p>Examines each non-static {@link BodyComponent} for collisions against all other BodyComponents, whether static
      * or non-static, and saves the collision as a {@link SIContact} in the {@link ContactGraph}.</p>
      *
-     * <p>The process for each body consists of two phases: bounding box collision detection and finer {@link Shape}
-     * based collision detection. {@link BoundingTree}s are first queried for bounding box collisions before
-     * scrutinizing each such collision with the detection routine implemented in
-     * {@link BodyComponent#collidesWith(BodyComponent, BodyComponent.Manifold)}. Bodies found to collide after this
-     * second test obtain a {@link SIContact} or update a previously assigned one.</p>
+     * <p>The process consists of three phases. {@link BoundingTree}s are first queried for each body's bounding box
+     * collisions, each of which is queued as a candidate pair. All pairs are then tested together with the finer
+     * {@link Shape} based detection routine, in parallel if a pool was set with
+     * {@link #setNarrowPhasePool(ForkJoinPool)}. Finally, results are applied in the order pairs were queued so bodies
+     * found to collide obtain a {@link SIContact} or update a previously assigned one the same way regardless of
+     * threading.</p>
      *
-     * @param objectFactory GObject lookup.
      * @param factory body lookup.
      */
-    private void searchForContacts(GObjectFactory objectFactory, BodyFactory factory)
+    private void searchForContacts(BodyFactory factory)
     {
+        mNarrowPhase.clear();
+
         // Examine each body for a collision with another
-        for (int id = 0, i = 0, sz = factory.size(); i < sz; id++) {
-            final BodyComponent body = factory.get(id);
+        for (int i = 0, sz = factory.size(); i < sz; i++) {
+            final BodyComponent body = factory.getAt(i);
 
-            // Skip unused ids
-            if (body == null) {
+            // Frozen bodies keep their impulses until thawed
+            if (body.isFrozen()) {
                 continue;
-            } else {
-                // Count valid body to be processed
-                i++;
             }
 
             // Sum external impulses added with body.addImpulse(Vector2F) to velocity
@@ -806,33 +1182,63 @@ public final class IterativeSolver extends Solver
             }
 
             // Perform collision detection against static bodies
-            searchTreeForCollisions(objectFactory, mStaticTree, body);
+            searchTreeForCollisions(mStaticTree, body);
 
             // Perform collision detection against dynamic bodies
-            searchTreeForCollisions(objectFactory, mDynamicTree, body);
+            searchTreeForCollisions(mDynamicTree, body);
+        }
+
+        // Test all candidate pairs
+        mNarrowPhase.test();
+
+        final SolverProfiler profiler = getProfiler();
+        if (profiler != null) {
+            profiler.count(SolverProfiler.COUNTER_NARROW_TESTS, mNarrowPhase.size());
+        }
+
+        // Update the ContactGraph with each pair's result, in order
+        for (int i = 0, sz = mNarrowPhase.size(); i < sz; i++) {
+            applyNarrowPhaseResult(mNarrowPhase.getBody(i), mNarrowPhase.getOther(i), mNarrowPhase.isColliding(i),
+                    mNarrowPhase.getManifold(i));
         }
     }
 
     /**
-     * <p>Performs collision detection between the given {@link BodyComponent} and other bodies in its vicinity as
-     * organized by the given {@link BoundingTree}.</p>
+     * <p>Gets the {@link ForkJoinPool} candidate pairs are tested on during collision detection.</p>
      *
-     * <p>If two bodies are found to be colliding, a {@link SIContact} is assigned for the pair in the
-     * {@link ContactGraph}.</p>
+     * @return pool, or null if pairs are tested on the updating thread.
+     */
+    public ForkJoinPool getNarrowPhasePool()
+    {
+        return mNarrowPhase.getPool();
+    }
+
+    /**
+     * <p>Sets a {@link ForkJoinPool} to test candidate pairs on in parallel during collision detection. Contacts
+     * are still created, updated, and removed on the updating thread in a fixed order so results don't depend on the
+     * number of threads. Small numbers of pairs are always tested on the updating thread.</p>
      *
-     * <p>If a colliding pair of bodies is found to already have an associated Contact, the Contact's collision
-     * manifold is updated instead. In the case where a body pair is found to no longer collide, the Contact is removed
-     * .</p>
+     * @param pool pool, or null to test all pairs on the updating thread.
+     */
+    public void setNarrowPhasePool(ForkJoinPool pool)
+    {
+        mNarrowPhase.setPool(pool);
+    }
+
+    /**
+     * <p>Queues candidate pairs between the given {@link BodyComponent} and other bodies in its vicinity as
+     * organized by the given {@link BoundingTree} for fine-grain testing.</p>
      *
-     * <p>During a single {@link Solver} update, only one body of a Contact's body pair will process the Contact. For
-     * example, if a Contact was handled when the Contact's body B was being examined, the Contact will not be
-     * handled again when body A is examined, and vice-versa.</p>
+     * <p>Each pair is only queued once per update. A pair found by both bodies' searches is left to whichever body
+     * searches first.</p>
+     *
+     * <p>Bodies whose collision categories and masks reject each other are filtered out by the BoundingTree and
+     * never reach the narrow phase.</p>
      *
-     * @param factory GObject lookup.
      * @param tree BoundingTree for the body.
      * @param body body to examine.
      */
-    private void searchTreeForCollisions(GObjectFactory factory, BoundingTree tree, BodyComponent body)
+    private void searchTreeForCollisions(BoundingTree tree, BodyComponent body)
     {
         assert (!body.isStatic());
 
@@ -840,49 +1246,126 @@ public final class IterativeSolver extends Solver
         mCollisions.clear();
         tree.getCollisions(mCollisions, body);
 
-        // Test against all others whose bounding boxes collided with the body's
+        // Queue all others whose bounding boxes collided with the body's
         for (int x = 0, len = mCollisions.size(); x < len; x++) {
             final BodyComponent other = mCollisions.get(x);
 
             // Skip bodies requesting no collision
-            if (!other.isCollidable() || shouldIgnore(factory, body, other)) {
+            if (!other.isCollidable() || shouldIgnore(body, other)) {
+                continue;
+            }
+
+            // Skip pairs the body can't act on or which the other body queued during its own search
+            if (!isQueuedBy(body, other) || (isQueuedBy(other, body) && other.getId() < body.getId())) {
                 continue;
             }
 
-            // Test bodies' actual shapes for collision
-            final boolean collided = body.collidesWith(other, mManifold);
+            mNarrowPhase.add(body, other);
+        }
 
-            // Get Contact between both bodies
-            SIContact contact = mGraph.getContact(body, other);
+        final SolverProfiler profiler = getProfiler();
+        if (profiler != null) {
+            profiler.count(SolverProfiler.COUNTER_CANDIDATE_PAIRS, mCollisions.size());
+        }
+    }
 
-            // Don't process if body B body already handled Contact
-            if ((contact != null && contact.isHandled()) || mGraph.getContact(other, body) != null) {
-                continue;
+    /**
+     * <p>Checks if a searching {@link BodyComponent} queues its pair with another body for testing. Only searching
+     * bodies, those neither static nor non-collidable, queue pairs and kinematic bodies only queue pairs with
+     * sensors since they otherwise meet others through those others' searches.</p>
+     *
+     * @param searcher searching body.
+     * @param other body found by the search.
+     * @return true if the pair is queued by the searcher.
+     */
+    private boolean isQueuedBy(BodyComponent searcher, BodyComponent other)
+    {
+        if (!searcher.isCollidable() || searcher.isStatic()) {
+            return false;
+        }
+
+        return !searcher.isKinematic() || searcher.isSensor() || other.isSensor();
+    }
+
+    /**
+     * <p>Applies the fine-grain test result of a candidate pair. Pairs involving sensors are tracked as overlaps
+     * while other pairs have their {@link SIContact} added, updated, or removed.</p>
+     *
+     * <p>During a single {@link Solver} update, only one body of a Contact's body pair will process the Contact. For
+     * example, if a Contact was handled when the Contact's body B was being examined, the Contact will not be
+     * handled again when body A is examined, and vice-versa.</p>
+     *
+     * @param body searching body.
+     * @param other body found by the search.
+     * @param collided true if the bodies' Shapes intersect.
+     * @param manifold collision data from the searching body's point of view.
+     */
+    private void applyNarrowPhaseResult(BodyComponent body, BodyComponent other, boolean collided,
+                                        BodyComponent.Manifold manifold)
+    {
+        // Sensors only need to know whether they overlap
+        if (body.isSensor() || other.isSensor()) {
+            if (collided && !mOverlaps.isMarked(body, other)) {
+                mOverlaps.mark(body, other);
             }
+            return;
+        }
+
+        // Moving kinematic bodies push sleeping bodies awake
+        if (collided && other.isKinematic() && body.isSleeping() && other.getSpeed() > 0f) {
+            body.requestWake();
+        }
 
-            // Three cases to deal with
-            if (collided) {
+        // Get Contact between both bodies
+        SIContact contact = mGraph.getContact(body, other);
 
-                // Case 1: prior contact and still colliding
-                if (contact != null) {
-                    // Update with new collision data
-                    contact.setManifold(mManifold);
-                    contact.handle();
+        // Don't process if body B body already handled Contact
+        if ((contact != null && contact.isHandled()) || mGraph.getContact(other, body) != null) {
+            return;
+        }
 
-                } else {
-                    // Case 2: no prior contact but now colliding
-                    final SIContact con = mGraph.addContact(body, other);
+        // Three cases to deal with
+        if (collided) {
 
-                    // Update with new collision data and mark as processed
-                    con.setManifold(mManifold);
-                    con.handle();
-                }
+            // Case 1: prior contact and still colliding
+            if (contact != null) {
+                // Update with new collision data
+                contact.setManifold(manifold);
+                contact.handle();
+                record(ContactRecords.TYPE_PERSIST, body, other, manifold);
+
+            } else {
+                // Case 2: no prior contact but now colliding
+                final SIContact con = mGraph.addContact(body, other);
 
-                // Case 3: prior contact, bounding box collision, but not truly colliding
-            } else if (contact != null) {
-                // Remove Contact since bodies separated so no longer valid
-                mGraph.removeContact(body, other);
+                // Update with new collision data and mark as processed
+                con.setManifold(manifold);
+                con.handle();
+                record(ContactRecords.TYPE_BEGIN, body, other, manifold);
             }
+
+            // Case 3: prior contact, bounding box collision, but not truly colliding
+        } else if (contact != null) {
+            // Remove Contact since bodies separated so no longer valid
+            mGraph.removeContact(body, other);
+        }
+    }
+
+    /**
+     * <p>Records a pair of colliding {@link BodyComponent}s and their {@link BodyComponent.Manifold}'s collision
+     * normal, if contact recording is enabled.</p>
+     *
+     * @param type record type.
+     * @param bodyA body A.
+     * @param bodyB body B.
+     * @param manifold collision data.
+     */
+    private void record(int type, BodyComponent bodyA, BodyComponent bodyB, BodyComponent.Manifold manifold)
+    {
+        final ContactRecords records = getContactRecords();
+        if (records != null) {
+            manifold.getCollisionNormal(mCollisionNormal);
+            records.add(type, bodyA, bodyB, mCollisionNormal.getX(), mCollisionNormal.getY());
         }
     }
 
@@ -892,12 +1375,14 @@ public final class IterativeSolver extends Solver
      * body's {@link BodyComponent#isIgnoreParentEnabled()} returns true. This relationship is checked for in both
      * directions where the first body argument is the parent and vice versa.</p>
      *
-     * @param factory GObject lookup.
+     * <p>The parent's id and version are read from the copy kept by the ignoring body so no {@link GObject} lookup
+     * is needed.</p>
+     *
      * @param body body.
      * @param other other body.
      * @return true if one body's GObject is the parent of the other and the other wants collisions ignored.
      */
-    private boolean shouldIgnore(GObjectFactory factory, BodyComponent body, BodyComponent other)
+    private boolean shouldIgnore(BodyComponent body, BodyComponent other)
     {
         final BodyComponent ignoringBody;
         final BodyComponent bodyToIgnore;
@@ -915,12 +1400,9 @@ public final class IterativeSolver extends Solver
             bodyToIgnore = body;
         }
 
-        final GObject obj = factory.get(ignoringBody.getGObjectId());
-        final int parentId = obj.getParentId();
-        final int parentVer = obj.getParentVersion();
-
-        // Match other body's id to parent
-        return parentId == bodyToIgnore.getGObjectId() && parentVer == bodyToIgnore.getGObjectVersion();
+        // Match other body's owner to parent
+        final long parent = ignoringBody.getParentObject();
+        return parent != Handle.NULL && parent == bodyToIgnore.getOwnerHandle();
     }
 
     /**
@@ -931,30 +1413,30 @@ public final class IterativeSolver extends Solver
      */
     private void ensureSpacialPartitioning(BodyFactory factory)
     {
-        // Iterate through all bodies
-        for (int id = 0, i = 0, sz = factory.size(); i < sz; id++) {
-            final BodyComponent body = factory.get(id);
+        // Number of bodies reinserted into a tree and frozen for profiling
+        int rebuilds = 0;
+        int frozen = 0;
+
+        // Iterate through all bodies from the end so removing one only moves an already visited body
+        for (int i = factory.size() - 1; i >= 0; i--) {
+            final BodyComponent body = factory.getAt(i);
 
-            // Skip unused ids
-            if (body == null) {
+            if (body.isOrphan()) {
+                // Remove orphaned body; GraphRemoveSync drops it from the graph and trees
+                factory.remove(body.getId());
                 continue;
+            }
 
-            } else if (body.isOrphan()) {
-                // Remove orphaned body
-                factory.remove(id);
+            // Bodies outside every region leave the graph and trees until a region reaches them
+            body.setFrozen(getRegions().shouldFreeze(body));
+            if (body.isFrozen()) {
                 mGraph.remove(body);
                 updateSpacialPartitioning(body, true);
-
-                // Decrement expected body count
-                sz--;
+                frozen++;
                 continue;
-
-            } else {
-                // Bump processed counter
-                i++;
             }
 
-            if (body.isCollidable()) {
+            if (body.isCollidable() && !body.isSensor()) {
                 // Ensure body's in contact graph for tracking Contacts
                 mGraph.add(body);
             } else {
@@ -962,7 +1444,15 @@ public final class IterativeSolver extends Solver
             }
 
             // Make sure bounding box hierarchy is tracking the body
-            updateSpacialPartitioning(body, false);
+            if (updateSpacialPartitioning(body, false)) {
+                rebuilds++;
+            }
+        }
+
+        final SolverProfiler profiler = getProfiler();
+        if (profiler != null) {
+            profiler.count(SolverProfiler.COUNTER_TREE_REBUILDS, rebuilds);
+            profiler.count(SolverProfiler.COUNTER_FROZEN_BODIES, frozen);
         }
     }
 
@@ -974,14 +1464,15 @@ public final class IterativeSolver extends Solver
      *
      * @param body body.
      * @param remove true to remove the body from all spatial partitioning.
+     * @return true if the body was inserted into a tree or repositioned within one.
      */
-    private void updateSpacialPartitioning(BodyComponent body, boolean remove)
+    private boolean updateSpacialPartitioning(BodyComponent body, boolean remove)
     {
         // Remove from all spatial partitioning if requested
         if (remove) {
             mStaticTree.remove(body);
             mDynamicTree.remove(body);
-            return;
+            return false;
         }
 
         final BoundingTree preferred;
@@ -1000,10 +1491,11 @@ public final class IterativeSolver extends Solver
         if (preferred.add(body)) {
             // Successful add implies was in other tree before now
             other.remove(body);
+            return true;
 
         } else {
             // Add failure means was already there so just update position
-            preferred.update(body);
+            return preferred.update(body);
         }
     }
 
@@ -1023,19 +1515,31 @@ public final class IterativeSolver extends Solver
      *     SIContacts support, at least a portion of, the sequential impulses setup of the Box2D physics engine. This
      *     includes storing accumulated impulses for separation and friction as well as warmstarting through
      *     {@link #warm(Vector2F, Vector2F, Vector2F)} and a velocity bias term with
-     *     {@link #setSeparationBias(float)}.
+     *     {@link #setSeparationBias(int, float)}.
+     * </p>
+     *
+     * <p>
+     *     Accumulated impulses are kept per contact point. When the {@link BodyComponent.Manifold} is replaced, each
+     *     new point takes the impulses of the previous point with the same feature id, if any, so that warmstarting
+     *     only reuses impulses from the same pair of touching features.
      * </p>
      */
     private class SIContact extends ContactGraph.Contact
     {
-        // Sum of iterated separation impulses
-        private float mAccuSeparation = 0f;
+        // Number of contact points with accumulated impulses
+        private int mPointCount = 0;
 
-        // Sum of iterated friction impulses
-        private float mAccuFriction = 0f;
+        // Feature id of each contact point
+        private final int[] mFeatureIds = new int[MAX_CONTACT_POINTS];
 
-        // Velocity bias used during solve iterations
-        private float mSepBias = 0f;
+        // Sum of iterated separation impulses per contact point
+        private final float[] mAccuSeparations = new float[MAX_CONTACT_POINTS];
+
+        // Sum of iterated friction impulses per contact point
+        private final float[] mAccuFrictions = new float[MAX_CONTACT_POINTS];
+
+        // Velocity bias used during solve iterations per contact point
+        private final float[] mSepBiases = new float[MAX_CONTACT_POINTS];
 
         // Inverse of system's inverse mass; 1 / ((1 / ma) + (1 / mb))
         private float mInvSysMass = 0f;
@@ -1043,7 +1547,58 @@ public final class IterativeSolver extends Solver
         @Override
         protected void onBodiesSet(BodyComponent bodyA, BodyComponent bodyB)
         {
-            mInvSysMass = 1f / (bodyA.getInverseMass() + bodyB.getInverseMass());
+            updateInverseSystemMass();
+        }
+
+        @Override
+        protected void onManifoldSet(BodyComponent.Manifold manifold)
+        {
+            final int count = Math.min(manifold.getContactPointCount(), MAX_CONTACT_POINTS);
+
+            // Find each new point's impulses from the old point with the same features
+            for (int i = 0; i < count; i++) {
+                final int feature = manifold.getFeatureIdAt(i);
+                float separation = 0f;
+                float friction = 0f;
+
+                for (int j = 0; j < mPointCount; j++) {
+                    if (mFeatureIds[j] == feature) {
+                        separation = mAccuSeparations[j];
+                        friction = mAccuFrictions[j];
+                        break;
+                    }
+                }
+
+                mMatchedSeparations[i] = separation;
+                mMatchedFrictions[i] = friction;
+            }
+
+            // Replace old points
+            for (int i = 0; i < count; i++) {
+                mFeatureIds[i] = manifold.getFeatureIdAt(i);
+                mAccuSeparations[i] = mMatchedSeparations[i];
+                mAccuFrictions[i] = mMatchedFrictions[i];
+            }
+            mPointCount = count;
+        }
+
+        /**
+         * <p>Gets the number of contact points being solved.</p>
+         *
+         * @return contact point count.
+         */
+        private int getPointCount()
+        {
+            return mPointCount;
+        }
+
+        /**
+         * <p>Recomputes the inverse of the body pairs' total inverse mass. This should be called whenever either
+         * body's inverse mass may have changed, such as when made kinematic.</p>
+         */
+        private void updateInverseSystemMass()
+        {
+            mInvSysMass = 1f / (getBodyA().getInverseMass() + getBodyB().getInverseMass());
         }
 
         /**
@@ -1067,27 +1622,30 @@ public final class IterativeSolver extends Solver
             final BodyComponent bodyA = getBodyA();
             final BodyComponent bodyB = getBodyB();
 
-            // Should body A not be moved?
-            if ((!bodyA.isSleeping() && bodyA.isStatic()) || (bodyA.isSleeping() && !bodyA.isStatic())) {
-
-                // Should body B not be moved?
-                if ((!bodyB.isSleeping() && bodyB.isStatic()) || (bodyB.isSleeping() && !bodyB.isStatic())) {
-                    return true;
-                }
-            }
+            // Both bodies shouldn't be moved by the Contact
+            return isUnmovable(bodyA) && isUnmovable(bodyB);
+        }
 
-            return false;
+        /**
+         * <p>Checks if a body of the Contact won't be moved by it. Static and kinematic bodies are never moved by
+         * Contacts while other bodies aren't moved when sleeping.</p>
+         *
+         * @param body body.
+         * @return true if the body shouldn't be moved.
+         */
+        private boolean isUnmovable(BodyComponent body)
+        {
+            return body.isStatic() || body.isKinematic() || body.isSleeping();
         }
 
         /**
          * <p>Applies the accumulated separation and friction impulses from the previous frame to both A and B
          * {@link BodyComponent}s.</p>
          *
-         * @param container0 vector to use during computations.
          * @param container1 vector to use during computations.
          * @param container2 vector to use during computations.
          */
-        private void warm(Vector2F container0, Vector2F container1, Vector2F container2)
+        private void warm(Vector2F container1, Vector2F container2)
         {
             // Reset handle flag for upcoming processing
             this.clearHandle();
@@ -1106,128 +1664,145 @@ public final class IterativeSolver extends Solver
 
                 // Impulses for body A
                 container1.negate();
-                warm(bodyA, container0, container1, container2);
+                warm(bodyA, container1, container2);
 
                 // Impulses for body B
                 getImpulsesForBodyB(container1, container2);
-                warm(bodyB, container0, container1, container2);
+                warm(bodyB, container1, container2);
 
             } else if (dynA) {
                 // Case 2: only body A can be moved
                 container1.negate();
-                warm(bodyA, container0, container1, container2);
+                warm(bodyA, container1, container2);
 
             } else if (dynB) {
                 // Case 3: only body B can be moved
-                warm(bodyB, container0, container1, container2);
+                warm(bodyB, container1, container2);
             }
         }
 
         /**
-         * <p>Fills two {@link Vector2F}s with the accumulated separation and friction impulses for body A.</p>
+         * <p>Fills two {@link Vector2F}s with the accumulated separation and friction impulses, summed over all
+         * contact points, for body B.</p>
          *
          * @param separation separation impulse.
          * @param friction friction impulse.
          */
         private void getImpulsesForBodyB(Vector2F separation, Vector2F friction)
         {
+            // Sum accumulated impulses of all points
+            float totalSeparation = 0f;
+            float totalFriction = 0f;
+            for (int p = 0; p < mPointCount; p++) {
+                totalSeparation += mAccuSeparations[p];
+                totalFriction += mAccuFrictions[p];
+            }
+
             // Get separation impulse from accumulated
             getManifold().getCollisionNormal(separation);
-            separation.multiply(mAccuSeparation);
+            separation.multiply(totalSeparation);
 
             // Get friction impulse from accumulated
-            mManifold.getCollisionNormal(friction);
+            getManifold().getCollisionNormal(friction);
             friction.normal(false);
-            friction.multiply(mAccuFriction);
+            friction.multiply(totalFriction);
         }
 
         /**
          * <p>Applies the accumulated impulse to a {@link BodyComponent}.</p>
          *
          * @param body body.
-         * @param velocity vector to hold velocity.
          * @param separation impulse vector.
          * @param friction impulse vector.
          */
-        private void warm(BodyComponent body, Vector2F velocity, Vector2F separation, Vector2F friction)
+        private void warm(BodyComponent body, Vector2F separation, Vector2F friction)
         {
             // Distribute over body
-            separation.multiply(body.getInverseMass());
-            friction.multiply(body.getInverseMass());
+            final float invMass = body.getInverseMass();
+            separation.multiply(invMass);
+            friction.multiply(invMass);
 
             // Apply impulses
-            body.getVelocity(velocity);
-            velocity.add(separation);
-            velocity.add(friction);
-            body.setVelocity(velocity);
+            body.addVelocity(separation.getX(), separation.getY());
+            body.addVelocity(friction.getX(), friction.getY());
         }
 
         /**
-         * <p>Gets the accumulated impulse between the body pair.</p>
+         * <p>Gets the accumulated separation impulse of a contact point.</p>
          *
+         * @param point contact point index.
          * @return accumulated impulse.
          */
-        private float getAccumulatedSeparation()
+        private float getAccumulatedSeparation(int point)
         {
-            return mAccuSeparation;
+            return mAccuSeparations[point];
         }
 
         /**
-         * <p>Sets the accumulated impulse between the body pair.</p>
+         * <p>Sets the accumulated separation impulse of a contact point.</p>
          *
+         * @param point contact point index.
          * @param impulse accumulated impulse.
          */
-        private void setAccumulatedSeparation(float impulse)
+        private void setAccumulatedSeparation(int point, float impulse)
         {
-            mAccuSeparation = impulse;
+            mAccuSeparations[point] = impulse;
         }
 
         /**
-         * <p>Gets the accumulated friction impulse.</p>
+         * <p>Gets the accumulated friction impulse of a contact point.</p>
          *
+         * @param point contact point index.
          * @return accumulated friction.
          */
-        private float getAccumulatedFriction()
+        private float getAccumulatedFriction(int point)
         {
-            return mAccuFriction;
+            return mAccuFrictions[point];
         }
 
         /**
-         * <p>Sets the accumulated friction impulse.</p>
+         * <p>Sets the accumulated friction impulse of a contact point.</p>
          *
+         * @param point contact point index.
          * @param friction accumulated friction.
          */
-        private void setAccumulatedFriction(float friction)
+        private void setAccumulatedFriction(int point, float friction)
         {
-            mAccuFriction = friction;
+            mAccuFrictions[point] = friction;
         }
 
         /**
-         * <p>Gets the velocity bias term.</p>
+         * <p>Gets the velocity bias term of a contact point.</p>
          *
+         * @param point contact point index.
          * @return velocity bias.
          */
-        private float getBias()
+        private float getBias(int point)
         {
-            return mSepBias;
+            return mSepBiases[point];
         }
 
         /**
-         * <p>Sets the bias term to use when solving for the separation velocity.</p>
+         * <p>Sets the bias term to use when solving for a contact point's separation velocity.</p>
          *
+         * @param point contact point index.
          * @param bias separation bias.
          */
-        private void setSeparationBias(float bias)
+        private void setSeparationBias(int point, float bias)
         {
-            mSepBias = bias;
+            mSepBiases[point] = bias;
         }
 
         @Override
         protected void onClear()
         {
-            mAccuSeparation = 0f;
-            mAccuFriction = 0f;
-            mSepBias = 0f;
+            for (int p = 0; p < MAX_CONTACT_POINTS; p++) {
+                mFeatureIds[p] = 0;
+                mAccuSeparations[p] = 0f;
+                mAccuFrictions[p] = 0f;
+                mSepBiases[p] = 0f;
+            }
+            mPointCount = 0;
         }
     }
 
@@ -1279,12 +1854,26 @@ public final class IterativeSolver extends Solver
         @Override
         protected void onSleep(BodyComponent body)
         {
+            // Remove leftover motion so the body doesn't jump when woken
+            body.clearMotion();
+        }
+
+        @Override
+        protected void onContactRemoved(SIContact contact)
+        {
+            final ContactRecords records = getContactRecords();
+            final BodyComponent bodyA = contact.getBodyA();
+            final BodyComponent bodyB = contact.getBodyB();
+            if (records != null && bodyA != null && bodyB != null) {
+                records.add(ContactRecords.TYPE_END, bodyA, bodyB, 0f, 0f);
+            }
         }
     }
 
     /**
      * <p>
-     *     Removes a {@link BodyComponent} from the {@link ContactGraph} when the {@link BodyFactory} removes it.
+     *     Removes a {@link BodyComponent} from the {@link ContactGraph} and both {@link BoundingTree}s when the
+     *     {@link BodyFactory} removes it.
      * </p>
      */
     private class GraphRemoveSync implements OnRemoveListener<BodyComponent>
@@ -1293,6 +1882,7 @@ public final class IterativeSolver extends Solver
         public void onRemove(BodyComponent object)
         {
             mGraph.remove(object);
+            updateSpacialPartitioning(object, true);
         }
     }
 }
@@ -0,0 +1,305 @@
+package com.cinnamon.object;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>
+ *     Buffer of candidate {@link BodyComponent} pairs found by a broad phase which are then tested for collision
+ *     together. Each pair's result and {@link BodyComponent.Manifold} are written to the pair's own slot so results
+ *     can be read back in the order pairs were added, no matter which thread tested them.
+ * </p>
+ *
+ * <p>
+ *     When given a {@link ForkJoinPool}, pairs are split into fixed size chunks tested in parallel, each chunk with
+ *     its own {@link BodyComponent.Scratch}. Testing only reads the bodies so no BodyComponent may be changed while
+ *     {@link #test()} runs.
+ * </p>
+ */
+final class NarrowPhase
+{
+    // Initial number of pairs
+    private static final int LOAD = 64;
+
+    // Number of pairs tested by each chunk
+    private static final int CHUNK_SIZE = 32;
+
+    // Fewer pairs than this are tested on the calling thread
+    private static final int PARALLEL_THRESHOLD = CHUNK_SIZE * 2;
+
+    // Searching bodies; index = pair
+    private BodyComponent[] mBodies = new BodyComponent[LOAD];
+
+    // Bodies found by the searching bodies; index = pair
+    private BodyComponent[] mOthers = new BodyComponent[LOAD];
+
+    // Collision data from the searching body's point of view; index = pair
+    private BodyComponent.Manifold[] mManifolds = new BodyComponent.Manifold[LOAD];
+
+    // Whether or not each pair collided; index = pair
+    private boolean[] mCollided = new boolean[LOAD];
+
+    // Number of pairs
+    private int mSize = 0;
+
+    // Working space when testing on the calling thread
+    private final BodyComponent.Scratch mScratch = new BodyComponent.Scratch();
+
+    // Working space for each chunk; index = chunk
+    private BodyComponent.Scratch[] mScratches = new BodyComponent.Scratch[0];
+
+    // Reusable task for each chunk; index = chunk
+    private Chunk[] mChunks = new Chunk[0];
+
+    // Reusable task forking all chunks
+    private final AllChunks mAllChunks = new AllChunks();
+
+    // Pool to test chunks on, null to always test on the calling thread
+    private ForkJoinPool mPool;
+
+    /**
+     * <p>Adds a pair of bodies to be tested.</p>
+     *
+     * @param body searching body.
+     * @param other body found by the search.
+     */
+    void add(BodyComponent body, BodyComponent other)
+    {
+        // Grow all arrays together
+        if (mSize == mBodies.length) {
+            final int capacity = mBodies.length * 2;
+
+            final BodyComponent[] bodies = new BodyComponent[capacity];
+            final BodyComponent[] others = new BodyComponent[capacity];
+            final BodyComponent.Manifold[] manifolds = new BodyComponent.Manifold[capacity];
+            final boolean[] collided = new boolean[capacity];
+
+            System.arraycopy(mBodies, 0, bodies, 0, mSize);
+            System.arraycopy(mOthers, 0, others, 0, mSize);
+            System.arraycopy(mManifolds, 0, manifolds, 0, mSize);
+
+            mBodies = bodies;
+            mOthers = others;
+            mManifolds = manifolds;
+            mCollided = collided;
+        }
+
+        // Manifolds are kept for reuse across updates
+        if (mManifolds[mSize] == null) {
+            mManifolds[mSize] = new BodyComponent.Manifold();
+        }
+
+        mBodies[mSize] = body;
+        mOthers[mSize] = other;
+        mCollided[mSize] = false;
+        mSize++;
+    }
+
+    /**
+     * <p>Tests every added pair for collision. Pairs are tested in parallel if a {@link ForkJoinPool} was set and
+     * there are enough pairs to be worth splitting.</p>
+     */
+    void test()
+    {
+        if (mPool == null || mSize < PARALLEL_THRESHOLD) {
+            test(0, mSize, mScratch);
+            return;
+        }
+
+        final int chunkCount = (mSize + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        ensureChunks(chunkCount);
+
+        // Tasks can only be reused once reset
+        for (int i = 0; i < chunkCount; i++) {
+            mChunks[i].reinitialize();
+        }
+        mAllChunks.reinitialize();
+        mAllChunks.mCount = chunkCount;
+
+        mPool.invoke(mAllChunks);
+    }
+
+    /**
+     * <p>Tests a range of pairs.</p>
+     *
+     * @param from first pair.
+     * @param to pair after the last.
+     * @param scratch working space.
+     */
+    private void test(int from, int to, BodyComponent.Scratch scratch)
+    {
+        for (int i = from; i < to; i++) {
+            mCollided[i] = BodyComponent.collide(mBodies[i], mOthers[i], mManifolds[i], scratch);
+        }
+    }
+
+    /**
+     * <p>Makes sure there are enough chunk tasks and their {@link BodyComponent.Scratch}es.</p>
+     *
+     * @param count number of chunks.
+     */
+    private void ensureChunks(int count)
+    {
+        if (count <= mChunks.length) {
+            return;
+        }
+
+        final Chunk[] chunks = new Chunk[count];
+        final BodyComponent.Scratch[] scratches = new BodyComponent.Scratch[count];
+        System.arraycopy(mChunks, 0, chunks, 0, mChunks.length);
+        System.arraycopy(mScratches, 0, scratches, 0, mScratches.length);
+
+        for (int i = mChunks.length; i < count; i++) {
+            chunks[i] = new Chunk(i);
+            scratches[i] = new BodyComponent.Scratch();
+        }
+
+        mChunks = chunks;
+        mScratches = scratches;
+    }
+
+    /**
+     * <p>Removes all pairs.</p>
+     */
+    void clear()
+    {
+        // Drop body references so removed bodies aren't held onto
+        for (int i = 0; i < mSize; i++) {
+            mBodies[i] = null;
+            mOthers[i] = null;
+        }
+
+        mSize = 0;
+    }
+
+    /**
+     * <p>Gets the number of pairs.</p>
+     *
+     * @return pair count.
+     */
+    int size()
+    {
+        return mSize;
+    }
+
+    /**
+     * <p>Gets a pair's searching body.</p>
+     *
+     * @param pair pair index.
+     * @return searching body.
+     */
+    BodyComponent getBody(int pair)
+    {
+        return mBodies[pair];
+    }
+
+    /**
+     * <p>Gets the body a pair's searching body found.</p>
+     *
+     * @param pair pair index.
+     * @return other body.
+     */
+    BodyComponent getOther(int pair)
+    {
+        return mOthers[pair];
+    }
+
+    /**
+     * <p>Checks if a pair was found colliding by the last {@link #test()}.</p>
+     *
+     * @param pair pair index.
+     * @return true if colliding.
+     */
+    boolean isColliding(int pair)
+    {
+        return mCollided[pair];
+    }
+
+    /**
+     * <p>Gets a pair's collision data from the last {@link #test()}. This is only meaningful if
+     * {@link #isColliding(int)} returns true.</p>
+     *
+     * @param pair pair index.
+     * @return collision data.
+     */
+    BodyComponent.Manifold getManifold(int pair)
+    {
+        return mManifolds[pair];
+    }
+
+    /**
+     * <p>Gets the {@link ForkJoinPool} pairs are tested on.</p>
+     *
+     * @return pool, or null if testing on the calling thread.
+     */
+    ForkJoinPool getPool()
+    {
+        return mPool;
+    }
+
+    /**
+     * <p>Sets the {@link ForkJoinPool} to test pairs on.</p>
+     *
+     * @param pool pool, or null to test on the calling thread.
+     */
+    void setPool(ForkJoinPool pool)
+    {
+        mPool = pool;
+    }
+
+    /**
+     * <p>
+     *     Forks every chunk except the first, tests the first on the current thread, then waits for the rest.
+     * </p>
+     */
+    @SuppressWarnings("serial")
+    private final class AllChunks extends RecursiveAction
+    {
+        // Number of chunks to run
+        private int mCount;
+
+        @Override
+        protected void compute()
+        {
+            for (int i = 1; i < mCount; i++) {
+                mChunks[i].fork();
+            }
+
+            mChunks[0].invoke();
+
+            // Join most recently forked first as those are least likely to have been stolen
+            for (int i = mCount - 1; i > 0; i--) {
+                mChunks[i].join();
+            }
+        }
+    }
+
+    /**
+     * <p>
+     *     Tests one chunk of pairs with the chunk's own {@link BodyComponent.Scratch}.
+     * </p>
+     */
+    @SuppressWarnings("serial")
+    private final class Chunk extends RecursiveAction
+    {
+        // Chunk index
+        private final int mIndex;
+
+        /**
+         * <p>Constructs a Chunk.</p>
+         *
+         * @param index chunk index.
+         */
+        private Chunk(int index)
+        {
+            mIndex = index;
+        }
+
+        @Override
+        protected void compute()
+        {
+            final int from = mIndex * CHUNK_SIZE;
+            test(from, Math.min(from + CHUNK_SIZE, mSize), mScratches[mIndex]);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.cinnamon.object;
+
+import java.util.List;
+
+/**
+ * <p>
+ *     Listener callback to be notified when sensor {@link BodyComponent}s begin or stop overlapping other
+ *     BodyComponents.
+ * </p>
+ */
+public interface OnOverlapListener
+{
+    /**
+     * <p>Called once at the end of a {@link Solver} update in which at least one {@link Overlap} began or ended.</p>
+     *
+     * <p>Neither List nor their Overlaps should be referenced after this method returns.</p>
+     *
+     * @param begun Overlaps found in this update but not the previous.
+     * @param ended Overlaps found in the previous update but not this one.
+     */
+    void onOverlap(List<Overlap> begun, List<Overlap> ended);
+}
@@ -0,0 +1,119 @@
+package com.cinnamon.object;
+
+/**
+ * <p>
+ *     Record of a sensor {@link BodyComponent} overlapping another BodyComponent, as reported to an
+ *     {@link OnOverlapListener}. Both bodies are referred to by id and version since either may have been removed by
+ *     the time an Overlap's end is reported.
+ * </p>
+ *
+ * <p>
+ *     Overlaps are recycled by the {@link Solver} and should not be referenced after
+ *     {@link OnOverlapListener#onOverlap(java.util.List, java.util.List)} returns.
+ * </p>
+ */
+public final class Overlap
+{
+    // Sensor's id
+    private int mSensorId;
+
+    // Sensor's version
+    private int mSensorVersion;
+
+    // Other body's id
+    private int mOtherId;
+
+    // Other body's version
+    private int mOtherVersion;
+
+    // Last update the bodies were found overlapping
+    private int mStamp;
+
+    /**
+     * <p>Gets the sensor's id.</p>
+     *
+     * @return sensor id.
+     */
+    public int getSensorId()
+    {
+        return mSensorId;
+    }
+
+    /**
+     * <p>Gets the sensor's version.</p>
+     *
+     * @return sensor version.
+     */
+    public int getSensorVersion()
+    {
+        return mSensorVersion;
+    }
+
+    /**
+     * <p>Gets the id of the body overlapping the sensor. If both bodies are sensors, this is the body with the higher
+     * id.</p>
+     *
+     * @return other body's id.
+     */
+    public int getOtherId()
+    {
+        return mOtherId;
+    }
+
+    /**
+     * <p>Gets the version of the body overlapping the sensor.</p>
+     *
+     * @return other body's version.
+     */
+    public int getOtherVersion()
+    {
+        return mOtherVersion;
+    }
+
+    /**
+     * <p>Sets the sensor and the body overlapping it.</p>
+     *
+     * @param sensor sensor.
+     * @param other overlapping body.
+     */
+    void setBodies(BodyComponent sensor, BodyComponent other)
+    {
+        mSensorId = sensor.getId();
+        mSensorVersion = sensor.getVersion();
+        mOtherId = other.getId();
+        mOtherVersion = other.getVersion();
+    }
+
+    /**
+     * <p>Checks if the Overlap is between two specific bodies, in order.</p>
+     *
+     * @param sensor sensor.
+     * @param other overlapping body.
+     * @return true if the bodies match.
+     */
+    boolean isBetween(BodyComponent sensor, BodyComponent other)
+    {
+        return mSensorId == sensor.getId() && mSensorVersion == sensor.getVersion() && mOtherId == other.getId()
+                && mOtherVersion == other.getVersion();
+    }
+
+    /**
+     * <p>Gets the last update the bodies were found overlapping.</p>
+     *
+     * @return update stamp.
+     */
+    int getStamp()
+    {
+        return mStamp;
+    }
+
+    /**
+     * <p>Sets the last update the bodies were found overlapping.</p>
+     *
+     * @param stamp update stamp.
+     */
+    void setStamp(int stamp)
+    {
+        mStamp = stamp;
+    }
+}
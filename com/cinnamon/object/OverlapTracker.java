@@ -0,0 +1,203 @@
+package com.cinnamon.object;
+
+import com.cinnamon.utils.PooledQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ *     Tracks {@link Overlap}s between sensor {@link BodyComponent}s and other bodies across {@link Solver} updates
+ *     and reports those beginning and ending to an {@link OnOverlapListener} in one batch per update.
+ * </p>
+ *
+ * <p>
+ *     Each update must begin with {@link #begin()}, mark every overlapping pair found with
+ *     {@link #mark(BodyComponent, BodyComponent)}, and finish with {@link #end(OnOverlapListener)}. Overlaps that
+ *     were not marked during the update are ended.
+ * </p>
+ */
+final class OverlapTracker
+{
+    // Overlaps looked up by the id of their sensor; index = sensor id
+    private final List<List<Overlap>> mOverlapsBySensor = new ArrayList<List<Overlap>>();
+
+    // All active Overlaps
+    private final List<Overlap> mOverlaps = new ArrayList<Overlap>();
+
+    // Overlaps begun this update
+    private final List<Overlap> mBegun = new ArrayList<Overlap>();
+
+    // Overlaps ended this update
+    private final List<Overlap> mEnded = new ArrayList<Overlap>();
+
+    // Obj pool to recycle Overlaps
+    private final PooledQueue<Overlap> mOverlapPool = new PooledQueue<Overlap>();
+
+    // Current update's stamp
+    private int mStamp = 0;
+
+    /**
+     * <p>Starts tracking a new update. Overlaps ended in the previous update are recycled.</p>
+     */
+    void begin()
+    {
+        // Recycle Overlaps reported as ended last update
+        for (int i = 0, sz = mEnded.size(); i < sz; i++) {
+            mOverlapPool.add(mEnded.get(i));
+        }
+        mEnded.clear();
+        mBegun.clear();
+
+        mStamp++;
+    }
+
+    /**
+     * <p>Checks if two bodies were already marked as overlapping during the current update.</p>
+     *
+     * @param body body.
+     * @param other other body.
+     * @return true if already marked.
+     */
+    boolean isMarked(BodyComponent body, BodyComponent other)
+    {
+        final Overlap overlap = find(body, other);
+        return overlap != null && overlap.getStamp() == mStamp;
+    }
+
+    /**
+     * <p>Marks two bodies, at least one of which being a sensor, as overlapping during the current update. If the
+     * bodies weren't overlapping in the previous update, the Overlap is reported as begun.</p>
+     *
+     * @param body body.
+     * @param other other body.
+     */
+    void mark(BodyComponent body, BodyComponent other)
+    {
+        Overlap overlap = find(body, other);
+
+        // Bodies weren't overlapping before
+        if (overlap == null) {
+            overlap = (mOverlapPool.isEmpty()) ? new Overlap() : mOverlapPool.poll();
+
+            if (isSensorFirst(body, other)) {
+                overlap.setBodies(body, other);
+            } else {
+                overlap.setBodies(other, body);
+            }
+
+            getOverlapsOf(overlap.getSensorId()).add(overlap);
+            mOverlaps.add(overlap);
+            mBegun.add(overlap);
+        }
+
+        overlap.setStamp(mStamp);
+    }
+
+    /**
+     * <p>Ends all Overlaps not marked during the current update and notifies an {@link OnOverlapListener}, if any
+     * Overlaps began or ended.</p>
+     *
+     * @param listener listener, or null to not report.
+     */
+    void end(OnOverlapListener listener)
+    {
+        // Move unmarked Overlaps to ended
+        for (int i = mOverlaps.size() - 1; i >= 0; i--) {
+            final Overlap overlap = mOverlaps.get(i);
+            if (overlap.getStamp() == mStamp) {
+                continue;
+            }
+
+            // Swap with last to remove without shifting
+            final int last = mOverlaps.size() - 1;
+            mOverlaps.set(i, mOverlaps.get(last));
+            mOverlaps.remove(last);
+
+            mOverlapsBySensor.get(overlap.getSensorId()).remove(overlap);
+            mEnded.add(overlap);
+        }
+
+        if (listener != null && (!mBegun.isEmpty() || !mEnded.isEmpty())) {
+            listener.onOverlap(mBegun, mEnded);
+        }
+    }
+
+    /**
+     * <p>Finds the active Overlap between two bodies.</p>
+     *
+     * @param body body.
+     * @param other other body.
+     * @return Overlap, or null if none.
+     */
+    private Overlap find(BodyComponent body, BodyComponent other)
+    {
+        final BodyComponent sensor;
+        final BodyComponent overlapping;
+        if (isSensorFirst(body, other)) {
+            sensor = body;
+            overlapping = other;
+        } else {
+            sensor = other;
+            overlapping = body;
+        }
+
+        // No Overlaps were ever stored for the sensor's id
+        final int id = sensor.getId();
+        if (id >= mOverlapsBySensor.size()) {
+            return null;
+        }
+
+        final List<Overlap> overlaps = mOverlapsBySensor.get(id);
+        for (int i = 0, sz = overlaps.size(); i < sz; i++) {
+            final Overlap overlap = overlaps.get(i);
+            if (overlap.isBetween(sensor, overlapping)) {
+                return overlap;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * <p>Gets the List of Overlaps for a sensor, growing the lookup if needed.</p>
+     *
+     * @param id sensor id.
+     * @return Overlaps.
+     */
+    private List<Overlap> getOverlapsOf(int id)
+    {
+        while (id >= mOverlapsBySensor.size()) {
+            mOverlapsBySensor.add(new ArrayList<Overlap>());
+        }
+
+        return mOverlapsBySensor.get(id);
+    }
+
+    /**
+     * <p>Decides which of two bodies is stored as an Overlap's sensor. If both are sensors, the body with the lower id
+     * is chosen.</p>
+     *
+     * @param body body.
+     * @param other other body.
+     * @return true if body should be the sensor.
+     */
+    private boolean isSensorFirst(BodyComponent body, BodyComponent other)
+    {
+        if (body.isSensor() && other.isSensor()) {
+            return body.getId() < other.getId();
+        }
+
+        return body.isSensor();
+    }
+
+    /**
+     * <p>Gets the number of active Overlaps.</p>
+     *
+     * @return Overlap count.
+     */
+    int size()
+    {
+        return mOverlaps.size();
+    }
+}
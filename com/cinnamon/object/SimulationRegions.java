@@ -0,0 +1,272 @@
+package com.cinnamon.object;
+
+import com.cinnamon.utils.HandleIntMap;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ *     Describes the parts of the world a {@link Solver} actually simulates. Each region is a circle of the same radius
+ *     centered either on a focus point, such as the {@link com.cinnamon.system.View}'s center, or on a registered
+ *     anchor {@link GObject}. Non-static {@link BodyComponent}s outside every region are frozen: they keep their
+ *     velocity but are neither moved nor tested for collision until a region reaches them again.
+ * </p>
+ *
+ * <p>
+ *     Freezing is disabled while the radius is 0, which is the default, or while there is neither a focus nor any
+ *     anchors. To avoid bodies at a region's edge repeatedly freezing and thawing, a body only freezes once it is a
+ *     fraction farther than the radius away from every center but thaws as soon as it is within the radius of one.
+ * </p>
+ *
+ * <p>
+ *     Like other Solver settings, SimulationRegions should only be changed between updates. While physics is
+ *     pipelined, changes belong in {@link com.cinnamon.system.PhysicsPipeline#execute(Runnable)}.
+ * </p>
+ */
+public final class SimulationRegions
+{
+    // Initial number of anchors
+    private static final int LOAD = 4;
+
+    // Fraction of the radius beyond the radius a body must be before freezing
+    private static final float FREEZE_MARGIN = 0.1f;
+
+    // Distance from a center within which bodies are simulated
+    private float mRadius = 0f;
+
+    // Whether or not the focus point is a center
+    private boolean mHasFocus = false;
+
+    // Focus point
+    private float mFocusX;
+    private float mFocusY;
+
+    // Anchor GObjects' handles; index = anchor
+    private long[] mAnchors = new long[LOAD];
+
+    // Each anchor's index; key = anchor handle
+    private final HandleIntMap mAnchorIndices = new HandleIntMap(LOAD);
+
+    // Number of anchors
+    private int mAnchorCount = 0;
+
+    // Centers resolved for the current update; index = center
+    private float[] mCentersX = new float[LOAD + 1];
+    private float[] mCentersY = new float[LOAD + 1];
+
+    // Number of resolved centers
+    private int mCenterCount = 0;
+
+    /**
+     * <p>Checks if bodies outside the regions are frozen.</p>
+     *
+     * @return true if the radius is > 0.
+     */
+    public boolean isEnabled()
+    {
+        return mRadius > 0f;
+    }
+
+    /**
+     * <p>Gets the radius of each region.</p>
+     *
+     * @return radius, or 0 if freezing is disabled.
+     */
+    public float getRadius()
+    {
+        return mRadius;
+    }
+
+    /**
+     * <p>Sets the radius of each region. Setting 0 disables freezing and frozen bodies are thawed at the next
+     * update.</p>
+     *
+     * @param radius radius.
+     * @throws IllegalArgumentException if radius is < 0.
+     */
+    public void setRadius(float radius)
+    {
+        if (radius < 0f) {
+            throw new IllegalArgumentException("Radius must be >= 0, radius: " + radius);
+        }
+
+        mRadius = radius;
+    }
+
+    /**
+     * <p>Sets the focus point to center a region on.</p>
+     *
+     * @param x x.
+     * @param y y.
+     */
+    public void setFocus(float x, float y)
+    {
+        mFocusX = x;
+        mFocusY = y;
+        mHasFocus = true;
+    }
+
+    /**
+     * <p>Removes the focus point, leaving only anchors as centers.</p>
+     */
+    public void clearFocus()
+    {
+        mHasFocus = false;
+    }
+
+    /**
+     * <p>Checks if a focus point was set.</p>
+     *
+     * @return true if there's a focus point.
+     */
+    public boolean hasFocus()
+    {
+        return mHasFocus;
+    }
+
+    /**
+     * <p>Registers a {@link GObject} to center a region on. The anchor is dropped once the GObject is removed from
+     * its factory.</p>
+     *
+     * @param object anchor.
+     * @throws IllegalArgumentException if object is null.
+     */
+    public void addAnchor(GObject object)
+    {
+        if (object == null) {
+            throw new IllegalArgumentException("Anchor cannot be null");
+        }
+
+        // Ignore duplicates
+        final long handle = object.getHandle();
+        if (mAnchorIndices.containsKey(handle)) {
+            return;
+        }
+
+        // Grow anchors and centers together
+        if (mAnchorCount == mAnchors.length) {
+            final int capacity = mAnchors.length * 2;
+            mAnchors = Arrays.copyOf(mAnchors, capacity);
+            mCentersX = Arrays.copyOf(mCentersX, capacity + 1);
+            mCentersY = Arrays.copyOf(mCentersY, capacity + 1);
+        }
+
+        mAnchors[mAnchorCount] = handle;
+        mAnchorIndices.put(handle, mAnchorCount);
+        mAnchorCount++;
+    }
+
+    /**
+     * <p>Unregisters an anchor {@link GObject}.</p>
+     *
+     * @param object anchor.
+     * @return true if the GObject was an anchor.
+     */
+    public boolean removeAnchor(GObject object)
+    {
+        final int index = (object == null) ? HandleIntMap.MISSING : mAnchorIndices.get(object.getHandle());
+        if (index == HandleIntMap.MISSING) {
+            return false;
+        }
+
+        removeAnchorAt(index);
+        return true;
+    }
+
+    /**
+     * <p>Unregisters all anchors.</p>
+     */
+    public void clearAnchors()
+    {
+        mAnchorIndices.clear();
+        mAnchorCount = 0;
+    }
+
+    /**
+     * <p>Gets the number of registered anchors.</p>
+     *
+     * @return anchor count.
+     */
+    public int getAnchorCount()
+    {
+        return mAnchorCount;
+    }
+
+    /**
+     * <p>Looks up the current position of each center for the coming update. Anchors whose {@link GObject}s no
+     * longer exist are dropped.</p>
+     *
+     * @param factory GObject lookup.
+     */
+    void resolve(GObjectFactory factory)
+    {
+        mCenterCount = 0;
+
+        if (mHasFocus) {
+            mCentersX[mCenterCount] = mFocusX;
+            mCentersY[mCenterCount] = mFocusY;
+            mCenterCount++;
+        }
+
+        for (int i = mAnchorCount - 1; i >= 0; i--) {
+            final GObject anchor = factory.get(mAnchors[i]);
+
+            // Anchor was removed
+            if (anchor == null) {
+                removeAnchorAt(i);
+                continue;
+            }
+
+            mCentersX[mCenterCount] = anchor.getCenterX();
+            mCentersY[mCenterCount] = anchor.getCenterY();
+            mCenterCount++;
+        }
+    }
+
+    /**
+     * <p>Decides whether or not a {@link BodyComponent} should be frozen based on the centers found by the latest
+     * {@link #resolve(GObjectFactory)}. Static bodies are never frozen.</p>
+     *
+     * @param body body.
+     * @return true if the body is outside every region.
+     */
+    boolean shouldFreeze(BodyComponent body)
+    {
+        if (!isEnabled() || mCenterCount == 0 || body.isStatic()) {
+            return false;
+        }
+
+        // Frozen bodies must come within the radius to thaw but awake ones must go past the margin to freeze
+        final float limit = (body.isFrozen()) ? mRadius : mRadius * (1f + FREEZE_MARGIN);
+        final float limitSq = limit * limit;
+
+        final float x = body.getCenterX();
+        final float y = body.getCenterY();
+        for (int i = 0; i < mCenterCount; i++) {
+            final float dx = x - mCentersX[i];
+            final float dy = y - mCentersY[i];
+            if ((dx * dx) + (dy * dy) <= limitSq) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * <p>Removes an anchor by moving the last anchor into its place.</p>
+     *
+     * @param index anchor index.
+     */
+    private void removeAnchorAt(int index)
+    {
+        final int last = mAnchorCount - 1;
+        mAnchorIndices.remove(mAnchors[index]);
+
+        if (index != last) {
+            mAnchors[index] = mAnchors[last];
+            mAnchorIndices.put(mAnchors[index], index);
+        }
+        mAnchorCount--;
+    }
+}
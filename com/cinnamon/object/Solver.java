@@ -1,7 +1,9 @@
 package com.cinnamon.object;
 
+import com.cinnamon.utils.PoolStats;
 import com.cinnamon.utils.Vector2F;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 
 /**
@@ -14,9 +16,37 @@ public abstract class Solver
     // Maximum world speed for all bodies
     public static final float MAX_SPEED = 100f;
 
+    // Number of updates retained by a SolverProfiler
+    private static final int PROFILER_CAPACITY = 120;
+
+    // 64-bit FNV-1a constants for hashState()
+    private static final long HASH_OFFSET = 0xcbf29ce484222325L;
+    private static final long HASH_PRIME = 0x100000001b3L;
+
     // Fixed timestep only
     private final float mTimestep;
 
+    // Per phase measurements; null when profiling is disabled
+    private SolverProfiler mProfiler;
+
+    // True if GObjects are only moved to their bodies through synchronize(GObjectFactory, BodyFactory)
+    private boolean mSyncDeferred = false;
+
+    // Callback for sensor overlaps
+    private OnOverlapListener mOnOverlapListener;
+
+    // Contact begin, persist, and end records; null when recording is disabled
+    private ContactRecords mContactRecords;
+
+    // Areas outside of which bodies are frozen
+    private final SimulationRegions mRegions = new SimulationRegions();
+
+    // True to keep results independent of discovery order
+    private boolean mDeterministic = false;
+
+    // Holds one body's state while hashing
+    private final ByteBuffer mHashBuffer = ByteBuffer.allocate(BodyComponent.STATE_BYTES);
+
     /**
      * <p>Constructs a Solver.</p>
      *
@@ -41,6 +71,230 @@ public abstract class Solver
      */
     public abstract void update(GObjectFactory objectFactory, BodyFactory bodyFactory);
 
+    /**
+     * <p>Moves each {@link GObject} with a non-static {@link BodyComponent} to its body's current position.</p>
+     *
+     * <p>This method only needs to be called when {@link #isSyncDeferred()} is true as {@link #update(GObjectFactory,
+     * BodyFactory)} otherwise keeps GObjects synchronized.</p>
+     *
+     * @param objectFactory {@link GObject} lookup.
+     * @param bodyFactory body lookup.
+     */
+    public void synchronize(GObjectFactory objectFactory, BodyFactory bodyFactory)
+    {
+        for (int i = 0, sz = bodyFactory.size(); i < sz; i++) {
+            final BodyComponent body = bodyFactory.getAt(i);
+
+            // Static bodies don't move
+            if (body.isStatic() || body.isOrphan()) {
+                continue;
+            }
+
+            final GObject obj = objectFactory.get(body.getGObjectId());
+            obj.followBody();
+        }
+    }
+
+    /**
+     * <p>Checks if {@link #update(GObjectFactory, BodyFactory)} leaves moving {@link GObject}s to
+     * {@link #synchronize(GObjectFactory, BodyFactory)}.</p>
+     *
+     * @return true if GObject synchronization is deferred.
+     */
+    public final boolean isSyncDeferred()
+    {
+        return mSyncDeferred;
+    }
+
+    /**
+     * <p>Sets whether or not {@link #update(GObjectFactory, BodyFactory)} should leave moving {@link GObject}s to
+     * {@link #synchronize(GObjectFactory, BodyFactory)}. Deferring allows updates to run on a thread other than the
+     * one reading GObjects and their other components.</p>
+     *
+     * @param defer true to defer GObject synchronization.
+     */
+    public final void setSyncDeferred(boolean defer)
+    {
+        mSyncDeferred = defer;
+    }
+
+    /**
+     * <p>Gets the {@link OnOverlapListener} notified at the end of each update of sensor {@link BodyComponent}s
+     * beginning or ending overlaps.</p>
+     *
+     * @return listener, or null if none.
+     */
+    public final OnOverlapListener getOnOverlapListener()
+    {
+        return mOnOverlapListener;
+    }
+
+    /**
+     * <p>Sets the {@link OnOverlapListener} to notify at the end of each update of sensor {@link BodyComponent}s
+     * beginning or ending overlaps. The listener is called on the thread running
+     * {@link #update(GObjectFactory, BodyFactory)}.</p>
+     *
+     * @param listener listener, or null to stop notifying.
+     */
+    public final void setOnOverlapListener(OnOverlapListener listener)
+    {
+        mOnOverlapListener = listener;
+    }
+
+    /**
+     * <p>Gets the {@link SimulationRegions} describing where bodies are simulated. Non-static
+     * {@link BodyComponent}s outside every region are frozen until a region reaches them.</p>
+     *
+     * @return regions.
+     */
+    public final SimulationRegions getRegions()
+    {
+        return mRegions;
+    }
+
+    /**
+     * <p>Checks if the Solver is in deterministic mode.</p>
+     *
+     * @return true if deterministic.
+     */
+    public final boolean isDeterministic()
+    {
+        return mDeterministic;
+    }
+
+    /**
+     * <p>Sets whether or not the Solver should run in deterministic mode. In deterministic mode, work whose order
+     * would otherwise depend on history, such as solving contacts, is done in a fixed order so that the same
+     * bodies and inputs always produce bit-identical results, as verified with {@link #hashState(BodyFactory)}.
+     * This costs some speed and is meant for replays and regression testing.</p>
+     *
+     * @param enable true to be deterministic.
+     */
+    public final void setDeterministic(boolean enable)
+    {
+        mDeterministic = enable;
+    }
+
+    /**
+     * <p>Computes a hash of the physics state of every {@link BodyComponent}. Two runs fed the same inputs produce
+     * the same hash after each update only if their simulations are bit-identical, which makes the hash useful for
+     * checking that an optimization changed nothing. Subclasses may mix in state of their own.</p>
+     *
+     * <p>This method must not be called while an update is in progress.</p>
+     *
+     * @param factory body lookup.
+     * @return hash.
+     */
+    public long hashState(BodyFactory factory)
+    {
+        long hash = HASH_OFFSET;
+
+        for (int i = 0, sz = factory.size(); i < sz; i++) {
+            final BodyComponent body = factory.getAt(i);
+
+            hash = hash(hash, body.getId());
+            hash = hash(hash, body.getVersion());
+
+            // Hash exactly what a snapshot would save
+            mHashBuffer.clear();
+            body.writeState(mHashBuffer);
+            for (int b = 0; b < BodyComponent.STATE_BYTES; b++) {
+                hash = (hash ^ (mHashBuffer.get(b) & 0xFF)) * HASH_PRIME;
+            }
+        }
+
+        return hash;
+    }
+
+    /**
+     * <p>Adds the {@link PoolStats} of any object pools used by the Solver to a list. The default implementation
+     * adds nothing.</p>
+     *
+     * @param stats list to add to.
+     */
+    public void getPoolStats(List<PoolStats> stats)
+    {
+
+    }
+
+    /**
+     * <p>Mixes an int into a hash computed by {@link #hashState(BodyFactory)}.</p>
+     *
+     * @param hash hash so far.
+     * @param value value to mix in.
+     * @return new hash.
+     */
+    protected static long hash(long hash, int value)
+    {
+        for (int shift = 0; shift < 32; shift += 8) {
+            hash = (hash ^ ((value >>> shift) & 0xFF)) * HASH_PRIME;
+        }
+
+        return hash;
+    }
+
+    /**
+     * <p>Checks if contacts beginning, persisting, and ending are being recorded into {@link ContactRecords}.</p>
+     *
+     * @return true if recording.
+     */
+    public final boolean isContactRecordingEnabled()
+    {
+        return mContactRecords != null;
+    }
+
+    /**
+     * <p>Sets whether or not contacts beginning, persisting, and ending should be recorded into
+     * {@link ContactRecords}. Disabling recording discards all records.</p>
+     *
+     * @param enable true to record.
+     */
+    public final void setContactRecordingEnabled(boolean enable)
+    {
+        if (!enable) {
+            mContactRecords = null;
+        } else if (mContactRecords == null) {
+            mContactRecords = new ContactRecords();
+        }
+    }
+
+    /**
+     * <p>Gets the {@link ContactRecords} being written.</p>
+     *
+     * @return records, or null if recording is disabled.
+     */
+    protected final ContactRecords getContactRecords()
+    {
+        return mContactRecords;
+    }
+
+    /**
+     * <p>Takes the {@link ContactRecords} written since the last swap and replaces them with another, emptied,
+     * ContactRecords to write to. Alternating between two or more ContactRecords this way lets records be read
+     * while the next update writes without copying or allocating.</p>
+     *
+     * <p>This method must not be called while an update is in progress.</p>
+     *
+     * @param records ContactRecords to write to next.
+     * @return records written since the last swap.
+     * @throws IllegalStateException if recording is disabled.
+     * @throws IllegalArgumentException if records is null or is the ContactRecords currently being written.
+     */
+    public final ContactRecords swapContactRecords(ContactRecords records)
+    {
+        if (mContactRecords == null) {
+            throw new IllegalStateException("Contact recording is disabled");
+        }
+        if (records == null || records == mContactRecords) {
+            throw new IllegalArgumentException("Replacement ContactRecords must be non-null and not in use");
+        }
+
+        final ContactRecords written = mContactRecords;
+        records.clear();
+        mContactRecords = records;
+        return written;
+    }
+
     /**
      * <p>Gets a list of all collisions with a specific {@link BodyComponent}.</p>
      *
@@ -60,6 +314,41 @@ public abstract class Solver
         return mTimestep;
     }
 
+    /**
+     * <p>Checks if each update's phases are being measured.</p>
+     *
+     * @return true if profiling.
+     */
+    public final boolean isProfilingEnabled()
+    {
+        return mProfiler != null;
+    }
+
+    /**
+     * <p>Sets whether or not each update's phases should be measured by a {@link SolverProfiler}. Disabling
+     * profiling discards all measurements.</p>
+     *
+     * @param enable true to profile.
+     */
+    public final void setProfilingEnabled(boolean enable)
+    {
+        if (!enable) {
+            mProfiler = null;
+        } else if (mProfiler == null) {
+            mProfiler = new SolverProfiler(PROFILER_CAPACITY);
+        }
+    }
+
+    /**
+     * <p>Gets the {@link SolverProfiler} measuring each update.</p>
+     *
+     * @return profiler, or null if profiling is disabled.
+     */
+    public final SolverProfiler getProfiler()
+    {
+        return mProfiler;
+    }
+
     /**
      * <p>Gets the global acceleration vector applied to all {@link BodyComponent}s in every update.</p>
      *
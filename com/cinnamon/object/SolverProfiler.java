@@ -0,0 +1,387 @@
+package com.cinnamon.object;
+
+/**
+ * <p>
+ *     Records the cost of each phase of a {@link Solver} update along with counters describing the workload
+ *     processed in that update. Measurements are kept in ring buffers so that only the most recent
+ *     {@link #getCapacity()} updates are retained and no allocations occur once the SolverProfiler has been created.
+ * </p>
+ *
+ * <p>
+ *     A single update is recorded by calling {@link #begin()}, then {@link #lap(int)} after each phase, and finally
+ *     {@link #end()}. Counters may be added to with {@link #count(int, int)} at any point between begin() and end().
+ *     Aggregated measurements can be read through {@link #getSnapshot(Snapshot)}.
+ * </p>
+ *
+ * <p>
+ *     Durations are measured in nanoseconds as provided by {@link System#nanoTime()}.
+ * </p>
+ */
+public final class SolverProfiler
+{
+    /**
+     * Phases of a physics update
+     */
+
+    // Bodies are checked in with spatial partitioning
+    public static final int PHASE_PARTITION = 0;
+
+    // Broad and narrow phase collision detection
+    public static final int PHASE_CONTACT_SEARCH = 1;
+
+    // Separated Contacts are discarded
+    public static final int PHASE_INVALID_REMOVAL = 2;
+
+    // Accumulated impulses from the previous update are applied
+    public static final int PHASE_WARMSTART = 3;
+
+    // Impulses are iteratively computed for each Contact
+    public static final int PHASE_SOLVE = 4;
+
+    // Bodies are integrated and synchronized with their GObjects
+    public static final int PHASE_MOVE = 5;
+
+    // Number of phases
+    public static final int PHASE_COUNT = 6;
+
+    /**
+     * Workload counters
+     */
+
+    // Pairs whose bounding boxes overlapped
+    public static final int COUNTER_CANDIDATE_PAIRS = 0;
+
+    // Pairs tested against each other's Shapes
+    public static final int COUNTER_NARROW_TESTS = 1;
+
+    // Active Contacts after invalid Contacts were removed
+    public static final int COUNTER_CONTACTS = 2;
+
+    // Connected components in the ContactGraph
+    public static final int COUNTER_ISLANDS = 3;
+
+    // Non-static bodies not sleeping
+    public static final int COUNTER_AWAKE_BODIES = 4;
+
+    // Non-static bodies sleeping
+    public static final int COUNTER_SLEEPING_BODIES = 5;
+
+    // Bodies reinserted into a BoundingTree
+    public static final int COUNTER_TREE_REBUILDS = 6;
+
+    // Non-static bodies frozen outside every simulation region
+    public static final int COUNTER_FROZEN_BODIES = 7;
+
+    // Number of counters
+    public static final int COUNTER_COUNT = 8;
+
+    // Readable phase names; index = phase
+    private static final String[] PHASE_NAMES = {
+            "partition", "contact search", "invalid removal", "warmstart", "solve", "move"
+    };
+
+    // Readable counter names; index = counter
+    private static final String[] COUNTER_NAMES = {
+            "candidate pairs", "narrow tests", "contacts", "islands", "awake bodies", "sleeping bodies",
+            "tree rebuilds", "frozen bodies"
+    };
+
+    // Phase durations; [update][phase]
+    private final long[][] mDurations;
+
+    // Counter values; [update][counter]
+    private final int[][] mCounts;
+
+    // Index of the update currently being recorded
+    private int mCursor = 0;
+
+    // Number of completed updates in the buffers
+    private int mSampleCount = 0;
+
+    // Timestamp of the last begin() or lap(int)
+    private long mStamp;
+
+    /**
+     * <p>Constructs a SolverProfiler retaining measurements for a number of updates.</p>
+     *
+     * @param capacity number of updates to keep.
+     * @throws IllegalArgumentException if capacity < 1.
+     */
+    public SolverProfiler(int capacity)
+    {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be >= 1: " + capacity);
+        }
+
+        mDurations = new long[capacity][PHASE_COUNT];
+        mCounts = new int[capacity][COUNTER_COUNT];
+    }
+
+    /**
+     * <p>Starts recording a new update. Measurements for the oldest update are overwritten if the buffers are full.</p>
+     */
+    public void begin()
+    {
+        // Erase overwritten update's measurements
+        final long[] durations = mDurations[mCursor];
+        final int[] counts = mCounts[mCursor];
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            durations[i] = 0L;
+        }
+        for (int i = 0; i < COUNTER_COUNT; i++) {
+            counts[i] = 0;
+        }
+
+        mStamp = System.nanoTime();
+    }
+
+    /**
+     * <p>Records the time since the last call to {@link #begin()} or this method as the duration of a phase.</p>
+     *
+     * @param phase phase, such as {@link #PHASE_SOLVE}.
+     */
+    public void lap(int phase)
+    {
+        final long now = System.nanoTime();
+        mDurations[mCursor][phase] += now - mStamp;
+        mStamp = now;
+    }
+
+    /**
+     * <p>Adds to a counter for the update being recorded.</p>
+     *
+     * @param counter counter, such as {@link #COUNTER_CONTACTS}.
+     * @param amount amount to add.
+     */
+    public void count(int counter, int amount)
+    {
+        mCounts[mCursor][counter] += amount;
+    }
+
+    /**
+     * <p>Finishes recording the current update and moves on to the next buffer slot.</p>
+     */
+    public void end()
+    {
+        mCursor = (mCursor + 1) % mDurations.length;
+        mSampleCount = Math.min(mSampleCount + 1, mDurations.length);
+    }
+
+    /**
+     * <p>Removes all recorded updates.</p>
+     */
+    public void clear()
+    {
+        mCursor = 0;
+        mSampleCount = 0;
+    }
+
+    /**
+     * <p>Gets the maximum number of updates retained.</p>
+     *
+     * @return capacity.
+     */
+    public int getCapacity()
+    {
+        return mDurations.length;
+    }
+
+    /**
+     * <p>Gets the number of completed updates currently retained.</p>
+     *
+     * @return sample count.
+     */
+    public int getSampleCount()
+    {
+        return mSampleCount;
+    }
+
+    /**
+     * <p>Fills a {@link Snapshot} with the latest, average, and maximum of each phase and counter across all retained
+     * updates.</p>
+     *
+     * @param snapshot container.
+     */
+    public void getSnapshot(Snapshot snapshot)
+    {
+        snapshot.clear();
+        snapshot.mSampleCount = mSampleCount;
+
+        // Nothing to aggregate
+        if (mSampleCount == 0) {
+            return;
+        }
+
+        final int capacity = mDurations.length;
+        final int latest = (mCursor - 1 + capacity) % capacity;
+
+        // Sum and find max of each measurement, walking backwards from most recent
+        for (int s = 0; s < mSampleCount; s++) {
+            final int index = (latest - s + capacity) % capacity;
+            final long[] durations = mDurations[index];
+            final int[] counts = mCounts[index];
+
+            for (int i = 0; i < PHASE_COUNT; i++) {
+                snapshot.mDurationSum[i] += durations[i];
+                snapshot.mDurationMax[i] = Math.max(snapshot.mDurationMax[i], durations[i]);
+            }
+
+            for (int i = 0; i < COUNTER_COUNT; i++) {
+                snapshot.mCountSum[i] += counts[i];
+                snapshot.mCountMax[i] = Math.max(snapshot.mCountMax[i], counts[i]);
+            }
+        }
+
+        // Copy most recent measurements
+        System.arraycopy(mDurations[latest], 0, snapshot.mDurationLast, 0, PHASE_COUNT);
+        System.arraycopy(mCounts[latest], 0, snapshot.mCountLast, 0, COUNTER_COUNT);
+    }
+
+    /**
+     * <p>Gets a readable name for a phase.</p>
+     *
+     * @param phase phase.
+     * @return name.
+     */
+    public static String getPhaseName(int phase)
+    {
+        return PHASE_NAMES[phase];
+    }
+
+    /**
+     * <p>Gets a readable name for a counter.</p>
+     *
+     * @param counter counter.
+     * @return name.
+     */
+    public static String getCounterName(int counter)
+    {
+        return COUNTER_NAMES[counter];
+    }
+
+    /**
+     * <p>
+     *     Aggregated measurements copied out of a {@link SolverProfiler}. A Snapshot may be reused across calls to
+     *     {@link SolverProfiler#getSnapshot(Snapshot)}.
+     * </p>
+     */
+    public static final class Snapshot
+    {
+        // Most recent update's phase durations
+        private final long[] mDurationLast = new long[PHASE_COUNT];
+
+        // Sum of phase durations across samples
+        private final long[] mDurationSum = new long[PHASE_COUNT];
+
+        // Longest phase durations across samples
+        private final long[] mDurationMax = new long[PHASE_COUNT];
+
+        // Most recent update's counters
+        private final int[] mCountLast = new int[COUNTER_COUNT];
+
+        // Sum of counters across samples
+        private final long[] mCountSum = new long[COUNTER_COUNT];
+
+        // Largest counters across samples
+        private final int[] mCountMax = new int[COUNTER_COUNT];
+
+        // Number of updates aggregated
+        private int mSampleCount;
+
+        /**
+         * <p>Gets the number of updates aggregated.</p>
+         *
+         * @return sample count.
+         */
+        public int getSampleCount()
+        {
+            return mSampleCount;
+        }
+
+        /**
+         * <p>Gets the most recent duration of a phase in nanoseconds.</p>
+         *
+         * @param phase phase.
+         * @return nanoseconds.
+         */
+        public long getLastDuration(int phase)
+        {
+            return mDurationLast[phase];
+        }
+
+        /**
+         * <p>Gets the average duration of a phase in nanoseconds.</p>
+         *
+         * @param phase phase.
+         * @return nanoseconds.
+         */
+        public long getAverageDuration(int phase)
+        {
+            return (mSampleCount == 0) ? 0L : mDurationSum[phase] / mSampleCount;
+        }
+
+        /**
+         * <p>Gets the longest duration of a phase in nanoseconds.</p>
+         *
+         * @param phase phase.
+         * @return nanoseconds.
+         */
+        public long getMaxDuration(int phase)
+        {
+            return mDurationMax[phase];
+        }
+
+        /**
+         * <p>Gets the most recent value of a counter.</p>
+         *
+         * @param counter counter.
+         * @return count.
+         */
+        public int getLastCount(int counter)
+        {
+            return mCountLast[counter];
+        }
+
+        /**
+         * <p>Gets the average value of a counter.</p>
+         *
+         * @param counter counter.
+         * @return average count.
+         */
+        public float getAverageCount(int counter)
+        {
+            return (mSampleCount == 0) ? 0f : (float) mCountSum[counter] / mSampleCount;
+        }
+
+        /**
+         * <p>Gets the largest value of a counter.</p>
+         *
+         * @param counter counter.
+         * @return count.
+         */
+        public int getMaxCount(int counter)
+        {
+            return mCountMax[counter];
+        }
+
+        /**
+         * <p>Zeroes all measurements.</p>
+         */
+        private void clear()
+        {
+            mSampleCount = 0;
+
+            for (int i = 0; i < PHASE_COUNT; i++) {
+                mDurationLast[i] = 0L;
+                mDurationSum[i] = 0L;
+                mDurationMax[i] = 0L;
+            }
+
+            for (int i = 0; i < COUNTER_COUNT; i++) {
+                mCountLast[i] = 0;
+                mCountSum[i] = 0L;
+                mCountMax[i] = 0;
+            }
+        }
+    }
+}
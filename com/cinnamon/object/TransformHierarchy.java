@@ -0,0 +1,476 @@
+package com.cinnamon.object;
+
+/**
+ * <p>
+ *     Attaches {@link GObject}s to other GObjects so that they follow along, keeping a local offset from their
+ *     parent's center and a local rotation relative to their parent's rotation. Children of children are supported to
+ *     any depth.
+ * </p>
+ *
+ * <p>
+ *     Attached GObjects are kept in one array ordered depth-first: every parent comes before its children and each
+ *     parent's descendants sit directly after it. {@link #update()} is then a single pass from front to back in which
+ *     a child is only repositioned if its parent was moved or repositioned earlier in the same pass. GObjects are
+ *     marked as moved by their own moveTo, moveBy, rotateTo, and rotateBy methods, so subtrees whose root did not
+ *     move cost no more than reading a flag. Attaching and detaching reorder the array and run in O(n) time where n
+ *     is the number of attached GObjects.
+ * </p>
+ *
+ * <p>
+ *     Moving an attached child directly changes its local offset and rotation to match, unless its parent also moved
+ *     since the last update in which case the parent wins.
+ * </p>
+ */
+public final class TransformHierarchy
+{
+    // Initial number of nodes
+    private static final int LOAD = 16;
+
+    // Nodes ordered depth-first; index = position
+    private Node[] mNodes = new Node[LOAD];
+
+    // Number of nodes
+    private int mSize = 0;
+
+    // Working space for reordering
+    private Node[] mScratch = new Node[LOAD];
+
+    /**
+     * <p>Attaches a {@link GObject} to a parent, keeping the child where it currently is. The child's local offset
+     * and rotation are taken from the current difference between the two. A child already attached elsewhere is
+     * moved to the new parent along with its own children.</p>
+     *
+     * <p>The child's collision parent is also set with {@link GObject#setParent(GObject)} so the two don't collide.
+     * </p>
+     *
+     * @param child child.
+     * @param parent parent.
+     * @throws IllegalArgumentException if either GObject is null, both are the same, or parent is attached below
+     * child.
+     */
+    public void attach(GObject child, GObject parent)
+    {
+        final Node node = link(child, parent);
+        measure(node);
+    }
+
+    /**
+     * <p>Attaches a {@link GObject} to a parent and immediately moves the child to a given offset and rotation
+     * relative to the parent. A child already attached elsewhere is moved to the new parent along with its own
+     * children.</p>
+     *
+     * <p>The child's collision parent is also set with {@link GObject#setParent(GObject)} so the two don't collide.
+     * </p>
+     *
+     * @param child child.
+     * @param parent parent.
+     * @param x offset from the parent's center to the child's center along x, before the parent's rotation.
+     * @param y offset from the parent's center to the child's center along y, before the parent's rotation.
+     * @param rotation angle in radians added to the parent's rotation.
+     * @throws IllegalArgumentException if either GObject is null, both are the same, or parent is attached below
+     * child.
+     */
+    public void attach(GObject child, GObject parent, float x, float y, double rotation)
+    {
+        final Node node = link(child, parent);
+        node.mLocalX = x;
+        node.mLocalY = y;
+        node.mLocalRotation = rotation;
+        place(node);
+    }
+
+    /**
+     * <p>Detaches a {@link GObject} from its parent. The child stays where it is and keeps its own children. Its
+     * collision parent is left unchanged.</p>
+     *
+     * @param child child.
+     * @return true if the child was attached.
+     */
+    public boolean detach(GObject child)
+    {
+        final Node node = (child == null) ? null : child.mNode;
+        if (node == null || node.mParent == null) {
+            return false;
+        }
+
+        final Node parent = node.mParent;
+        parent.mChildCount--;
+        node.mParent = null;
+
+        // Detached subtree becomes the last root
+        rotate(node.mPosition, node.mEnd, mSize);
+        computeEnds();
+
+        prune(node);
+        prune(parent);
+        return true;
+    }
+
+    /**
+     * <p>Detaches a {@link GObject} from its parent and all of its children from it, such as when the GObject is
+     * removed from its factory. Children stay where they are.</p>
+     *
+     * @param object GObject.
+     */
+    void remove(GObject object)
+    {
+        final Node node = object.mNode;
+        if (node == null) {
+            return;
+        }
+
+        // First child always sits directly after its parent
+        while (node.mChildCount > 0) {
+            detach(mNodes[node.mPosition + 1].mObject);
+        }
+        detach(object);
+    }
+
+    /**
+     * <p>Gets the {@link GObject} a GObject is attached to.</p>
+     *
+     * @param child child.
+     * @return parent, or null if not attached.
+     */
+    public GObject getParent(GObject child)
+    {
+        final Node node = child.mNode;
+        return (node == null || node.mParent == null) ? null : node.mParent.mObject;
+    }
+
+    /**
+     * <p>Gets the number of {@link GObject}s attached directly to a GObject.</p>
+     *
+     * @param parent parent.
+     * @return child count.
+     */
+    public int getChildCount(GObject parent)
+    {
+        final Node node = parent.mNode;
+        return (node == null) ? 0 : node.mChildCount;
+    }
+
+    /**
+     * <p>Sets an attached {@link GObject}'s offset and rotation relative to its parent. The child is moved on the
+     * next {@link #update()}.</p>
+     *
+     * @param child child.
+     * @param x offset from the parent's center to the child's center along x, before the parent's rotation.
+     * @param y offset from the parent's center to the child's center along y, before the parent's rotation.
+     * @param rotation angle in radians added to the parent's rotation.
+     * @throws IllegalStateException if child is not attached.
+     */
+    public void setLocal(GObject child, float x, float y, double rotation)
+    {
+        final Node node = child.mNode;
+        if (node == null || node.mParent == null) {
+            throw new IllegalStateException("GObject is not attached, id: " + child.getId());
+        }
+
+        node.mLocalX = x;
+        node.mLocalY = y;
+        node.mLocalRotation = rotation;
+        node.mReplace = true;
+    }
+
+    /**
+     * <p>Repositions every attached {@link GObject} whose parent moved since the last update, and those below
+     * them, in a single pass.</p>
+     */
+    public void update()
+    {
+        for (int i = 0; i < mSize; i++) {
+            final Node node = mNodes[i];
+            final Node parent = node.mParent;
+            boolean moved = node.mDirty;
+
+            // Parent was finished earlier in the pass
+            if (parent != null) {
+                if (parent.mMoved || node.mReplace) {
+                    place(node);
+                    moved = true;
+                } else if (moved) {
+                    measure(node);
+                }
+            }
+
+            node.mDirty = false;
+            node.mReplace = false;
+            node.mMoved = moved;
+        }
+    }
+
+    /**
+     * <p>Detaches every {@link GObject}.</p>
+     */
+    public void clear()
+    {
+        for (int i = 0; i < mSize; i++) {
+            mNodes[i].mObject.mNode = null;
+            mNodes[i] = null;
+        }
+        mSize = 0;
+    }
+
+    /**
+     * <p>Gets the number of {@link GObject}s that are either attached or have something attached to them.</p>
+     *
+     * @return node count.
+     */
+    public int size()
+    {
+        return mSize;
+    }
+
+    /**
+     * <p>Makes a child's subtree the last part of a parent's subtree.</p>
+     *
+     * @param child child.
+     * @param parent parent.
+     * @return child's node.
+     * @throws IllegalArgumentException if either GObject is null, both are the same, or parent is attached below
+     * child.
+     */
+    private Node link(GObject child, GObject parent)
+    {
+        if (child == null || parent == null) {
+            throw new IllegalArgumentException("Child and parent may not be null");
+        }
+        if (child == parent) {
+            throw new IllegalArgumentException("GObject cannot be attached to itself, id: " + child.getId());
+        }
+
+        final Node node = nodeOf(child);
+        final Node parentNode = nodeOf(parent);
+        if (parentNode.mPosition > node.mPosition && parentNode.mPosition < node.mEnd) {
+            throw new IllegalArgumentException("Parent is attached below child, id: " + parent.getId());
+        }
+
+        final Node previous = node.mParent;
+        if (previous != null) {
+            previous.mChildCount--;
+        }
+        node.mParent = parentNode;
+        parentNode.mChildCount++;
+
+        // Move child's subtree to just after the parent's other descendants
+        final int at = parentNode.mEnd;
+        if (at >= node.mEnd) {
+            rotate(node.mPosition, node.mEnd, at);
+        } else {
+            rotate(at, node.mPosition, node.mEnd);
+        }
+        computeEnds();
+
+        if (previous != null) {
+            prune(previous);
+        }
+
+        child.setParent(parent);
+        return node;
+    }
+
+    /**
+     * <p>Gets a {@link GObject}'s node, adding one as the last root if the GObject has none.</p>
+     *
+     * @param object GObject.
+     * @return node.
+     */
+    private Node nodeOf(GObject object)
+    {
+        if (object.mNode != null) {
+            return object.mNode;
+        }
+
+        if (mSize == mNodes.length) {
+            final Node[] nodes = new Node[mSize * 2];
+            System.arraycopy(mNodes, 0, nodes, 0, mSize);
+            mNodes = nodes;
+            mScratch = new Node[nodes.length];
+        }
+
+        final Node node = new Node(object);
+        node.mPosition = mSize;
+        node.mEnd = mSize + 1;
+        mNodes[mSize++] = node;
+        object.mNode = node;
+        return node;
+    }
+
+    /**
+     * <p>Removes a node if it is a root with no children, as it then has nothing to propagate.</p>
+     *
+     * @param node node.
+     */
+    private void prune(Node node)
+    {
+        if (node.mParent != null || node.mChildCount > 0) {
+            return;
+        }
+
+        final int position = node.mPosition;
+        System.arraycopy(mNodes, position + 1, mNodes, position, mSize - position - 1);
+        mNodes[--mSize] = null;
+        node.mObject.mNode = null;
+
+        renumber(position, mSize);
+        computeEnds();
+    }
+
+    /**
+     * <p>Swaps two neighbouring ranges of nodes, moving [middle, to) in front of [from, middle).</p>
+     *
+     * @param from first position of the first range.
+     * @param middle first position of the second range.
+     * @param to position after the second range.
+     */
+    private void rotate(int from, int middle, int to)
+    {
+        if (from == middle || middle == to) {
+            return;
+        }
+
+        final int front = middle - from;
+        System.arraycopy(mNodes, from, mScratch, 0, front);
+        System.arraycopy(mNodes, middle, mNodes, from, to - middle);
+        System.arraycopy(mScratch, 0, mNodes, to - front, front);
+
+        for (int i = 0; i < front; i++) {
+            mScratch[i] = null;
+        }
+
+        renumber(from, to);
+    }
+
+    /**
+     * <p>Updates the position stored in each node in a range.</p>
+     *
+     * @param from first position.
+     * @param to position after the last.
+     */
+    private void renumber(int from, int to)
+    {
+        for (int i = from; i < to; i++) {
+            mNodes[i].mPosition = i;
+        }
+    }
+
+    /**
+     * <p>Recomputes where every node's subtree ends. Each parent comes before its children so a single backwards
+     * pass can widen each parent's range by its children's.</p>
+     */
+    private void computeEnds()
+    {
+        for (int i = 0; i < mSize; i++) {
+            mNodes[i].mEnd = i + 1;
+        }
+
+        for (int i = mSize - 1; i >= 0; i--) {
+            final Node node = mNodes[i];
+            final Node parent = node.mParent;
+            if (parent != null && node.mEnd > parent.mEnd) {
+                parent.mEnd = node.mEnd;
+            }
+        }
+    }
+
+    /**
+     * <p>Moves a child to its offset and rotation relative to its parent.</p>
+     *
+     * @param node child's node.
+     */
+    private static void place(Node node)
+    {
+        final GObject object = node.mObject;
+        final GObject parent = node.mParent.mObject;
+
+        // Nothing to position without components
+        if (object.getBodyComponent() == null && object.getImageComponent() == null) {
+            return;
+        }
+
+        final double parentRotation = parent.getRotation();
+        final float cos = (float) Math.cos(parentRotation);
+        final float sin = (float) Math.sin(parentRotation);
+        final float x = parent.getCenterX() + (cos * node.mLocalX) - (sin * node.mLocalY);
+        final float y = parent.getCenterY() + (sin * node.mLocalX) + (cos * node.mLocalY);
+
+        // Rotating moves every vertex so skip it when unchanged
+        final double rotation = parentRotation + node.mLocalRotation;
+        if (object.getRotation() != rotation) {
+            object.rotateTo(rotation);
+        }
+        object.moveToCenter(x, y);
+    }
+
+    /**
+     * <p>Sets a child's offset and rotation from where it currently is relative to its parent.</p>
+     *
+     * @param node child's node.
+     */
+    private static void measure(Node node)
+    {
+        final GObject object = node.mObject;
+        final GObject parent = node.mParent.mObject;
+
+        final double parentRotation = parent.getRotation();
+        final float cos = (float) Math.cos(parentRotation);
+        final float sin = (float) Math.sin(parentRotation);
+        final float dx = object.getCenterX() - parent.getCenterX();
+        final float dy = object.getCenterY() - parent.getCenterY();
+
+        // Undo the parent's rotation
+        node.mLocalX = (cos * dx) + (sin * dy);
+        node.mLocalY = (cos * dy) - (sin * dx);
+        node.mLocalRotation = object.getRotation() - parentRotation;
+    }
+
+    /**
+     * <p>
+     *     A {@link GObject}'s place in the hierarchy.
+     * </p>
+     */
+    static final class Node
+    {
+        // GObject positioned by this node
+        private final GObject mObject;
+
+        // Parent's node; null if root
+        private Node mParent;
+
+        // Position in the depth-first order
+        private int mPosition;
+
+        // Position after the last descendant
+        private int mEnd;
+
+        // Number of direct children
+        private int mChildCount = 0;
+
+        // Offset from parent's center before parent's rotation
+        private float mLocalX;
+        private float mLocalY;
+
+        // Rotation relative to parent's
+        private double mLocalRotation;
+
+        // True if the GObject was moved since the last update
+        boolean mDirty = false;
+
+        // True if the local offset or rotation was set since the last update
+        private boolean mReplace = false;
+
+        // True if the GObject moved during the current update
+        private boolean mMoved = false;
+
+        /**
+         * <p>Constructs a Node.</p>
+         *
+         * @param object GObject.
+         */
+        private Node(GObject object)
+        {
+            mObject = object;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.cinnamon.system;
 
 import com.cinnamon.object.GObject;
 import com.cinnamon.object.GObjectFactory;
+import com.cinnamon.utils.Handle;
 import com.cinnamon.utils.IndexedFactory;
 
 /**
@@ -44,8 +45,7 @@ public abstract class ComponentFactory<E extends ComponentFactory.Component, R>
         private OnOrphanChangedListener mOnOrphanChangedListener;
 
         // Owning GObject's id and version
-        private int mOwnerId = NULL;
-        private int mOwnerVersion = NULL;
+        private long mOwner = Handle.NULL;
 
         /**
          * <p>Gets the owning {@link GObject}'s id.</p>
@@ -54,7 +54,7 @@ public abstract class ComponentFactory<E extends ComponentFactory.Component, R>
          */
         public final int getGObjectId()
         {
-            return mOwnerId;
+            return Handle.getId(mOwner);
         }
 
         /**
@@ -64,7 +64,17 @@ public abstract class ComponentFactory<E extends ComponentFactory.Component, R>
          */
         public final int getGObjectVersion()
         {
-            return mOwnerVersion;
+            return Handle.getVersion(mOwner);
+        }
+
+        /**
+         * <p>Gets the owning {@link GObject}'s id and version packed into a {@link Handle}.</p>
+         *
+         * @return owner's handle, or {@link Handle#NULL} if orphaned.
+         */
+        public final long getOwnerHandle()
+        {
+            return mOwner;
         }
 
         /**
@@ -79,14 +89,12 @@ public abstract class ComponentFactory<E extends ComponentFactory.Component, R>
 
             // Gaining owner
             if (orphan && object != null) {
-                mOwnerId = object.getId();
-                mOwnerVersion = object.getVersion();
+                mOwner = object.getHandle();
                 statusChanged = true;
 
                 // Losing owner
             } else if (!orphan && object == null) {
-                mOwnerId = NULL;
-                mOwnerVersion = NULL;
+                mOwner = Handle.NULL;
                 statusChanged = true;
             } else {
                 // Didn't gain or lose an owner
@@ -106,7 +114,7 @@ public abstract class ComponentFactory<E extends ComponentFactory.Component, R>
          */
         public final boolean isOrphan()
         {
-            return mOwnerId == NULL && mOwnerVersion == NULL;
+            return mOwner == Handle.NULL;
         }
 
         /**
@@ -0,0 +1,73 @@
+package com.cinnamon.system;
+
+import com.cinnamon.object.BodyComponent;
+import com.cinnamon.object.ContactRecords;
+import com.cinnamon.object.Solver;
+
+/**
+ * <p>
+ *     ContactEvents carry every contact between {@link BodyComponent}s that began, persisted, or ended during a
+ *     {@link Solver} update as a single batch of {@link ContactRecords}. When contact recording is enabled through
+ *     {@link Solver#setContactRecordingEnabled(boolean)}, the {@link Game} publishes one ContactEvent per tick in
+ *     which at least one contact was recorded. Handlers interested in specific bodies should check each record with
+ *     {@link ContactRecords#involves(int, int, int)}.
+ * </p>
+ *
+ * <p>
+ *     ContactEvents and their ContactRecords are reused once broadcast and should not be referenced after handling.
+ * </p>
+ */
+public class ContactEvent extends Event
+{
+    // Contacts from a Solver update
+    private ContactRecords mRecords = new ContactRecords();
+
+    // True once the Event has been given to an EventDispatcher
+    private boolean mHandled = false;
+
+    /**
+     * <p>Constructs an empty ContactEvent.</p>
+     */
+    ContactEvent()
+    {
+    }
+
+    /**
+     * <p>Gets the records of all contacts that began, persisted, or ended during the update.</p>
+     *
+     * @return ContactRecords.
+     */
+    public final ContactRecords getRecords()
+    {
+        return mRecords;
+    }
+
+    /**
+     * <p>Sets the records to deliver and prepares the ContactEvent to be broadcast again.</p>
+     *
+     * @param records ContactRecords.
+     */
+    final void setRecords(ContactRecords records)
+    {
+        mRecords = records;
+        mHandled = false;
+        timestamp();
+    }
+
+    /**
+     * <p>Checks if the ContactEvent has been broadcast since its records were last set.</p>
+     *
+     * @return true if handled.
+     */
+    final boolean isHandled()
+    {
+        return mHandled;
+    }
+
+    @Override
+    protected void handle(EventDispatcher distributor)
+    {
+        distributor.process(this);
+        mHandled = true;
+    }
+}
@@ -0,0 +1,8 @@
+package com.cinnamon.system;
+
+/**
+ * Wrapper for an {@link EventHandler} of type {@link ContactEvent}.
+ */
+public interface ContactEventHandler extends EventHandler<ContactEvent>
+{
+}
@@ -4,8 +4,10 @@ import com.cinnamon.gfx.Canvas;
 import com.cinnamon.gfx.ImageComponent;
 import com.cinnamon.object.*;
 import com.cinnamon.utils.Point3F;
+import com.cinnamon.utils.PoolStats;
 import com.cinnamon.utils.Shape;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -25,12 +27,13 @@ import java.util.Set;
  *
  * <p>
  *     The following query commands are supported: shutdown, get ups, get fps, get meta, get gl, get gpu, get
- *     processors, get memory, get resolution, get obj configs, get obj count, get selected, get room, get view.
+ *     processors, get memory, get resolution, get obj configs, get obj count, get selected, get room, get view, get
+ *     physics, get pools.
  * </p>
  *
  * <p>
  *     The following action commands are supported: create obj {@literal <config name>}, destroy selected, constrain
- *     view {@literal <true | false>}.
+ *     view {@literal <true | false>}, profile physics {@literal <true | false>}, reset pools.
  * </p>
  */
 public final class DebugCtrl
@@ -86,6 +89,12 @@ public final class DebugCtrl
     // Print info on selected's BodyComponent
     private static final String GET_BODY = "get body";
 
+    // Print per phase physics measurements
+    private static final String GET_PHYSICS = "get physics";
+
+    // Print object pool hits, misses, and live counts
+    private static final String GET_POOLS = "get pools";
+
     /**
      * The following action commands affect the game and are not simply getting information.
      */
@@ -102,6 +111,12 @@ public final class DebugCtrl
     // Calls view.setRoomConstrained(boolean);
     private static final String SET_VIEW_CONSTRAINT = "constrain view";
 
+    // Calls solver.setProfilingEnabled(boolean);
+    private static final String SET_PHYSICS_PROFILING = "profile physics";
+
+    // Zeroes object pool hits and misses and lowers high-water marks
+    private static final String RESET_POOLS = "reset pools";
+
     // Shuts down the game
     private static final String SHUTDOWN = "shutdown";
 
@@ -139,6 +154,10 @@ public final class DebugCtrl
 
     private static final String HELP_VIEW = " - gets info on View\n";
 
+    private static final String HELP_PHYSICS = " - gets physics phase timings and counters (requires profiling)\n";
+
+    private static final String HELP_POOLS = " - gets object pool hits, misses, live, and high-water counts\n";
+
     private static final String HELP_CREATE_GOBJ = " - creates an object and centers on View. Example: " +
             CREATE_GOBJ + " <configuration>\n";
 
@@ -149,6 +168,11 @@ public final class DebugCtrl
     private static final String HELP_SET_VIEW_CONSTRAINT = " - toggles locking View from leaving room. Example: " +
             SET_VIEW_CONSTRAINT + " <true|false>\n";
 
+    private static final String HELP_SET_PHYSICS_PROFILING = " - toggles physics profiling. Example: " +
+            SET_PHYSICS_PROFILING + " <true|false>\n";
+
+    private static final String HELP_RESET_POOLS = " - resets object pool counters to measure from now on\n";
+
     private static final String HELP_SHUTDOWN = " - ends the game\n";
 
     private static final String HELP_STOP = " - stops receiving console input\n";
@@ -159,6 +183,9 @@ public final class DebugCtrl
     // Game access for resources
     private final Game mGame;
 
+    // Reusable container for physics measurements
+    private final SolverProfiler.Snapshot mPhysicsSnapshot = new SolverProfiler.Snapshot();
+
     /**
      * <p>Constructor for a DebugCtrl.</p>
      *
@@ -223,10 +250,14 @@ public final class DebugCtrl
         builder.append(GET_BODY).append(HELP_BODY);
         builder.append(GET_ROOM).append(HELP_ROOM);
         builder.append(GET_VIEW).append(HELP_VIEW);
+        builder.append(GET_PHYSICS).append(HELP_PHYSICS);
+        builder.append(GET_POOLS).append(HELP_POOLS);
         builder.append(CREATE_GOBJ).append(HELP_CREATE_GOBJ);
         builder.append(DESTROY_SELECTED).append(HELP_DESTROY_SELECTED);
         builder.append(SELECT).append(HELP_SELECT);
         builder.append(SET_VIEW_CONSTRAINT).append(HELP_SET_VIEW_CONSTRAINT);
+        builder.append(SET_PHYSICS_PROFILING).append(HELP_SET_PHYSICS_PROFILING);
+        builder.append(RESET_POOLS).append(HELP_RESET_POOLS);
         builder.append(SHUTDOWN).append(HELP_SHUTDOWN);
         builder.append(DebugConsole.STOP_CMD).append(HELP_STOP);
 
@@ -310,6 +341,12 @@ public final class DebugCtrl
             // Print basic info about the View
             case GET_VIEW:
                 printView(); break;
+            // Print physics phase timings and counters
+            case GET_PHYSICS:
+                printPhysics(); break;
+            // Print object pool counters
+            case GET_POOLS:
+                printPools(); break;
             default:
                 // Unrecognized get command so don't do anything
         }
@@ -556,6 +593,95 @@ public final class DebugCtrl
         }
     }
 
+    /**
+     * <p>Prints the latest, average, and maximum of each physics phase's duration and workload counter as measured by
+     * the {@link Solver}'s {@link SolverProfiler}.</p>
+     */
+    private void printPhysics()
+    {
+        final SolverProfiler profiler = mGame.getSolver().getProfiler();
+        if (profiler == null) {
+            System.out.printf(format("physics profiling is disabled"));
+            return;
+        }
+
+        profiler.getSnapshot(mPhysicsSnapshot);
+        final SolverProfiler.Snapshot snapshot = mPhysicsSnapshot;
+
+        final StringBuilder builder = new StringBuilder();
+        builder.append("physics over ");
+        builder.append(snapshot.getSampleCount());
+        builder.append(" updates\n<phases (microseconds): last, avg, max>\n");
+
+        // List each phase's durations
+        final float nanoToMicro = 1000f;
+        for (int i = 0; i < SolverProfiler.PHASE_COUNT; i++) {
+            builder.append(String.format("    %s(%.1f, %.1f, %.1f)\n", SolverProfiler.getPhaseName(i),
+                    snapshot.getLastDuration(i) / nanoToMicro, snapshot.getAverageDuration(i) / nanoToMicro,
+                    snapshot.getMaxDuration(i) / nanoToMicro));
+        }
+
+        // List each counter
+        builder.append("<counters: last, avg, max>\n");
+        for (int i = 0; i < SolverProfiler.COUNTER_COUNT; i++) {
+            builder.append(String.format("    %s(%d, %.1f, %d)\n", SolverProfiler.getCounterName(i),
+                    snapshot.getLastCount(i), snapshot.getAverageCount(i), snapshot.getMaxCount(i)));
+        }
+
+        // Format and print without trailing newline
+        System.out.printf("%s", format(builder.substring(0, builder.length() - 1)));
+    }
+
+    /**
+     * <p>Prints the {@link PoolStats} of every object pool: the {@link GObject}, {@link BodyComponent}, and
+     * {@link ImageComponent} factories, the input event pools, and the {@link Solver}'s pools.</p>
+     */
+    private void printPools()
+    {
+        final List<PoolStats> pools = collectPools();
+
+        final StringBuilder builder = new StringBuilder();
+        builder.append("<pools: hits, misses, live, high>\n");
+        for (int i = 0, sz = pools.size(); i < sz; i++) {
+            final PoolStats stats = pools.get(i);
+            builder.append(String.format("    %s(%d, %d, %d, %d)\n", stats.getName(), stats.getHits(),
+                    stats.getMisses(), stats.getLive(), stats.getHighWater()));
+        }
+
+        // Format and print without trailing newline
+        System.out.printf("%s", format(builder.substring(0, builder.length() - 1)));
+    }
+
+    /**
+     * <p>Resets the {@link PoolStats} of every object pool.</p>
+     */
+    private void resetPools()
+    {
+        final List<PoolStats> pools = collectPools();
+        for (int i = 0, sz = pools.size(); i < sz; i++) {
+            pools.get(i).reset();
+        }
+
+        System.out.printf(format("pools reset(%d)"), pools.size());
+    }
+
+    /**
+     * <p>Gathers the {@link PoolStats} of every object pool known to the {@link Game}.</p>
+     *
+     * @return pool statistics.
+     */
+    private List<PoolStats> collectPools()
+    {
+        final List<PoolStats> pools = new ArrayList<PoolStats>();
+        pools.add(mGame.getGObjectFactory().getPoolStats());
+        pools.add(mGame.getBodyFactory().getPoolStats());
+        pools.add(mGame.getImageFactory().getPoolStats());
+        pools.add(mGame.getTimers().getPoolStats());
+        mGame.getCanvas().getWindow().getInput().getPoolStats(pools);
+        mGame.getSolver().getPoolStats(pools);
+        return pools;
+    }
+
     /**
      * <p>Prints basic information about the {@link Room}.</p>
      */
@@ -580,6 +706,10 @@ public final class DebugCtrl
         } else if (input.equals(DESTROY_SELECTED)) {
             destroySelected();
 
+            // Restarts object pool measurements
+        } else if (input.equals(RESET_POOLS)) {
+            resetPools();
+
             // Selects the GObject with a specific id and version
         } else if (input.contains(SELECT)) {
             select(input);
@@ -588,6 +718,10 @@ public final class DebugCtrl
         } else if (input.contains(SET_VIEW_CONSTRAINT)) {
             setViewConstraint(input);
 
+            // Sets whether or not the Solver measures each update
+        } else if (input.contains(SET_PHYSICS_PROFILING)) {
+            setPhysicsProfiling(input);
+
             // Calls for the Game to stop
         } else if (input.equals(SHUTDOWN)) {
             mGame.stop();
@@ -647,10 +781,10 @@ public final class DebugCtrl
             return;
         }
 
-        // Remove GObject from game
+        // Remove GObject from game once the tick ends
         final int id = obj.getId();
         final int ver = obj.getVersion();
-        mGame.getGObjectFactory().remove(id, ver);
+        mGame.getGObjectFactory().destroyLater(obj.getHandle());
 
         // Reset selection
         mGame.setSelected(null);
@@ -717,6 +851,31 @@ public final class DebugCtrl
         mGame.getView().setRoomConstrained(enable);
     }
 
+    /**
+     * <p>Sets whether or not the {@link Solver} should measure each update with a {@link SolverProfiler}.</p>
+     *
+     * @param input console input.
+     */
+    private void setPhysicsProfiling(String input)
+    {
+        final String[] tokens = partition(input);
+
+        // Check if at least correct # of tokens
+        if (tokens.length != 3) {
+            return;
+        }
+
+        // Ignore command if boolean value wasn't entered correctly
+        if (!tokens[2].equals("true") && !tokens[2].equals("false")) {
+            return;
+        }
+
+        // Apply profiling toggle
+        final boolean enable = Boolean.valueOf(tokens[2]);
+        mGame.getSolver().setProfilingEnabled(enable);
+        System.out.printf(format("physics profiling(%s)"), enable);
+    }
+
     /**
      * <p>Separates the console input by whitespace and returns each word as an element of an array.</p>
      *
@@ -59,6 +59,10 @@ public final class DefaultEventDispatcher implements EventDispatcher
     private Dispatch<DestroyEvent> mDestroyHandles = new Dispatch<DestroyEvent>();
     private boolean mDestroyChanged = false;
 
+    // ContactEvent handlers
+    private Dispatch<ContactEvent> mContactHandles = new Dispatch<ContactEvent>();
+    private boolean mContactChanged = false;
+
     @Override
     public final void addHandler(KeyEventHandler handler, EventFilter<KeyEvent> filter, int priority)
     {
@@ -87,6 +91,13 @@ public final class DefaultEventDispatcher implements EventDispatcher
         mDestroyChanged = true;
     }
 
+    @Override
+    public final void addHandler(ContactEventHandler handler, EventFilter<ContactEvent> filter, int priority)
+    {
+        mContactHandles.add(handler, filter, priority);
+        mContactChanged = true;
+    }
+
     @Override
     public final void removeHandler(KeyEventHandler handler)
     {
@@ -115,6 +126,13 @@ public final class DefaultEventDispatcher implements EventDispatcher
         mDestroyChanged = true;
     }
 
+    @Override
+    public final void removeHandler(ContactEventHandler handler)
+    {
+        mContactHandles.remove(handler);
+        mContactChanged = true;
+    }
+
     @Override
     public void process(KeyEvent event)
     {
@@ -159,6 +177,17 @@ public final class DefaultEventDispatcher implements EventDispatcher
         DefaultEventDispatcher.triggerHandlers(mDestroyHandles, event);
     }
 
+    @Override
+    public void process(ContactEvent event)
+    {
+        // Update handler call order if added or removed
+        if (mContactChanged) {
+            mSort.sort(mContactHandles.mHandles);
+            mContactChanged = false;
+        }
+        DefaultEventDispatcher.triggerHandlers(mContactHandles, event);
+    }
+
     /**
      * <p>Notifies every {@link EventHandler} in a given {@link Dispatch} of the specified {@link Event}.</p>
      *
@@ -187,6 +216,7 @@ public final class DefaultEventDispatcher implements EventDispatcher
         mMouseHandles.clear();
         mCreateHandles.clear();
         mDestroyHandles.clear();
+        mContactHandles.clear();
     }
 
     /**
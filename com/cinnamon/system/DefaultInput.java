@@ -1,12 +1,14 @@
 package com.cinnamon.system;
 
 import com.cinnamon.utils.Point2F;
+import com.cinnamon.utils.PoolStats;
 import com.cinnamon.utils.PooledQueue;
 import org.lwjgl.glfw.GLFW;
 import org.lwjgl.glfw.GLFWKeyCallback;
 import org.lwjgl.glfw.GLFWMouseButtonCallback;
 import org.lwjgl.glfw.GLFWScrollCallback;
 
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ArrayBlockingQueue;
 
@@ -35,6 +37,10 @@ public final class DefaultInput extends Window.Input
     private final PooledQueue<KeyEvent> mKeyPool = new PooledQueue<>();
     private final PooledQueue<MouseEvent> mMousePool = new PooledQueue<>();
 
+    // Event pool hits, misses, and live events
+    private final PoolStats mKeyStats = new PoolStats("key events");
+    private final PoolStats mMouseStats = new PoolStats("mouse events");
+
     /**
      * <p>Constructor for a DefaultInput.</p>
      *
@@ -57,6 +63,7 @@ public final class DefaultInput extends Window.Input
     {
         // Create KeyEvent but reuse older KeyEvent if possible
         final KeyEvent event;
+        mKeyStats.acquired(!mKeyPool.isEmpty());
         if (mKeyPool.isEmpty()) {
             event = new KeyEvent(key, action);
         } else {
@@ -82,6 +89,7 @@ public final class DefaultInput extends Window.Input
     {
         // Create brand new MouseEvent if necessary
         final MouseEvent event;
+        mMouseStats.acquired(!mMousePool.isEmpty());
         if (mMousePool.isEmpty()) {
             event = new MouseEvent(button, action, x, y);
         } else {
@@ -120,6 +128,13 @@ public final class DefaultInput extends Window.Input
         }
     }
 
+    @Override
+    public void getPoolStats(List<PoolStats> stats)
+    {
+        stats.add(mKeyStats);
+        stats.add(mMouseStats);
+    }
+
     @Override
     public void pollMouse(Point2F position)
     {
@@ -105,6 +105,22 @@ public interface EventDispatcher
      */
     void removeHandler(DestroyEventHandler handler);
 
+    /**
+     * <p>Adds a {@link ContactEventHandler} for processing {@link ContactEvent}s.</p>
+     *
+     * @param handler ContactEventHandler.
+     * @param filter EventFilter for ignoring undesired {@link Event}s.
+     * @param priority value determining event handling order (higher is earlier).
+     */
+    void addHandler(ContactEventHandler handler, EventFilter<ContactEvent> filter, int priority);
+
+    /**
+     * <p>Removes a {@link ContactEventHandler} and its associated {@link EventFilter}.</p>
+     *
+     * @param handler ContactEventHandler.
+     */
+    void removeHandler(ContactEventHandler handler);
+
     /**
      * <p>Notifies any registered {@link KeyEventHandler}s and their {@link EventFilter}s of the targeted {@link Event}
      * .</p>
@@ -137,6 +153,14 @@ public interface EventDispatcher
      */
     void process(DestroyEvent event);
 
+    /**
+     * <p>Notifies any registered {@link ContactEventHandler}s and their {@link EventFilter}s of the targeted
+     * {@link Event}.</p>
+     *
+     * @param event {@link ContactEvent}.
+     */
+    void process(ContactEvent event);
+
     /**
      * <p>Removes all registered {@link EventHandler}s and their associated {@link EventFilter}s.</p>
      */
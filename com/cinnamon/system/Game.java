@@ -5,10 +5,15 @@ import com.cinnamon.object.*;
 import com.cinnamon.system.EventDispatcher.EventFilter;
 import com.cinnamon.system.InputEvent.Action;
 import com.cinnamon.system.MouseEvent.Button;
+import com.cinnamon.utils.Handle;
 import com.cinnamon.utils.Point2F;
+import com.cinnamon.utils.PooledQueue;
+import com.cinnamon.utils.TimerWheel;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * <p>
@@ -64,6 +69,53 @@ public abstract class Game<E extends GObject>
      */
     public static final String DEBUG_MODE = "debug_mode";
 
+    /**
+     * <p>Toggle for running physics on its own thread, overlapping with {@link #onUpdate()}. See
+     * {@link PhysicsPipeline}.</p>
+     */
+    public static final String PIPELINED_PHYSICS = "pipelined_physics";
+
+    /**
+     * <p>Toggle for testing collision candidate pairs on a {@link ForkJoinPool}. See
+     * {@link IterativeSolver#setNarrowPhasePool(ForkJoinPool)}.</p>
+     */
+    public static final String PARALLEL_NARROW_PHASE = "parallel_narrow_phase";
+
+    /**
+     * <p>Toggle for running {@link UpdateSystem}s on a {@link ForkJoinPool}. See {@link SystemScheduler}.</p>
+     */
+    public static final String PARALLEL_SYSTEMS = "parallel_systems";
+
+    /**
+     * <p>Radius, in world units, around the {@link View}'s center outside of which bodies are frozen. See
+     * {@link SimulationRegions}. Freezing is disabled if absent or not > 0.</p>
+     */
+    public static final String FREEZE_RADIUS = "freeze_radius";
+
+    /**
+     * <p>Toggle for keeping all {@link BodyComponent}s' physics quantities in one shared {@link BodyStore}. See
+     * {@link BodyFactory#setPacked(boolean)}.</p>
+     */
+    public static final String PACKED_BODIES = "packed_bodies";
+
+    /**
+     * <p>Toggle for only placing {@link ImageComponent}s onto their {@link BodyComponent}s once per tick and before
+     * drawing, and then only those in view. See {@link GObjectFactory#setImageSyncLazy(boolean)}.</p>
+     */
+    public static final String LAZY_IMAGE_SYNC = "lazy_image_sync";
+
+    /**
+     * <p>Toggle for running the {@link Solver} in deterministic mode and hashing its state after every tick. See
+     * {@link Solver#setDeterministic(boolean)} and {@link #getStateHash()}.</p>
+     */
+    public static final String DETERMINISTIC = "deterministic";
+
+    /**
+     * <p>Seed for the {@link Random} returned by {@link #getRandom()}. If absent, the seed is 0 when
+     * {@link #DETERMINISTIC} is enabled and the current time otherwise.</p>
+     */
+    public static final String RANDOM_SEED = "random_seed";
+
     // Initial number of pixels per world unit for View scalings
     private static final float DEFAULT_VIEW_SCALE = 60f;
 
@@ -109,9 +161,8 @@ public abstract class Game<E extends GObject>
     // Current game room
     private Room mRoom;
 
-    // Currently selected GObject (id-version)
-    private int mSelectedId = -1;
-    private int mSelectedVersion = -1;
+    // Currently selected GObject
+    private long mSelected = Handle.NULL;
 
     /**
      * Services
@@ -129,9 +180,39 @@ public abstract class Game<E extends GObject>
     // Physics and collision handler
     private final Solver mSolver;
 
+    // Runs the Solver on its own thread; null if physics runs on the game thread
+    private PhysicsPipeline mPhysicsPipeline;
+
+    // True if the Solver's simulation region follows the View
+    private final boolean mFreezeAroundView;
+
+    // True if images are placed onto bodies only when drawn
+    private final boolean mLazyImageSync;
+
+    // True if the Solver's state should be hashed after each update
+    private final boolean mDeterministic;
+
+    // Hash of the Solver's state after the latest update
+    private long mStateHash;
+
+    // Shared source of randomness, seeded from properties
+    private final Random mRandom;
+
+    // ContactEvents published but possibly not yet broadcast, oldest first
+    private final PooledQueue<ContactEvent> mContactEventsSent = new PooledQueue<ContactEvent>();
+
+    // Obj pool to recycle broadcast ContactEvents
+    private final PooledQueue<ContactEvent> mContactEventPool = new PooledQueue<ContactEvent>();
+
     // Device input mapping to Actions
     private final ControlMap mControlMap;
 
+    // Per-object logic run before physics each tick
+    private final SystemScheduler mScheduler = new SystemScheduler();
+
+    // Actions and GObject lifetimes scheduled in ticks
+    private final TimerWheel mTimers;
+
     /**
      * Resources
      */
@@ -181,8 +262,47 @@ public abstract class Game<E extends GObject>
             mDCtrl = new DebugCtrl(this);
         }
 
+        // Store bodies' physics quantities together only if requested
+        if (getBooleanProperty(PACKED_BODIES, false)) {
+            getBodyFactory().setPacked(true);
+        }
+
+        // Leave images behind their bodies until drawn only if requested
+        mLazyImageSync = getBooleanProperty(LAZY_IMAGE_SYNC, false);
+        getGObjectFactory().setImageSyncLazy(mLazyImageSync);
+
         // Init physics and collision
-        mSolver = new IterativeSolver(getBodyFactory(), 1f / (float) mTickRate, 30);
+        final IterativeSolver solver = new IterativeSolver(getBodyFactory(), 1f / (float) mTickRate, 30);
+
+        // Spread collision testing and UpdateSystems across cores only if requested, sharing one pool
+        final boolean parallelNarrowPhase = getBooleanProperty(PARALLEL_NARROW_PHASE, false);
+        final boolean parallelSystems = getBooleanProperty(PARALLEL_SYSTEMS, false);
+        final ForkJoinPool pool = (parallelNarrowPhase || parallelSystems) ? new ForkJoinPool() : null;
+        if (parallelNarrowPhase) {
+            solver.setNarrowPhasePool(pool);
+        }
+        if (parallelSystems) {
+            mScheduler.setPool(pool);
+        }
+
+        // Only freeze distant bodies if requested
+        final int freezeRadius = getIntegerProperty(FREEZE_RADIUS, 0);
+        mFreezeAroundView = freezeRadius > 0;
+        if (mFreezeAroundView) {
+            solver.getRegions().setRadius(freezeRadius);
+        }
+
+        // Reproducible runs need both a stable Solver and a known seed
+        mDeterministic = getBooleanProperty(DETERMINISTIC, false);
+        solver.setDeterministic(mDeterministic);
+        final long defaultSeed = (mDeterministic) ? 0L : System.nanoTime();
+        mRandom = new Random((mProperties.containsKey(RANDOM_SEED)) ? getIntegerProperty(RANDOM_SEED, 0) : defaultSeed);
+        mSolver = solver;
+
+        // Move physics to its own thread only if requested
+        if (getBooleanProperty(PIPELINED_PHYSICS, false)) {
+            mPhysicsPipeline = new PhysicsPipeline(mSolver, getGObjectFactory(), getBodyFactory());
+        }
 
         // Use given EventHub or use default if none provided
         final boolean noService = services == null;
@@ -201,6 +321,16 @@ public abstract class Game<E extends GObject>
         // Create fullscreen View
         mView = new View(this, DEFAULT_VIEW_SCALE);
 
+        // Expired GObjects are destroyed along with everything else destroyed that tick
+        mTimers = new TimerWheel(new TimerWheel.OnExpireListener()
+        {
+            @Override
+            public void onExpire(long target)
+            {
+                getGObjectFactory().destroyLater(target);
+            }
+        });
+
         installSystemListeners();
     }
 
@@ -440,12 +570,23 @@ public abstract class Game<E extends GObject>
         final Window window = mCanvas.getWindow();
         window.show();
 
+        // Launch physics thread if pipelined
+        if (mPhysicsPipeline != null) {
+            mPhysicsPipeline.start();
+        }
+
         // Notify loop beginning
         onBegin();
 
         // Loop
         process();
 
+        // Finish any physics in progress before cleanup
+        if (mPhysicsPipeline != null) {
+            mPhysicsPipeline.await();
+            mPhysicsPipeline.stop();
+        }
+
         // Notify game shutting down
         onEnd();
 
@@ -503,6 +644,11 @@ public abstract class Game<E extends GObject>
 
         mRateLogger.start();
 
+        // Frames before the first tick shouldn't interpolate from the origin
+        syncImages();
+        getImageFactory().storePreviousTransforms();
+        mView.storePreviousPosition();
+
         // Begin game loop
         while (mContinue && !window.isClosing()) {
 
@@ -514,6 +660,35 @@ public abstract class Game<E extends GObject>
 
             while (frameDuration >= tickSize) {
 
+                // Lazily placed images must catch up to the previous tick before being remembered, else frames
+                // after several ticks at once would interpolate from an older tick
+                if (mPhysicsPipeline == null) {
+                    syncImages();
+                }
+
+                // Remember where things were drawn from for interpolating between ticks
+                getImageFactory().storePreviousTransforms();
+                mView.storePreviousPosition();
+
+                // Wait for physics from previous tick and publish its results
+                if (mPhysicsPipeline != null) {
+                    mPhysicsPipeline.await();
+                    publishContacts();
+                    hashState();
+
+                    // Physics is idle so the previous tick's destruction can be applied
+                    destroyPending();
+
+                    // Bring attached GObjects to wherever physics and the previous tick moved their parents
+                    getGObjectFactory().getHierarchy().update();
+
+                    // Bodies can only be read for drawing while physics is idle
+                    syncImages();
+                }
+
+                // Fire timers due this tick while physics is idle
+                mTimers.advance();
+
                 // Poll for GLFW events
                 window.pollEvents();
 
@@ -528,12 +703,18 @@ public abstract class Game<E extends GObject>
                 // Deferred ops to subclass
                 onUpdate();
 
+                // Apply destruction and move attached GObjects unless physics is still running
+                if (mPhysicsPipeline == null) {
+                    getGObjectFactory().getHierarchy().update();
+                    destroyPending();
+                }
+
                 frameDuration -= tickSize;
                 mRateLogger.log();
             }
 
-            // Send drawing data
-            onFrameEnd();
+            // Send drawing data partway to the next tick
+            onFrameEnd((float) frameDuration / tickSize);
         }
     }
 
@@ -591,11 +772,91 @@ public abstract class Game<E extends GObject>
         // Execute commands attached to specific InputEvents
         mControlMap.fire();
 
-        // Perform AABB collision tests
-        mSolver.update(getGObjectFactory(), getBodyFactory());
+        // Run per-object logic while physics is idle
+        mScheduler.run(getGObjectFactory());
+
+        // Keep simulating around what's on screen
+        if (mFreezeAroundView) {
+            mSolver.getRegions().setFocus(mView.getCenterX(), mView.getCenterY());
+        }
 
-        // Process View's operations over time (focusing, interpolation)
-        mView.update();
+        // Perform AABB collision tests, either now or alongside onUpdate() if pipelined
+        if (mPhysicsPipeline != null) {
+
+            // Process View's operations over time (focusing, interpolation) before bodies go to the physics thread
+            mView.update();
+            mPhysicsPipeline.launch();
+        } else {
+            mSolver.update(getGObjectFactory(), getBodyFactory());
+            publishContacts();
+            hashState();
+
+            // Process View's operations over time (focusing, interpolation)
+            mView.update();
+        }
+    }
+
+    /**
+     * <p>Removes everything queued for destruction through
+     * {@link com.cinnamon.utils.IndexedFactory#destroyLater(long)}. GObjects go first so that Components they
+     * release are seen as orphans by the following factories.</p>
+     */
+    private void destroyPending()
+    {
+        getGObjectFactory().destroyPending();
+        getBodyFactory().destroyPending();
+        getImageFactory().destroyPending();
+    }
+
+    /**
+     * <p>Places the {@link ImageComponent}s in view onto their {@link BodyComponent}s if {@link #LAZY_IMAGE_SYNC}
+     * was enabled.</p>
+     */
+    private void syncImages()
+    {
+        if (mLazyImageSync) {
+            getImageFactory().syncToBodies(getGObjectFactory(), mView);
+        }
+    }
+
+    /**
+     * <p>Hashes the {@link Solver}'s state after an update if {@link #DETERMINISTIC} was enabled.</p>
+     */
+    private void hashState()
+    {
+        if (mDeterministic) {
+            mStateHash = mSolver.hashState(getBodyFactory());
+        }
+    }
+
+    /**
+     * <p>Sends the contacts recorded during the latest {@link Solver} update as a single {@link ContactEvent} to be
+     * broadcast at the start of the next tick. Nothing is sent if contact recording is disabled or no contacts were
+     * recorded.</p>
+     */
+    private void publishContacts()
+    {
+        if (!mSolver.isContactRecordingEnabled()) {
+            return;
+        }
+
+        // Recycle ContactEvents that have been broadcast
+        while (!mContactEventsSent.isEmpty() && mContactEventsSent.peek().isHandled()) {
+            mContactEventPool.add(mContactEventsSent.poll());
+        }
+
+        // Trade event's old records for the update's
+        final ContactEvent event = (mContactEventPool.isEmpty()) ? new ContactEvent() : mContactEventPool.poll();
+        event.setRecords(mSolver.swapContactRecords(event.getRecords()));
+
+        // Keep event for next time if there's nothing to report
+        if (event.getRecords().isEmpty()) {
+            mContactEventPool.add(event);
+            return;
+        }
+
+        mContactEventsSent.add(event);
+        mEventHub.add(event);
     }
 
     /**
@@ -608,11 +869,21 @@ public abstract class Game<E extends GObject>
      * <p>Called when the game's timing is within the desired rate and there is no pressing need to update the game
      * state. All {@link ImageComponent}s visible and within the current {@link View} are snapshot and sent to the
      * {@link Canvas} for drawing.</p>
+     *
+     * <p>Since a frame rarely lands exactly on a tick, images are drawn interpolated between their transforms at the
+     * start and end of the latest tick. As a result, what is drawn trails the game state by up to one tick.</p>
+     *
+     * @param alpha fraction of a tick accumulated towards the next tick, between 0 and 1.
      */
-    private void onFrameEnd()
+    private void onFrameEnd(float alpha)
     {
         final Canvas.SceneBuffer buffer = getCanvas().getSceneBuffer();
 
+        // Place images left behind their bodies; when pipelined this was done while physics was idle
+        if (mPhysicsPipeline == null) {
+            syncImages();
+        }
+
         // Notify any set listener
         if (mOnFrameEndListener != null) {
             mOnFrameEndListener.onFrameEnd();
@@ -620,7 +891,7 @@ public abstract class Game<E extends GObject>
 
         // Snapshot all visible ImageComponents into the Scene
         final Scene scene = buffer.getWriteScene();
-        scene.add(getImageFactory(), getView());
+        scene.add(getImageFactory(), getView(), alpha);
 
         // Send Scene to be drawn in Canvas
         buffer.flush();
@@ -634,12 +905,12 @@ public abstract class Game<E extends GObject>
      */
     protected final GObject getSelected()
     {
-        // Check for initial state where id and version isn't valid (none selected)
-        if (mSelectedId < 0 || mSelectedVersion < 0) {
+        // Check for initial state where handle isn't valid (none selected)
+        if (mSelected == Handle.NULL) {
             return null;
         }
 
-        return getGObjectFactory().get(mSelectedId, mSelectedVersion);
+        return getGObjectFactory().get(mSelected);
     }
 
     /**
@@ -650,8 +921,7 @@ public abstract class Game<E extends GObject>
      */
     protected final void setSelected(int id, int version)
     {
-        mSelectedId = id;
-        mSelectedVersion = version;
+        mSelected = (id < 0 || version < 0) ? Handle.NULL : Handle.pack(id, version);
     }
 
     /**
@@ -666,7 +936,7 @@ public abstract class Game<E extends GObject>
             setSelected(-1, -1);
         } else {
             // Assign GObject's id-version to selection
-            setSelected(object.getId(), object.getVersion());
+            mSelected = object.getHandle();
         }
     }
 
@@ -713,6 +983,55 @@ public abstract class Game<E extends GObject>
         return mControlMap;
     }
 
+    /**
+     * <p>Gets the {@link SystemScheduler} whose {@link UpdateSystem}s are run over every {@link GObject} each tick,
+     * after Actions are fired and before physics is updated.</p>
+     *
+     * @return SystemScheduler.
+     */
+    protected final SystemScheduler getSystemScheduler()
+    {
+        return mScheduler;
+    }
+
+    /**
+     * <p>Gets the {@link TimerWheel} for scheduling actions a number of ticks ahead. Timers fire at the start of a
+     * tick, before input is polled and while physics is idle, in the order they were scheduled.</p>
+     *
+     * @return TimerWheel.
+     */
+    protected final TimerWheel getTimers()
+    {
+        return mTimers;
+    }
+
+    /**
+     * <p>Schedules a {@link GObject} to be destroyed a number of ticks from now through
+     * {@link com.cinnamon.utils.IndexedFactory#destroyLater(long)}. Nothing happens if the GObject was already
+     * destroyed by then.</p>
+     *
+     * @param handle GObject's handle.
+     * @param ticks ticks until destruction; see {@link #toTicks(long)}.
+     * @return timer handle for {@link TimerWheel#cancel(long)}.
+     * @throws IllegalArgumentException if handle is {@link Handle#NULL} or ticks is < 1.
+     */
+    protected final long destroyAfter(long handle, long ticks)
+    {
+        return mTimers.scheduleExpiry(handle, ticks);
+    }
+
+    /**
+     * <p>Converts a duration to the number of ticks it spans at the set tick rate, rounding up so that the
+     * duration is never cut short.</p>
+     *
+     * @param millis milliseconds.
+     * @return ticks, at least 1.
+     */
+    protected final long toTicks(long millis)
+    {
+        return Math.max(1L, ((millis * mTickRate) + 999L) / 1000L);
+    }
+
     /**
      * <p>Gets the {@link Solver} responsible for all {@link BodyComponent}'s physics computations.</p>
      *
@@ -723,6 +1042,41 @@ public abstract class Game<E extends GObject>
         return mSolver;
     }
 
+    /**
+     * <p>Gets the hash of the {@link Solver}'s state after the latest update. Two runs started with the same
+     * {@link #RANDOM_SEED} and fed the same inputs on the same ticks should produce the same hash every tick; the
+     * first tick whose hashes differ is where the runs diverged.</p>
+     *
+     * @return state hash, or 0 if {@link #DETERMINISTIC} was not enabled.
+     */
+    protected final long getStateHash()
+    {
+        return mStateHash;
+    }
+
+    /**
+     * <p>Gets the shared {@link Random}. Game logic drawing all of its randomness from here stays reproducible
+     * when {@link #RANDOM_SEED} is set or {@link #DETERMINISTIC} is enabled.</p>
+     *
+     * @return Random.
+     */
+    protected final Random getRandom()
+    {
+        return mRandom;
+    }
+
+    /**
+     * <p>Gets the {@link PhysicsPipeline} running the {@link Solver} on its own thread. While pipelined,
+     * {@link #onUpdate()} overlaps with physics and should read bodies through
+     * {@link PhysicsPipeline#getSnapshot()} and change them through the pipeline's queueing methods.</p>
+     *
+     * @return pipeline, or null if {@link #PIPELINED_PHYSICS} was not enabled.
+     */
+    protected final PhysicsPipeline getPhysicsPipeline()
+    {
+        return mPhysicsPipeline;
+    }
+
     /**
      * <p>Gets the {@link EventHub} to propagate {@link Event}s throughout the system.</p>
      *
@@ -893,7 +1247,7 @@ public abstract class Game<E extends GObject>
                 }
 
                 // Get owning GObject
-                final GObject obj = objFactory.get(rend.getGObjectId(), rend.getGObjectVersion());
+                final GObject obj = objFactory.get(rend.getOwnerHandle());
 
                 // Can't test for containment without BodyComponent
                 final BodyComponent body = obj.getBodyComponent();
@@ -905,7 +1259,7 @@ public abstract class Game<E extends GObject>
                 if (body.contains(mouseEvent.getX(), mouseEvent.getY()) && body.isSelectable()) {
 
                     // Save new selected obj's id/version for reference
-                    Game.this.setSelected(obj.getId(), obj.getVersion());
+                    Game.this.setSelected(obj);
 
                     // Allow GObject to handle click operations
                     obj.click(mouseEvent);
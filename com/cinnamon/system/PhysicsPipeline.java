@@ -0,0 +1,373 @@
+package com.cinnamon.system;
+
+import com.cinnamon.object.BodyComponent;
+import com.cinnamon.object.BodyFactory;
+import com.cinnamon.object.BodySnapshot;
+import com.cinnamon.object.GObject;
+import com.cinnamon.object.GObjectFactory;
+import com.cinnamon.object.Solver;
+import com.cinnamon.utils.Handle;
+import com.cinnamon.utils.PooledQueue;
+import com.cinnamon.utils.Vector2F;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * <p>
+ *     Runs {@link Solver} updates on a dedicated {@link Thread} so that physics for the next tick overlaps with game
+ *     logic for the current tick.
+ * </p>
+ *
+ * <p>
+ *     Each tick begins with {@link #await()}, which blocks until the physics update launched during the previous tick
+ *     has finished, moves {@link GObject}s to their bodies, and publishes a {@link BodySnapshot} of that update's
+ *     results. Until {@link #launch()} is called, the physics thread is idle and bodies and factories may be modified
+ *     directly (e.g. by input handlers). launch() applies all commands queued since the last launch and begins the
+ *     next physics update.
+ * </p>
+ *
+ * <p>
+ *     Between launch() and the next await(), {@link BodyComponent}s, the {@link BodyFactory}, and the
+ *     {@link GObjectFactory} belong to the physics thread. Game logic running in that window should read body state
+ *     through {@link #getSnapshot()} and request changes through the queueing methods such as
+ *     {@link #addImpulse(BodyComponent, Vector2F)}, {@link #remove(GObject)}, and {@link #execute(Runnable)}.
+ *     Queued commands are applied in the order they were queued.
+ * </p>
+ *
+ * <p>
+ *     Only {@link #stop()} is thread-safe. All other methods must be called from the game thread.
+ * </p>
+ */
+public final class PhysicsPipeline
+{
+    // Command to add an impulse to a body
+    private static final int CMD_IMPULSE = 0;
+
+    // Command to set a body's velocity
+    private static final int CMD_VELOCITY = 1;
+
+    // Command to remove a GObject
+    private static final int CMD_REMOVE = 2;
+
+    // Command to run arbitrary code
+    private static final int CMD_RUNNABLE = 3;
+
+    // Physics steps run here
+    private final Thread mThread = new Thread(new Runnable()
+    {
+        @Override
+        public void run()
+        {
+            process();
+        }
+    }, "physics");
+
+    // Permits the physics thread to run one update
+    private final Semaphore mLaunch = new Semaphore(0);
+
+    // Permit released when the physics thread's update is done
+    private final Semaphore mDone = new Semaphore(0);
+
+    // Whether or not the physics thread should exit
+    private volatile boolean mStop = false;
+
+    // Error that ended the physics thread; null while physics is healthy
+    private volatile Throwable mFailure;
+
+    // True if an update was launched and has not been awaited
+    private boolean mRunning = false;
+
+    // Physics to run
+    private final Solver mSolver;
+
+    // GObject lookup
+    private final GObjectFactory mObjectFactory;
+
+    // Body lookup
+    private final BodyFactory mBodyFactory;
+
+    // Snapshot readable by game logic
+    private BodySnapshot mFront = new BodySnapshot();
+
+    // Snapshot captured by the physics thread
+    private BodySnapshot mBack = new BodySnapshot();
+
+    // Commands to apply at the next launch
+    private final PooledQueue<Command> mCommands = new PooledQueue<Command>();
+
+    // Obj pool to recycle Commands
+    private final PooledQueue<Command> mCommandPool = new PooledQueue<Command>();
+
+    // Vector for applying commands
+    private final Vector2F mVector = new Vector2F();
+
+    /**
+     * <p>Constructs a PhysicsPipeline.</p>
+     *
+     * @param solver physics.
+     * @param objectFactory GObject lookup.
+     * @param bodyFactory body lookup.
+     */
+    PhysicsPipeline(Solver solver, GObjectFactory objectFactory, BodyFactory bodyFactory)
+    {
+        mSolver = solver;
+        mObjectFactory = objectFactory;
+        mBodyFactory = bodyFactory;
+
+        // GObjects are moved during await() on the game thread
+        mSolver.setSyncDeferred(true);
+
+        mThread.setDaemon(true);
+    }
+
+    /**
+     * <p>Starts the physics thread. This method must only be called once.</p>
+     */
+    void start()
+    {
+        mThread.start();
+    }
+
+    /**
+     * <p>Requests the physics thread to exit once it finishes any update in progress. This method is thread-safe.</p>
+     */
+    void stop()
+    {
+        mStop = true;
+        mThread.interrupt();
+    }
+
+    /**
+     * <p>Blocks until the physics update started by the last {@link #launch()} has finished, then moves all
+     * {@link GObject}s to their bodies and publishes the update's {@link BodySnapshot}. If no update is in
+     * progress, this method returns immediately.</p>
+     *
+     * @throws IllegalStateException if the physics update failed.
+     */
+    void await()
+    {
+        // Nothing to wait on
+        if (!mRunning) {
+            return;
+        }
+
+        mDone.acquireUninterruptibly();
+        mRunning = false;
+
+        // Physics thread has exited so surface its error on the game thread
+        final Throwable failure = mFailure;
+        if (failure != null) {
+            throw new IllegalStateException("Physics update failed", failure);
+        }
+
+        // Publish physics thread's snapshot
+        final BodySnapshot front = mFront;
+        mFront = mBack;
+        mBack = front;
+
+        // Bring GObjects (and their images) up to date with their bodies
+        mSolver.synchronize(mObjectFactory, mBodyFactory);
+    }
+
+    /**
+     * <p>Applies all queued commands and starts a physics update on the physics thread.</p>
+     *
+     * @throws IllegalStateException if a launched update has not yet been awaited or a previous update failed.
+     */
+    void launch()
+    {
+        if (mRunning) {
+            throw new IllegalStateException("Previous physics update must be awaited before launching another");
+        }
+
+        // Physics thread is gone and would never finish another update
+        final Throwable failure = mFailure;
+        if (failure != null) {
+            throw new IllegalStateException("Physics thread stopped after a failed update", failure);
+        }
+
+        applyCommands();
+
+        mRunning = true;
+        mLaunch.release();
+    }
+
+    /**
+     * <p>Runs physics updates as they are launched until stopped or an update fails. A failure is kept for the game
+     * thread to rethrow from {@link #await()}.</p>
+     */
+    private void process()
+    {
+        while (!mStop) {
+            try {
+                mLaunch.acquire();
+            } catch (InterruptedException e) {
+                // Woken to exit
+                continue;
+            }
+
+            try {
+                mSolver.update(mObjectFactory, mBodyFactory);
+                mBack.capture(mBodyFactory);
+
+            } catch (Throwable e) {
+                // Keep the error for the game thread and exit as state may be inconsistent
+                mFailure = e;
+                return;
+
+            } finally {
+                // Never leave the game thread waiting
+                mDone.release();
+            }
+        }
+    }
+
+    /**
+     * <p>Gets the {@link BodySnapshot} captured at the end of the most recently awaited physics update.</p>
+     *
+     * @return snapshot.
+     */
+    public BodySnapshot getSnapshot()
+    {
+        return mFront;
+    }
+
+    /**
+     * <p>Queues an impulse to be added to a {@link BodyComponent} at the next launch. The impulse is copied.</p>
+     *
+     * @param body body.
+     * @param impulse impulse.
+     */
+    public void addImpulse(BodyComponent body, Vector2F impulse)
+    {
+        final Command command = getCommand(CMD_IMPULSE);
+        command.mTarget = body.getHandle();
+        command.mX = impulse.getX();
+        command.mY = impulse.getY();
+        mCommands.add(command);
+    }
+
+    /**
+     * <p>Queues a velocity to be set on a {@link BodyComponent} at the next launch. The velocity is copied.</p>
+     *
+     * @param body body.
+     * @param velocity velocity.
+     */
+    public void setVelocity(BodyComponent body, Vector2F velocity)
+    {
+        final Command command = getCommand(CMD_VELOCITY);
+        command.mTarget = body.getHandle();
+        command.mX = velocity.getX();
+        command.mY = velocity.getY();
+        mCommands.add(command);
+    }
+
+    /**
+     * <p>Queues a {@link GObject} to be removed from its factory at the next launch.</p>
+     *
+     * @param object game object.
+     */
+    public void remove(GObject object)
+    {
+        final Command command = getCommand(CMD_REMOVE);
+        command.mTarget = object.getHandle();
+        mCommands.add(command);
+    }
+
+    /**
+     * <p>Queues a {@link Runnable} to be run at the next launch while the physics thread is idle. This is meant for
+     * operations such as spawning {@link GObject}s that must modify factories or bodies.</p>
+     *
+     * @param runnable operation.
+     * @throws IllegalArgumentException if runnable is null.
+     */
+    public void execute(Runnable runnable)
+    {
+        if (runnable == null) {
+            throw new IllegalArgumentException("Runnable may not be null");
+        }
+
+        final Command command = getCommand(CMD_RUNNABLE);
+        command.mRunnable = runnable;
+        mCommands.add(command);
+    }
+
+    /**
+     * <p>Applies and recycles all queued commands in order. Commands targeting removed objects are dropped.</p>
+     */
+    private void applyCommands()
+    {
+        while (!mCommands.isEmpty()) {
+            final Command command = mCommands.poll();
+
+            switch (command.mType) {
+                case CMD_IMPULSE:
+                    final BodyComponent impulsed = mBodyFactory.get(command.mTarget);
+                    if (impulsed != null) {
+                        mVector.set(command.mX, command.mY);
+                        impulsed.addImpulse(mVector);
+                    }
+                    break;
+
+                case CMD_VELOCITY:
+                    final BodyComponent moved = mBodyFactory.get(command.mTarget);
+                    if (moved != null) {
+                        mVector.set(command.mX, command.mY);
+                        moved.setVelocity(mVector);
+                    }
+                    break;
+
+                case CMD_REMOVE:
+                    mObjectFactory.remove(command.mTarget);
+                    break;
+
+                case CMD_RUNNABLE:
+                    command.mRunnable.run();
+                    break;
+
+                default:
+                    // Unknown commands are ignored
+            }
+
+            // Recycle
+            command.mRunnable = null;
+            mCommandPool.add(command);
+        }
+    }
+
+    /**
+     * <p>Gets a {@link Command}, reusing an old one if available.</p>
+     *
+     * @param type command type.
+     * @return Command.
+     */
+    private Command getCommand(int type)
+    {
+        final Command command = (mCommandPool.isEmpty()) ? new Command() : mCommandPool.poll();
+        command.mType = type;
+        return command;
+    }
+
+    /**
+     * <p>
+     *     Deferred change to be applied while the physics thread is idle.
+     * </p>
+     */
+    private static class Command
+    {
+        // Kind of change
+        private int mType;
+
+        // Target's handle
+        private long mTarget = Handle.NULL;
+
+        // Vector x
+        private float mX;
+
+        // Vector y
+        private float mY;
+
+        // Arbitrary operation
+        private Runnable mRunnable;
+    }
+}
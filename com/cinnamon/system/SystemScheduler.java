@@ -0,0 +1,329 @@
+package com.cinnamon.system;
+
+import com.cinnamon.object.GObjectFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>
+ *     Runs {@link UpdateSystem}s over every {@link com.cinnamon.object.GObject} once per tick. Systems are grouped
+ *     into stages such that no two systems in a stage conflict over a component type, and stages run one after
+ *     another. A system is placed in the stage after the last one holding a system it conflicts with, so systems
+ *     that conflict always run in the order they were added while systems that don't may run at the same time.
+ * </p>
+ *
+ * <p>
+ *     When given a {@link ForkJoinPool}, each stage's systems are split into chunks of the dense object listing
+ *     and every chunk of the stage is run in parallel. Without a pool, or when a stage has too little work to be worth
+ *     splitting, systems run on the calling thread in the order they were added.
+ * </p>
+ */
+public final class SystemScheduler
+{
+    // Initial number of systems
+    private static final int LOAD = 8;
+
+    // Fewer chunks than this in a stage are run on the calling thread
+    private static final int PARALLEL_THRESHOLD = 2;
+
+    // Systems in the order they were added
+    private final List<UpdateSystem> mSystems = new ArrayList<UpdateSystem>(LOAD);
+
+    // Systems grouped into non-conflicting stages; index = stage
+    private final List<List<UpdateSystem>> mStages = new ArrayList<List<UpdateSystem>>();
+
+    // True if systems were added or removed since stages were last built
+    private boolean mStagesChanged = false;
+
+    // Reusable task for each chunk of a stage; index = chunk
+    private Chunk[] mChunks = new Chunk[0];
+
+    // Reusable task forking all chunks of a stage
+    private final AllChunks mAllChunks = new AllChunks();
+
+    // Objects being updated during run()
+    private GObjectFactory<?> mFactory;
+
+    // Pool to run chunks on, null to always run on the calling thread
+    private ForkJoinPool mPool;
+
+    /**
+     * <p>Adds an {@link UpdateSystem} to be run after those already added that it conflicts with.</p>
+     *
+     * @param system system.
+     * @throws IllegalArgumentException if system is null.
+     * @throws IllegalStateException if system was already added.
+     */
+    public void add(UpdateSystem system)
+    {
+        if (system == null) {
+            throw new IllegalArgumentException("UpdateSystem may not be null");
+        }
+        if (mSystems.contains(system)) {
+            throw new IllegalStateException("UpdateSystem was already added");
+        }
+
+        mSystems.add(system);
+        mStagesChanged = true;
+    }
+
+    /**
+     * <p>Removes an {@link UpdateSystem}.</p>
+     *
+     * @param system system.
+     * @return true if the system had been added.
+     */
+    public boolean remove(UpdateSystem system)
+    {
+        final boolean removed = mSystems.remove(system);
+        mStagesChanged |= removed;
+        return removed;
+    }
+
+    /**
+     * <p>Removes all {@link UpdateSystem}s.</p>
+     */
+    public void clear()
+    {
+        mSystems.clear();
+        mStagesChanged = true;
+    }
+
+    /**
+     * <p>Gets the number of {@link UpdateSystem}s.</p>
+     *
+     * @return system count.
+     */
+    public int size()
+    {
+        return mSystems.size();
+    }
+
+    /**
+     * <p>Gets the number of stages the {@link UpdateSystem}s are grouped into. Systems in the same stage may run at
+     * the same time.</p>
+     *
+     * @return stage count.
+     */
+    public int getStageCount()
+    {
+        buildStagesIfChanged();
+        return mStages.size();
+    }
+
+    /**
+     * <p>Gets the {@link ForkJoinPool} systems are run on.</p>
+     *
+     * @return pool, or null if running on the calling thread.
+     */
+    public ForkJoinPool getPool()
+    {
+        return mPool;
+    }
+
+    /**
+     * <p>Sets the {@link ForkJoinPool} to run systems on.</p>
+     *
+     * @param pool pool, or null to run on the calling thread.
+     */
+    public void setPool(ForkJoinPool pool)
+    {
+        mPool = pool;
+    }
+
+    /**
+     * <p>Runs every {@link UpdateSystem} over all objects in a factory, stage by stage. No object may be added or
+     * removed from the factory until this method returns.</p>
+     *
+     * @param factory objects.
+     */
+    public void run(GObjectFactory<?> factory)
+    {
+        if (mSystems.isEmpty()) {
+            return;
+        }
+        buildStagesIfChanged();
+
+        mFactory = factory;
+        for (int i = 0, sz = mStages.size(); i < sz; i++) {
+            runStage(mStages.get(i));
+        }
+        mFactory = null;
+    }
+
+    /**
+     * <p>Runs one stage's {@link UpdateSystem}s, splitting them into chunks to run in parallel if a pool was set.</p>
+     *
+     * @param stage systems.
+     */
+    private void runStage(List<UpdateSystem> stage)
+    {
+        final int systemCount = stage.size();
+        for (int i = 0; i < systemCount; i++) {
+            stage.get(i).onBegin();
+        }
+
+        final int objCount = mFactory.size();
+
+        // Split every system's objects into chunks
+        int chunkCount = 0;
+        if (mPool != null) {
+            for (int i = 0; i < systemCount; i++) {
+                final UpdateSystem system = stage.get(i);
+                final int chunkSize = system.getChunkSize();
+
+                for (int from = 0; from < objCount; from += chunkSize) {
+                    ensureChunks(chunkCount + 1);
+                    mChunks[chunkCount++].set(system, from, Math.min(from + chunkSize, objCount));
+                }
+            }
+        }
+
+        if (chunkCount < PARALLEL_THRESHOLD) {
+            for (int i = 0; i < systemCount; i++) {
+                stage.get(i).update(mFactory, 0, objCount);
+            }
+        } else {
+
+            // Tasks can only be reused once reset
+            for (int i = 0; i < chunkCount; i++) {
+                mChunks[i].reinitialize();
+            }
+            mAllChunks.reinitialize();
+            mAllChunks.mCount = chunkCount;
+
+            mPool.invoke(mAllChunks);
+        }
+
+        // Drop system references so removed systems aren't held onto
+        for (int i = 0; i < chunkCount; i++) {
+            mChunks[i].mSystem = null;
+        }
+
+        for (int i = 0; i < systemCount; i++) {
+            stage.get(i).onEnd();
+        }
+    }
+
+    /**
+     * <p>Regroups the {@link UpdateSystem}s into stages if any were added or removed since the last grouping.</p>
+     */
+    private void buildStagesIfChanged()
+    {
+        if (!mStagesChanged) {
+            return;
+        }
+        mStagesChanged = false;
+        mStages.clear();
+
+        for (int i = 0, sz = mSystems.size(); i < sz; i++) {
+            final UpdateSystem system = mSystems.get(i);
+
+            // Find the earliest stage after every stage holding a conflicting system
+            int stage = 0;
+            for (int s = mStages.size() - 1; s >= 0 && stage == 0; s--) {
+                final List<UpdateSystem> systems = mStages.get(s);
+                for (int j = 0, count = systems.size(); j < count; j++) {
+                    if (system.conflictsWith(systems.get(j))) {
+                        stage = s + 1;
+                        break;
+                    }
+                }
+            }
+
+            if (stage == mStages.size()) {
+                mStages.add(new ArrayList<UpdateSystem>());
+            }
+            mStages.get(stage).add(system);
+        }
+    }
+
+    /**
+     * <p>Makes sure there are enough chunk tasks.</p>
+     *
+     * @param count number of chunks.
+     */
+    private void ensureChunks(int count)
+    {
+        if (count <= mChunks.length) {
+            return;
+        }
+
+        final Chunk[] chunks = new Chunk[Math.max(count, mChunks.length * 2)];
+        System.arraycopy(mChunks, 0, chunks, 0, mChunks.length);
+
+        for (int i = mChunks.length; i < chunks.length; i++) {
+            chunks[i] = new Chunk();
+        }
+
+        mChunks = chunks;
+    }
+
+    /**
+     * <p>
+     *     Forks every chunk except the first, runs the first on the current thread, then waits for the rest.
+     * </p>
+     */
+    @SuppressWarnings("serial")
+    private final class AllChunks extends RecursiveAction
+    {
+        // Number of chunks to run
+        private int mCount;
+
+        @Override
+        protected void compute()
+        {
+            for (int i = 1; i < mCount; i++) {
+                mChunks[i].fork();
+            }
+
+            mChunks[0].invoke();
+
+            // Join most recently forked first as those are least likely to have been stolen
+            for (int i = mCount - 1; i > 0; i--) {
+                mChunks[i].join();
+            }
+        }
+    }
+
+    /**
+     * <p>
+     *     Updates one range of objects with one {@link UpdateSystem}.
+     * </p>
+     */
+    @SuppressWarnings("serial")
+    private final class Chunk extends RecursiveAction
+    {
+        // System to run
+        private UpdateSystem mSystem;
+
+        // First position
+        private int mFrom;
+
+        // Position after the last
+        private int mTo;
+
+        /**
+         * <p>Sets the system and range of objects to run.</p>
+         *
+         * @param system system.
+         * @param from first position.
+         * @param to position after the last.
+         */
+        private void set(UpdateSystem system, int from, int to)
+        {
+            mSystem = system;
+            mFrom = from;
+            mTo = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            mSystem.update(mFactory, mFrom, mTo);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.cinnamon.system;
+
+import com.cinnamon.object.GObject;
+import com.cinnamon.object.GObjectFactory;
+
+/**
+ * <p>
+ *     Per-object game logic, such as AI or animation, run once per tick by a {@link SystemScheduler} over every
+ *     {@link GObject}. Each UpdateSystem declares which component types it reads and which it writes, e.g.
+ *     {@link GObject}, {@link com.cinnamon.object.BodyComponent}, or {@link com.cinnamon.gfx.ImageComponent}, so that
+ *     systems which can't interfere with each other may be run at the same time.
+ * </p>
+ *
+ * <p>
+ *     When the scheduler has a pool, {@link #update(GObject)} may be called for different objects on different
+ *     threads at once. An update must then only read and write the given object and its own components, of the
+ *     declared types, and must not add or remove objects or components. {@link #onBegin()} and {@link #onEnd()} are
+ *     always called on the game thread, before and after all of a tick's updates, and are where work such as
+ *     {@link com.cinnamon.utils.IndexedFactory#destroyLater(long)} should be queued.
+ * </p>
+ */
+public abstract class UpdateSystem
+{
+    // Objects updated by each task when split across threads
+    private static final int DEFAULT_CHUNK_SIZE = 64;
+
+    // Component types read but not written
+    private final Class<?>[] mReads;
+
+    // Component types written, and possibly read
+    private final Class<?>[] mWrites;
+
+    // Objects updated by each task
+    private int mChunkSize = DEFAULT_CHUNK_SIZE;
+
+    /**
+     * <p>Constructs an UpdateSystem.</p>
+     *
+     * @param reads component types only read.
+     * @param writes component types written.
+     * @throws IllegalArgumentException if either array is null or holds null.
+     */
+    protected UpdateSystem(Class<?>[] reads, Class<?>[] writes)
+    {
+        checkTypes(reads);
+        checkTypes(writes);
+
+        mReads = reads.clone();
+        mWrites = writes.clone();
+    }
+
+    /**
+     * <p>Checks a declared array of component types.</p>
+     *
+     * @param types component types.
+     * @throws IllegalArgumentException if types is null or holds null.
+     */
+    private static void checkTypes(Class<?>[] types)
+    {
+        if (types == null) {
+            throw new IllegalArgumentException("Component types may not be null");
+        }
+
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == null) {
+                throw new IllegalArgumentException("Component type may not be null, position: " + i);
+            }
+        }
+    }
+
+    /**
+     * <p>Called on the game thread before any object is updated in a tick.</p>
+     */
+    protected void onBegin()
+    {
+
+    }
+
+    /**
+     * <p>Updates one {@link GObject}.</p>
+     *
+     * @param object object.
+     */
+    protected abstract void update(GObject object);
+
+    /**
+     * <p>Called on the game thread after every object has been updated in a tick.</p>
+     */
+    protected void onEnd()
+    {
+
+    }
+
+    /**
+     * <p>Gets the number of objects updated by each task when the system is split across threads.</p>
+     *
+     * @return chunk size.
+     */
+    public final int getChunkSize()
+    {
+        return mChunkSize;
+    }
+
+    /**
+     * <p>Sets the number of objects updated by each task when the system is split across threads. Cheap updates
+     * should use larger chunks so each task is worth handing to another thread.</p>
+     *
+     * @param size chunk size.
+     * @throws IllegalArgumentException if size is < 1.
+     */
+    public final void setChunkSize(int size)
+    {
+        if (size < 1) {
+            throw new IllegalArgumentException("Chunk size must be >= 1, size: " + size);
+        }
+
+        mChunkSize = size;
+    }
+
+    /**
+     * <p>Checks if this system and another may not run at the same time. Two systems conflict if either writes a
+     * component type the other reads or writes. A type is treated as the same as its subtypes.</p>
+     *
+     * @param other other system.
+     * @return true if the systems must run one after the other.
+     */
+    final boolean conflictsWith(UpdateSystem other)
+    {
+        return overlaps(mWrites, other.mWrites) || overlaps(mWrites, other.mReads)
+                || overlaps(mReads, other.mWrites);
+    }
+
+    /**
+     * <p>Checks if any type in one array is the same as, a subtype of, or a supertype of any type in another.</p>
+     *
+     * @param types component types.
+     * @param others other component types.
+     * @return true if any pair of types is related.
+     */
+    private static boolean overlaps(Class<?>[] types, Class<?>[] others)
+    {
+        for (final Class<?> type : types) {
+            for (final Class<?> other : others) {
+                if (type.isAssignableFrom(other) || other.isAssignableFrom(type)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * <p>Updates a range of objects in a factory's dense listing.</p>
+     *
+     * @param factory objects.
+     * @param from first position.
+     * @param to position after the last.
+     */
+    final void update(GObjectFactory<?> factory, int from, int to)
+    {
+        for (int i = from; i < to; i++) {
+            update(factory.getAt(i));
+        }
+    }
+}
@@ -165,6 +165,12 @@ public final class View implements Positional
     // Y position in world units
     private float mWorldY;
 
+    // X position in world units at the start of the current game tick
+    private float mPrevWorldX;
+
+    // Y position in world units at the start of the current game tick
+    private float mPrevWorldY;
+
     // GObject to center on in each game update
     private GObject mFocus;
 
@@ -963,17 +969,31 @@ public final class View implements Positional
      * @return true if the Drawable intersects the View's rectangle.
      */
     public boolean intersects(Drawable drawable)
+    {
+        return intersects(drawable.getX(), drawable.getY(), drawable.getWidth(), drawable.getHeight());
+    }
+
+    /**
+     * <p>Checks if at least a part of a rectangle in world space is within the View's bounds.</p>
+     *
+     * @param x world x of the bottom left corner.
+     * @param y world y of the bottom left corner.
+     * @param width width in world units.
+     * @param height height in world units.
+     * @return true if the rectangle intersects the View's rectangle.
+     */
+    public boolean intersects(float x, float y, float width, float height)
     {
         // Compute position in pixels
-        final float x = drawable.getX() * mPxPerUnit;
-        final float y = drawable.getY() * mPxPerUnit;
+        final float left = x * mPxPerUnit;
+        final float bottom = y * mPxPerUnit;
 
         // Compute dimensions in pixels
-        final float cornerX = x + (drawable.getWidth() * mPxPerUnit);
-        final float cornerY = y + (drawable.getHeight() * mPxPerUnit);
+        final float cornerX = left + (width * mPxPerUnit);
+        final float cornerY = bottom + (height * mPxPerUnit);
 
         // Test for intersection
-        return mBoundary.intersects(x, y, cornerX, cornerY);
+        return mBoundary.intersects(left, bottom, cornerX, cornerY);
     }
 
     /**
@@ -985,9 +1005,28 @@ public final class View implements Positional
      */
     public void transform(Drawable drawable)
     {
+        transform(drawable, 1f);
+    }
+
+    /**
+     * <p>Changes a {@link Drawable}'s position and size relative to the View's position and scale, where the View's
+     * position is interpolated between its position at the start of the current game tick and its current position.
+     * This allows drawing between game ticks without the View visibly stepping from one tick to the next.</p>
+     *
+     * @param drawable drawable.
+     * @param alpha fraction of a tick since the current position was set, between 0 and 1.
+     */
+    public void transform(Drawable drawable, float alpha)
+    {
+        // Interpolate view's offset in pixels
+        final float prevX = mPrevWorldX * mPxPerUnit;
+        final float prevY = mPrevWorldY * mPxPerUnit;
+        final float offsetX = prevX + ((mBoundary.getX() - prevX) * alpha);
+        final float offsetY = prevY + ((mBoundary.getY() - prevY) * alpha);
+
         // Compute drawable's position scaled and shifted according to view
-        final float x = (drawable.getX() * mPxPerUnit) - mBoundary.getX();
-        final float y = (drawable.getY() * mPxPerUnit) - mBoundary.getY();
+        final float x = (drawable.getX() * mPxPerUnit) - offsetX;
+        final float y = (drawable.getY() * mPxPerUnit) - offsetY;
 
         // Scale drawable according to view's zoom
         drawable.setWidth(drawable.getWidth() * mPxPerUnit);
@@ -1028,6 +1067,16 @@ public final class View implements Positional
         mFocus = focus;
     }
 
+    /**
+     * <p>Saves the View's current position as the position to interpolate from in
+     * {@link #transform(Drawable, float)}. This should be called at the start of every game tick.</p>
+     */
+    void storePreviousPosition()
+    {
+        mPrevWorldX = mWorldX;
+        mPrevWorldY = mWorldY;
+    }
+
     /**
      * <p>Updates the state to advance operations over time such as interpolating towards a position or a scale or
      * following a focused {@link GObject}.</p>
@@ -1,6 +1,7 @@
 package com.cinnamon.system;
 
 import com.cinnamon.utils.Point2F;
+import com.cinnamon.utils.PoolStats;
 import org.lwjgl.BufferUtils;
 import org.lwjgl.glfw.GLFW;
 import org.lwjgl.glfw.GLFWFramebufferSizeCallbackI;
@@ -552,6 +553,17 @@ public class Window
          */
         abstract void pollMouse(Point2F position);
 
+        /**
+         * <p>Adds the {@link PoolStats} of any {@link InputEvent} pools to a list. The default implementation adds
+         * nothing.</p>
+         *
+         * @param stats list to add to.
+         */
+        public void getPoolStats(List<PoolStats> stats)
+        {
+
+        }
+
         /**
          * <p>Attaches all input handling to the Window and begins translating user input into {@link InputEvent}s.</p>
          */
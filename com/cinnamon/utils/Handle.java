@@ -0,0 +1,62 @@
+package com.cinnamon.utils;
+
+/**
+ * <p>
+ *     Packs the id and version of an {@link IndexedFactory.Identifiable} into a single long so that a reference to a
+ *     specific life of an Identifiable can be stored and passed around as one primitive. The version occupies the
+ *     upper 32 bits and the id the lower 32 bits.
+ * </p>
+ *
+ * <p>
+ *     A handle is checked against its factory with {@link IndexedFactory#isValid(long)}, which compares versions
+ *     without touching the Identifiable itself, and resolved with {@link IndexedFactory#get(long)}.
+ * </p>
+ */
+public final class Handle
+{
+    /**
+     * <p>Handle referring to nothing. Its id and version are both -1.</p>
+     */
+    public static final long NULL = -1L;
+
+    // Mask for the lower 32 bits
+    private static final long ID_MASK = 0xFFFFFFFFL;
+
+    private Handle()
+    {
+    }
+
+    /**
+     * <p>Packs an id and version into a handle.</p>
+     *
+     * @param id id.
+     * @param version version.
+     * @return handle.
+     */
+    public static long pack(int id, int version)
+    {
+        return ((long) version << 32) | (id & ID_MASK);
+    }
+
+    /**
+     * <p>Gets the id of a handle.</p>
+     *
+     * @param handle handle.
+     * @return id.
+     */
+    public static int getId(long handle)
+    {
+        return (int) handle;
+    }
+
+    /**
+     * <p>Gets the version of a handle.</p>
+     *
+     * @param handle handle.
+     * @return version.
+     */
+    public static int getVersion(long handle)
+    {
+        return (int) (handle >>> 32);
+    }
+}
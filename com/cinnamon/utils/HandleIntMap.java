@@ -0,0 +1,260 @@
+package com.cinnamon.utils;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ *     Map from {@link Handle}s to ints kept in two parallel primitive arrays so that neither keys nor values are boxed
+ *     and no entry objects are allocated. Collisions are resolved by linear probing and removal shifts later entries
+ *     back into the gap, so lookups never have to skip past deleted markers.
+ * </p>
+ *
+ * <p>
+ *     {@link Handle#NULL} marks empty slots and so cannot be used as a key.
+ * </p>
+ */
+public final class HandleIntMap
+{
+    // Value returned by get() when a key isn't mapped
+    public static final int MISSING = -1;
+
+    // Fraction of slots that may be used before growing
+    private static final float LOAD_FACTOR = 0.5f;
+
+    // Multiplier for spreading handles across slots (2^64 / golden ratio)
+    private static final long SPREAD = 0x9E3779B97F4A7C15L;
+
+    // Keys; empty slots hold Handle.NULL
+    private long[] mKeys;
+
+    // Values; index = slot
+    private int[] mValues;
+
+    // Number of mapped keys
+    private int mSize = 0;
+
+    // Slot count - 1; slot count is always a power of 2
+    private int mMask;
+
+    // Number of mapped keys before growing
+    private int mThreshold;
+
+    /**
+     * <p>Constructs a HandleIntMap with room for a number of keys before growing.</p>
+     *
+     * @param load expected number of keys.
+     * @throws IllegalArgumentException if load is < 0.
+     */
+    public HandleIntMap(int load)
+    {
+        if (load < 0) {
+            throw new IllegalArgumentException("Load must be >= 0, load: " + load);
+        }
+
+        // Round up to the power of 2 keeping the map below its load factor
+        int capacity = 2;
+        while (capacity * LOAD_FACTOR < load) {
+            capacity <<= 1;
+        }
+
+        allocate(capacity);
+    }
+
+    /**
+     * <p>Gets the value mapped to a key.</p>
+     *
+     * @param handle key.
+     * @return value, or {@link #MISSING} if the key isn't mapped.
+     */
+    public int get(long handle)
+    {
+        final int slot = find(handle);
+        return (slot == -1) ? MISSING : mValues[slot];
+    }
+
+    /**
+     * <p>Checks if a key is mapped.</p>
+     *
+     * @param handle key.
+     * @return true if mapped.
+     */
+    public boolean containsKey(long handle)
+    {
+        return find(handle) != -1;
+    }
+
+    /**
+     * <p>Maps a key to a value, replacing any value already mapped.</p>
+     *
+     * @param handle key.
+     * @param value value.
+     * @return previous value, or {@link #MISSING} if the key wasn't mapped.
+     * @throws IllegalArgumentException if handle is {@link Handle#NULL}.
+     */
+    public int put(long handle, int value)
+    {
+        if (handle == Handle.NULL) {
+            throw new IllegalArgumentException("Handle.NULL cannot be used as a key");
+        }
+
+        int slot = slotOf(handle);
+        while (mKeys[slot] != Handle.NULL) {
+
+            // Replace existing value
+            if (mKeys[slot] == handle) {
+                final int old = mValues[slot];
+                mValues[slot] = value;
+                return old;
+            }
+
+            slot = (slot + 1) & mMask;
+        }
+
+        mKeys[slot] = handle;
+        mValues[slot] = value;
+
+        if (++mSize > mThreshold) {
+            rehash(mKeys.length << 1);
+        }
+        return MISSING;
+    }
+
+    /**
+     * <p>Unmaps a key.</p>
+     *
+     * @param handle key.
+     * @return value that was mapped, or {@link #MISSING} if the key wasn't mapped.
+     */
+    public int remove(long handle)
+    {
+        int slot = find(handle);
+        if (slot == -1) {
+            return MISSING;
+        }
+        final int old = mValues[slot];
+
+        // Shift back each later entry in the probe run that would otherwise be cut off by the gap
+        int next = (slot + 1) & mMask;
+        while (mKeys[next] != Handle.NULL) {
+            final int home = slotOf(mKeys[next]);
+
+            // Entry can fill the gap if its home isn't cyclically between the gap and itself
+            if (((next - home) & mMask) >= ((next - slot) & mMask)) {
+                mKeys[slot] = mKeys[next];
+                mValues[slot] = mValues[next];
+                slot = next;
+            }
+
+            next = (next + 1) & mMask;
+        }
+
+        mKeys[slot] = Handle.NULL;
+        mSize--;
+        return old;
+    }
+
+    /**
+     * <p>Unmaps all keys.</p>
+     */
+    public void clear()
+    {
+        Arrays.fill(mKeys, Handle.NULL);
+        mSize = 0;
+    }
+
+    /**
+     * <p>Gets the number of mapped keys.</p>
+     *
+     * @return key count.
+     */
+    public int size()
+    {
+        return mSize;
+    }
+
+    /**
+     * <p>Checks if size is 0.</p>
+     *
+     * @return true if size == 0.
+     */
+    public boolean isEmpty()
+    {
+        return mSize == 0;
+    }
+
+    /**
+     * <p>Finds the slot holding a key.</p>
+     *
+     * @param handle key.
+     * @return slot, or -1 if the key isn't mapped.
+     */
+    private int find(long handle)
+    {
+        if (handle == Handle.NULL) {
+            return -1;
+        }
+
+        int slot = slotOf(handle);
+        while (mKeys[slot] != Handle.NULL) {
+            if (mKeys[slot] == handle) {
+                return slot;
+            }
+            slot = (slot + 1) & mMask;
+        }
+
+        return -1;
+    }
+
+    /**
+     * <p>Gets the slot a key is first probed at.</p>
+     *
+     * @param handle key.
+     * @return home slot.
+     */
+    private int slotOf(long handle)
+    {
+        // Upper bits of the product are the best mixed
+        return (int) ((handle * SPREAD) >>> 32) & mMask;
+    }
+
+    /**
+     * <p>Replaces the arrays with empty ones of a given capacity.</p>
+     *
+     * @param capacity slot count, a power of 2.
+     */
+    private void allocate(int capacity)
+    {
+        mKeys = new long[capacity];
+        mValues = new int[capacity];
+        Arrays.fill(mKeys, Handle.NULL);
+
+        mMask = capacity - 1;
+        mThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * <p>Moves every entry into new arrays of a given capacity.</p>
+     *
+     * @param capacity slot count, a power of 2.
+     */
+    private void rehash(int capacity)
+    {
+        final long[] keys = mKeys;
+        final int[] values = mValues;
+        allocate(capacity);
+
+        for (int i = 0; i < keys.length; i++) {
+            final long key = keys[i];
+            if (key == Handle.NULL) {
+                continue;
+            }
+
+            int slot = slotOf(key);
+            while (mKeys[slot] != Handle.NULL) {
+                slot = (slot + 1) & mMask;
+            }
+            mKeys[slot] = key;
+            mValues[slot] = values[i];
+        }
+    }
+}
@@ -7,12 +7,31 @@ package com.cinnamon.utils;
  *     particular order is guaranteed.
  * </p>
  *
+ * <p>
+ *     Removed indices are queued for reuse in a free-list embedded in a parallel int array: each free slot stores
+ *     the index of the next free slot. Indices are reused oldest first to delay reusing a recently removed index.
+ *     Both adding and removing are O(1) and neither allocates nor boxes once the list has grown to fit.
+ * </p>
+ *
+ * <p>
+ *     Alongside the sparse lookup by index, every object is also kept in a dense array with no gaps which can be
+ *     walked with {@link #getAt(int)} from 0 to {@link #size()} - 1. Removing an object moves the last object in the
+ *     dense array into its place, so an object's position in the dense array may change whenever another is removed.
+ *     After a mass removal, {@link #trimToSize()} releases the capacity no longer needed.
+ * </p>
+ *
+ * <p>
+ *     Each index also has a version, kept in a primitive array, which is incremented every time the index's object
+ *     is removed. An index and version together refer to one specific occupant of the index and can be checked with
+ *     {@link #isLive(int, int)} without touching the object.
+ * </p>
+ *
  * @param <E> Objects to store.
  */
 public class IndexList<E>
 {
-    // Object pool for indices
-    private final PooledQueue<Integer> mIndexPool = new PooledQueue<Integer>();
+    // Marks the end of the free-list
+    private static final int NONE = -1;
 
     // Growth factor when increasing array capacity (0f - 1f)
     private final float mGrowth;
@@ -21,9 +40,31 @@ public class IndexList<E>
     private E[] mObjs;
     private int mSize = 0;
 
+    // Next free index after each free index; index = free index
+    private int[] mNextFree;
+
+    // Oldest and newest removed indices waiting for reuse
+    private int mFreeHead = NONE;
+    private int mFreeTail = NONE;
+
     // Next index that has never been used
     private int mNextAvailableIndex = 0;
 
+    // Objects without gaps; index = dense position
+    private E[] mDense;
+
+    // Each object's index; index = dense position
+    private int[] mDenseToIndex;
+
+    // Each object's dense position; index = index
+    private int[] mIndexToDense;
+
+    // Version of each index's current or next occupant; index = index
+    private int[] mVersions;
+
+    // Version given to indices that have never been used
+    private int mVersionFloor = 0;
+
     /**
      * <p>Constructor for an IndexList with an initial capacity and a normalized growth factor (0.0 - 1.0).</p>
      *
@@ -34,6 +75,11 @@ public class IndexList<E>
     public IndexList(int load, float growth)
     {
         mObjs = (E[]) new Object[load];
+        mNextFree = new int[load];
+        mDense = (E[]) new Object[load];
+        mDenseToIndex = new int[load];
+        mIndexToDense = new int[load];
+        mVersions = new int[load];
         mGrowth = growth;
     }
 
@@ -41,11 +87,52 @@ public class IndexList<E>
      * <p>Gets the object at a given index.</p>
      *
      * @param index index.
-     * @return object.
+     * @return object, or null if no object is at the index.
      */
     public final E get(int index)
     {
-        return mObjs[index];
+        // Indices released by trimToSize() may still be looked up
+        return (index < mObjs.length) ? mObjs[index] : null;
+    }
+
+    /**
+     * <p>Gets the version of an index. While an object is at the index, this is the object's version.</p>
+     *
+     * @param index index.
+     * @return version.
+     */
+    public final int getVersion(int index)
+    {
+        return (index < mVersions.length) ? mVersions[index] : mVersionFloor;
+    }
+
+    /**
+     * <p>Checks if an object is at an index and the index's version matches. Only primitive arrays are read.</p>
+     *
+     * @param index index.
+     * @param version version.
+     * @return true if the index and version refer to a stored object.
+     */
+    public final boolean isLive(int index, int version)
+    {
+        return index >= 0 && index < mObjs.length && mVersions[index] == version && mObjs[index] != null;
+    }
+
+    /**
+     * <p>Gets an object by its position in the dense listing of all objects. Positions run from 0 to
+     * {@link #size()} - 1 and an object's position may change when another object is removed.</p>
+     *
+     * @param position dense position.
+     * @return object.
+     * @throws IndexOutOfBoundsException if position is outside 0 to size() - 1.
+     */
+    public final E getAt(int position)
+    {
+        if (position < 0 || position >= mSize) {
+            throw new IndexOutOfBoundsException("Position: " + position + ", size: " + mSize);
+        }
+
+        return mDense[position];
     }
 
     /**
@@ -58,6 +145,12 @@ public class IndexList<E>
     {
         final int index = getAvailableIndex();
         mObjs[index] = object;
+
+        // Append to the end of the dense listing
+        mDense[mSize] = object;
+        mDenseToIndex[mSize] = index;
+        mIndexToDense[index] = mSize;
+
         mSize++;
         return index;
     }
@@ -66,16 +159,38 @@ public class IndexList<E>
      * <p>Removes the object at a given index.</p>
      *
      * @param index index.
-     * @return object.
+     * @return object, or null if no object was at the index.
      */
     public final E remove(int index)
     {
-        // Remove object from lookup
-        final E obj = mObjs[index];
+        // Nothing to remove; don't free the index twice
+        final E obj = get(index);
+        if (obj == null) {
+            return null;
+        }
         mObjs[index] = null;
 
-        // Set index aside for reuse and update size
-        mIndexPool.add(index);
+        // Fill the object's dense position with the last object to keep the listing without gaps
+        final int position = mIndexToDense[index];
+        final int last = mSize - 1;
+        final int lastIndex = mDenseToIndex[last];
+        mDense[position] = mDense[last];
+        mDenseToIndex[position] = lastIndex;
+        mIndexToDense[lastIndex] = position;
+        mDense[last] = null;
+
+        // Invalidate references to the removed object
+        mVersions[index]++;
+
+        // Append index to the free-list for reuse and update size
+        mNextFree[index] = NONE;
+        if (mFreeTail == NONE) {
+            mFreeHead = index;
+        } else {
+            mNextFree[mFreeTail] = index;
+        }
+        mFreeTail = index;
+
         mSize--;
         return obj;
     }
@@ -85,12 +200,89 @@ public class IndexList<E>
      */
     public final void clear()
     {
-        for (int i = 0, sz = size(); i < sz; i++) {
-            mObjs[i] = null;
+        // Objects may sit anywhere below the highest index ever used
+        for (int i = 0; i < mNextAvailableIndex; i++) {
+            if (mObjs[i] != null) {
+                mObjs[i] = null;
+                mVersions[i]++;
+            }
+        }
+
+        for (int i = 0; i < mSize; i++) {
+            mDense[i] = null;
         }
 
         mSize = 0;
-        mIndexPool.clear();
+        mNextAvailableIndex = 0;
+        mFreeHead = NONE;
+        mFreeTail = NONE;
+    }
+
+    /**
+     * <p>Shrinks capacity to just past the highest index in use, releasing memory held since before a mass
+     * removal. Free indices above the highest index in use are forgotten and will be handed out again in order once
+     * the IndexList regrows. Free indices below it are kept for reuse, lowest first.</p>
+     *
+     * <p>This method runs in O(n) time where n is the current capacity.</p>
+     */
+    @SuppressWarnings("unchecked")
+    public final void trimToSize()
+    {
+        // Find the highest index in use
+        int highest = NONE;
+        for (int i = 0; i < mSize; i++) {
+            highest = Math.max(highest, mDenseToIndex[i]);
+        }
+        final int capacity = highest + 1;
+
+        // Relink the free-list through the gaps left below the highest index
+        mFreeHead = NONE;
+        mFreeTail = NONE;
+        for (int i = 0; i < capacity; i++) {
+            if (mObjs[i] != null) {
+                continue;
+            }
+
+            mNextFree[i] = NONE;
+            if (mFreeTail == NONE) {
+                mFreeHead = i;
+            } else {
+                mNextFree[mFreeTail] = i;
+            }
+            mFreeTail = i;
+        }
+        mNextAvailableIndex = capacity;
+
+        // Nothing to release
+        if (capacity == mObjs.length) {
+            return;
+        }
+
+        // Released indices may be handed out again so their versions must continue past any used before
+        for (int i = capacity; i < mVersions.length; i++) {
+            mVersionFloor = Math.max(mVersionFloor, mVersions[i]);
+        }
+
+        final E[] objs = (E[]) new Object[capacity];
+        final int[] nextFree = new int[capacity];
+        final E[] dense = (E[]) new Object[capacity];
+        final int[] denseToIndex = new int[capacity];
+        final int[] indexToDense = new int[capacity];
+        final int[] versions = new int[capacity];
+
+        System.arraycopy(mObjs, 0, objs, 0, capacity);
+        System.arraycopy(mNextFree, 0, nextFree, 0, capacity);
+        System.arraycopy(mDense, 0, dense, 0, mSize);
+        System.arraycopy(mDenseToIndex, 0, denseToIndex, 0, mSize);
+        System.arraycopy(mIndexToDense, 0, indexToDense, 0, capacity);
+        System.arraycopy(mVersions, 0, versions, 0, capacity);
+
+        mObjs = objs;
+        mNextFree = nextFree;
+        mDense = dense;
+        mDenseToIndex = denseToIndex;
+        mIndexToDense = indexToDense;
+        mVersions = versions;
     }
 
     /**
@@ -103,29 +295,78 @@ public class IndexList<E>
      */
     protected final int getAvailableIndex()
     {
-        // Grow the lookup area if out of space
+        // Grow the lookup area if out of space; always grow by at least one
         if (mSize >= mObjs.length) {
-            increaseCapacity();
+            increaseCapacity(Math.max(mObjs.length + 1, (int) ((1 + mGrowth) * mObjs.length)));
+        }
+
+        // Choose new index if none are free
+        if (mFreeHead == NONE) {
+            return mNextAvailableIndex++;
         }
 
-        // Choose new index or reuse an old one if possible
-        return (mIndexPool.isEmpty()) ? mNextAvailableIndex++ : mIndexPool.poll();
+        // Reuse the oldest free index
+        final int index = mFreeHead;
+        mFreeHead = mNextFree[index];
+        if (mFreeHead == NONE) {
+            mFreeTail = NONE;
+        }
+
+        return index;
     }
 
     /**
-     * <p>Creates a new E[] with a size (1 + growth) times the current E[] length and copies the old array's contents
-     * .</p>
+     * <p>Makes sure the IndexList can hold a number of objects without growing again. This lets a batch of additions
+     * grow the IndexList at most once instead of step by step.</p>
+     *
+     * @param capacity number of objects.
+     */
+    public final void ensureCapacity(int capacity)
+    {
+        if (capacity > mObjs.length) {
+            increaseCapacity(Math.max(capacity, (int) ((1 + mGrowth) * mObjs.length)));
+        }
+    }
+
+    /**
+     * <p>Creates a new E[] of a larger size and copies the old array's contents, growing the free-list's links and the
+     * dense listing to match.</p>
+     *
+     * @param newSize new capacity.
      */
     @SuppressWarnings("unchecked")
-    private void increaseCapacity()
+    private void increaseCapacity(int newSize)
     {
         // Create larger array and copy over all refs
-        final int newSize = (int) ((1 + mGrowth) * mObjs.length);
         final E[] largerArr = (E[]) new Object[newSize];
-        System.arraycopy(mObjs, 0, largerArr, 0, mSize);
+        System.arraycopy(mObjs, 0, largerArr, 0, mNextAvailableIndex);
+
+        // Free-list links must cover the same indices
+        final int[] largerNext = new int[newSize];
+        System.arraycopy(mNextFree, 0, largerNext, 0, mNextAvailableIndex);
+
+        // Dense listing holds at most as many objects as there are indices
+        final E[] largerDense = (E[]) new Object[newSize];
+        final int[] largerDenseToIndex = new int[newSize];
+        final int[] largerIndexToDense = new int[newSize];
+        System.arraycopy(mDense, 0, largerDense, 0, mSize);
+        System.arraycopy(mDenseToIndex, 0, largerDenseToIndex, 0, mSize);
+        System.arraycopy(mIndexToDense, 0, largerIndexToDense, 0, mNextAvailableIndex);
+
+        // Versions outlive clear() so all are kept; those of new indices start from the floor
+        final int[] largerVersions = new int[newSize];
+        System.arraycopy(mVersions, 0, largerVersions, 0, mVersions.length);
+        for (int i = mVersions.length; i < newSize; i++) {
+            largerVersions[i] = mVersionFloor;
+        }
 
         // Replace old lookup with larger one
         mObjs = largerArr;
+        mNextFree = largerNext;
+        mDense = largerDense;
+        mDenseToIndex = largerDenseToIndex;
+        mIndexToDense = largerIndexToDense;
+        mVersions = largerVersions;
     }
 
     /**
@@ -3,6 +3,7 @@ package com.cinnamon.utils;
 import com.cinnamon.system.Config;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Set;
@@ -27,10 +28,36 @@ import java.util.Set;
  * </p>
  *
  * <p>
+ *     Both numbers can also be packed into a single long {@link Handle}, retrievable with
+ *     {@link Identifiable#getHandle()}. A handle is checked with {@link #isValid(long)}, which only compares against a
+ *     primitive array of versions, and resolved with {@link #get(long)}.
+ * </p>
+ *
+ * <p>
  *     Setup operations can be performed on Identifiables when first created by specifying a {@link Config} that has
  *     been added to the IndexedFactory. Configs can use the resource from {@link #getResource()} to configure an
  *     Identifiable instance according to a template before providing the instance for use.
  * </p>
+ *
+ * <p>
+ *     Many Identifiables can be requested or removed at once with {@link #getMany(String, int, List)} and
+ *     {@link #removeMany(long[], int)}. A batch looks up its Config and reserves capacity only once, and subclasses
+ *     can check {@link #isBatching()} to defer per-object bookkeeping to a single {@link #onBatchEnd()}.
+ * </p>
+ *
+ * <p>
+ *     Removal can also be deferred with {@link #destroyLater(long)}, which only queues the Identifiable's
+ *     {@link Handle}. Queued Identifiables stay usable until {@link #destroyPending()} removes them all as one batch,
+ *     making it safe to request destruction while iterating over the factory.
+ * </p>
+ *
+ * <p>
+ *     A named Config can be switched to prototype mode with {@link #setPrototyped(String, boolean)}. The first
+ *     Identifiable the Config configures is then captured as a detached prototype with
+ *     {@link #createPrototype(Identifiable)} and later requests copy the prototype's state in one pass through
+ *     {@link #copyPrototype(Identifiable, Identifiable)} instead of running the Config. Only Configs producing the
+ *     same result each time should be prototyped.
+ * </p>
  */
 public abstract class IndexedFactory<E extends IndexedFactory.Identifiable, R>
 {
@@ -40,12 +67,21 @@ public abstract class IndexedFactory<E extends IndexedFactory.Identifiable, R>
     // Configurations lookup
     private final HashMap<String, Config<E, R>> mConfigs = new HashMap<String, Config<E, R>>();
 
+    // Prototype of each prototyped Config; null until the Config first runs
+    private final HashMap<Config<E, R>, E> mPrototypes = new HashMap<Config<E, R>, E>();
+
+    // Config copying from the object given to getCopyOf(E)
+    private final CopyConfig mCopyConfig = new CopyConfig();
+
     // List of remove listeners to notify
     private final List<OnRemoveListener<E>> mOnRemoveListeners = new ArrayList<OnRemoveListener<E>>();
 
     // Object pool for recycling
     private final PooledQueue<E> mCompPool = new PooledQueue<E>();
 
+    // Pool hits, misses, and live objects
+    private final PoolStats mPoolStats;
+
     // Object id lookup
     private final IndexList<E> mLookup;
 
@@ -55,6 +91,16 @@ public abstract class IndexedFactory<E extends IndexedFactory.Identifiable, R>
     // Whether or not init ops are complete
     private boolean mLoaded = false;
 
+    // Whether or not getMany(...) or removeMany(...) is running
+    private boolean mBatching = false;
+
+    // Handles waiting for destroyPending()
+    private long[] mDestroyQueue = new long[16];
+    private int mDestroyCount = 0;
+
+    // Handles being removed by destroyPending(); swapped with the queue so destruction can queue more
+    private long[] mDestroyDrain = new long[16];
+
     /**
      * <p>Constructor for an IndexedFactory.</p>
      *
@@ -66,6 +112,7 @@ public abstract class IndexedFactory<E extends IndexedFactory.Identifiable, R>
     {
         mResource = resource;
         mLookup = new IndexList<E>(load, growth);
+        mPoolStats = new PoolStats(getClass().getSimpleName());
 
         // Add Config for default configuration
         mDefaultConfig = createDefaultConfig();
@@ -139,21 +186,92 @@ public abstract class IndexedFactory<E extends IndexedFactory.Identifiable, R>
      */
     public E get(String configName)
     {
-        Config<E, R> config = getConfig(configName);
+        return requisition(resolveConfig(configName));
+    }
 
-        // Prepare Config for default state if no name matched
-        if (config == null) {
-            config = mDefaultConfig;
+    /**
+     * <p>Gets a number of objects configured by the {@link Config} matching the given configuration name, as if by
+     * calling {@link #get(String)} count times. The Config is looked up once and capacity for all objects is
+     * reserved up front. Subclasses are notified of the batch through {@link #onReserve(int)} before the first object
+     * and {@link #onBatchEnd()} after the last.</p>
+     *
+     * @param configName configuration name.
+     * @param count number of objects.
+     * @param sink list to add each object to in order of creation, or null.
+     * @throws IllegalArgumentException if count is < 0.
+     */
+    public final void getMany(String configName, int count, List<? super E> sink)
+    {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must be >= 0, count: " + count);
+        }
+
+        final Config<E, R> config = resolveConfig(configName);
+        final boolean wasBatching = mBatching;
+        mBatching = true;
+
+        mLookup.ensureCapacity(mLookup.size() + count);
+        onReserve(count);
+
+        for (int i = 0; i < count; i++) {
+            final E inst = requisition(config);
+            if (sink != null) {
+                sink.add(inst);
+            }
+        }
+
+        // Only the outermost batch notifies
+        mBatching = wasBatching;
+        if (!wasBatching) {
+            onBatchEnd();
         }
+    }
 
+    /**
+     * <p>Gets the {@link Config} matching a configuration name or the default Config if none matched.</p>
+     *
+     * @param configName configuration name.
+     * @return Config.
+     */
+    private Config<E, R> resolveConfig(String configName)
+    {
+        final Config<E, R> config = getConfig(configName);
+        return (config == null) ? mDefaultConfig : config;
+    }
+
+    /**
+     * <p>Assigns an id and version to an object, applies a {@link Config}, and notifies
+     * {@link #onRequisition(Identifiable)}. Every object given out by {@link #get(String)} and
+     * {@link #getMany(String, int, List)} passes through this method.</p>
+     *
+     * @param config configuration.
+     * @return object.
+     */
+    protected E requisition(Config<E, R> config)
+    {
         final E inst = getIdentifiableInstance();
 
-        // Store in lookup and assign an id
+        // Store in lookup and assign an id and the id's current version
         final int id = mLookup.add(inst);
         inst.setId(id);
+        inst.setVersion(mLookup.getVersion(id));
 
-        // Apply configuration if available
-        config.configure(inst, mResource);
+        // Apply configuration, or copy the Config's prototype once captured
+        if (mPrototypes.isEmpty()) {
+            config.configure(inst, mResource);
+        } else {
+            final E prototype = mPrototypes.get(config);
+            if (prototype != null) {
+                copyPrototype(prototype, inst);
+            } else {
+                config.configure(inst, mResource);
+
+                // First use of a prototyped Config
+                if (mPrototypes.containsKey(config)) {
+                    mPrototypes.put(config, createPrototype(inst));
+                }
+            }
+        }
 
         // Allow subclass' work
         onRequisition(inst);
@@ -161,6 +279,101 @@ public abstract class IndexedFactory<E extends IndexedFactory.Identifiable, R>
         return inst;
     }
 
+    /**
+     * <p>Gets an object whose state is copied from another object through
+     * {@link #copyPrototype(Identifiable, Identifiable)}, such as a prototype from
+     * {@link #createPrototype(Identifiable)}.</p>
+     *
+     * @param source object to copy.
+     * @return object.
+     * @throws IllegalArgumentException if source is null.
+     * @throws IllegalStateException if the factory doesn't support copying.
+     */
+    public final E getCopyOf(E source)
+    {
+        if (source == null) {
+            throw new IllegalArgumentException("Source may not be null");
+        }
+
+        // Allow copying from within a copy
+        final E previous = mCopyConfig.mSource;
+        mCopyConfig.mSource = source;
+        final E inst = requisition(mCopyConfig);
+        mCopyConfig.mSource = previous;
+
+        return inst;
+    }
+
+    /**
+     * <p>Creates an object holding a copy of another's state which is not tracked by the factory. The returned
+     * object has no id or version, is never given out by {@link #get(String)}, and is meant only to be copied
+     * from.</p>
+     *
+     * <p>The default implementation copies onto a new instance from {@link #createIdentifiable()} with
+     * {@link #copyPrototype(Identifiable, Identifiable)}.</p>
+     *
+     * @param source object to copy.
+     * @return prototype.
+     * @throws IllegalStateException if the factory doesn't support copying.
+     */
+    public E createPrototype(E source)
+    {
+        final E prototype = createIdentifiable();
+        copyPrototype(source, prototype);
+        return prototype;
+    }
+
+    /**
+     * <p>Copies the state a {@link Config} would set from one object to another without running the Config.
+     * Subclasses supporting prototypes should copy fields directly rather than through setters so that listeners
+     * aren't notified of each intermediate change.</p>
+     *
+     * <p>The default implementation doesn't support copying.</p>
+     *
+     * @param source object to copy.
+     * @param destination object to copy to.
+     * @throws IllegalStateException if the factory doesn't support copying.
+     */
+    protected void copyPrototype(E source, E destination)
+    {
+        throw new IllegalStateException(getClass().getSimpleName() + " does not support prototypes");
+    }
+
+    /**
+     * <p>Sets whether or not the {@link Config} with a given name is run only once, after which its first
+     * configured object is copied for every request. Disabling prototype mode, or replacing or removing the Config,
+     * discards the prototype.</p>
+     *
+     * @param configName configuration name.
+     * @param enable true to copy from a prototype.
+     * @throws IllegalArgumentException if no Config has the name.
+     */
+    public final void setPrototyped(String configName, boolean enable)
+    {
+        final Config<E, R> config = mConfigs.get(configName);
+        if (config == null) {
+            throw new IllegalArgumentException("No Config named \"" + configName + "\"");
+        }
+
+        if (!enable) {
+            mPrototypes.remove(config);
+        } else if (!mPrototypes.containsKey(config)) {
+            mPrototypes.put(config, null);
+        }
+    }
+
+    /**
+     * <p>Checks if the {@link Config} with a given name is in prototype mode.</p>
+     *
+     * @param configName configuration name.
+     * @return true if prototyped.
+     */
+    public final boolean isPrototyped(String configName)
+    {
+        final Config<E, R> config = mConfigs.get(configName);
+        return config != null && mPrototypes.containsKey(config);
+    }
+
     /**
      * <p>Gets an object. The returned instance may be configured according to its last use.</p>
      *
@@ -170,7 +383,8 @@ public abstract class IndexedFactory<E extends IndexedFactory.Identifiable, R>
     {
         // Instantiate a new object if none can be reused
         final E comp;
-        if (mCompPool.isEmpty()) {
+        final boolean reused = !mCompPool.isEmpty();
+        if (!reused) {
             comp = createIdentifiable();
         } else {
 
@@ -178,9 +392,56 @@ public abstract class IndexedFactory<E extends IndexedFactory.Identifiable, R>
             comp = mCompPool.poll();
         }
 
+        mPoolStats.acquired(reused);
         return comp;
     }
 
+    /**
+     * <p>Fills the pool ahead of time, such as while loading, so that later requests reuse objects instead of
+     * allocating. This requests count objects configured by the {@link Config} matching the given name, as
+     * {@link #getMany(String, int, List)} would, then removes them all. Any allocation done by the Config, lookup
+     * growth, and the capture of a prototype all happen here rather than at the first real request.</p>
+     *
+     * <p>The pool's {@link PoolStats} count the requests made here. Call {@link PoolStats#reset()} once loading is
+     * done to measure only later requests.</p>
+     *
+     * @param configName configuration name.
+     * @param count number of objects to pool.
+     * @throws IllegalArgumentException if count is < 0.
+     */
+    public void prewarm(String configName, int count)
+    {
+        final List<E> objects = new ArrayList<E>(count);
+        getMany(configName, count, objects);
+
+        final long[] handles = new long[count];
+        for (int i = 0; i < count; i++) {
+            handles[i] = objects.get(i).getHandle();
+        }
+
+        removeMany(handles);
+    }
+
+    /**
+     * <p>Gets the counters describing how often requests are served from the pool.</p>
+     *
+     * @return pool statistics.
+     */
+    public final PoolStats getPoolStats()
+    {
+        return mPoolStats;
+    }
+
+    /**
+     * <p>Gets the number of removed objects waiting in the pool for reuse.</p>
+     *
+     * @return pooled object count.
+     */
+    public final int getPooledCount()
+    {
+        return mCompPool.size();
+    }
+
     /**
      * <p>Creates a {@link E}.</p>
      *
@@ -196,6 +457,37 @@ public abstract class IndexedFactory<E extends IndexedFactory.Identifiable, R>
      */
     protected abstract void onRequisition(E object);
 
+    /**
+     * <p>Callback before {@link #getMany(String, int, List)} requests a number of objects. Subclasses keeping
+     * per-object storage can grow it once here.</p>
+     *
+     * @param count number of objects about to be requested.
+     */
+    protected void onReserve(int count)
+    {
+
+    }
+
+    /**
+     * <p>Callback after {@link #getMany(String, int, List)} or {@link #removeMany(long[], int)} has finished with all
+     * of its objects. Notifications deferred while {@link #isBatching()} was true should be sent here, once.</p>
+     */
+    protected void onBatchEnd()
+    {
+
+    }
+
+    /**
+     * <p>Checks if objects are being requested or removed by {@link #getMany(String, int, List)} or
+     * {@link #removeMany(long[], int)}.</p>
+     *
+     * @return true if within a batch.
+     */
+    protected final boolean isBatching()
+    {
+        return mBatching;
+    }
+
     /**
      * <p>Gets the {@link E} with the given id and version.</p>
      *
@@ -204,8 +496,30 @@ public abstract class IndexedFactory<E extends IndexedFactory.Identifiable, R>
      */
     public E get(int id, int version)
     {
-        final E obj = mLookup.get(id);
-        return (obj != null && obj.getVersion() == version) ? obj : null;
+        return (mLookup.isLive(id, version)) ? mLookup.get(id) : null;
+    }
+
+    /**
+     * <p>Gets the {@link E} referred to by a {@link Handle}.</p>
+     *
+     * @param handle handle.
+     * @return object, or null if the handle is stale or {@link Handle#NULL}.
+     */
+    public E get(long handle)
+    {
+        return get(Handle.getId(handle), Handle.getVersion(handle));
+    }
+
+    /**
+     * <p>Checks if a {@link Handle} still refers to an object. Unlike {@link #get(long)}, the object itself is never
+     * read.</p>
+     *
+     * @param handle handle.
+     * @return true if the object the handle was made from hasn't been removed.
+     */
+    public final boolean isValid(long handle)
+    {
+        return mLookup.isLive(Handle.getId(handle), Handle.getVersion(handle));
     }
 
     /**
@@ -219,6 +533,33 @@ public abstract class IndexedFactory<E extends IndexedFactory.Identifiable, R>
         return mLookup.get(id);
     }
 
+    /**
+     * <p>Gets an object by its position in the dense listing of all live objects. Walking positions 0 to
+     * {@link #size()} - 1 visits every object once without skipping over unused ids, though in no particular order.
+     * Removing an object moves another into its position so objects should not be removed mid-walk except at the
+     * current position while walking from the end.</p>
+     *
+     * @param position dense position.
+     * @return object.
+     * @throws IndexOutOfBoundsException if position is outside 0 to size() - 1.
+     */
+    public final E getAt(int position)
+    {
+        return mLookup.getAt(position);
+    }
+
+    /**
+     * <p>Hands every live object to a {@link Visitor}. The visitor must not add or remove objects.</p>
+     *
+     * @param visitor visitor.
+     */
+    public final void forEach(Visitor<? super E> visitor)
+    {
+        for (int i = 0, sz = mLookup.size(); i < sz; i++) {
+            visitor.visit(mLookup.getAt(i));
+        }
+    }
+
     /**
      * <p>Removes an object matching a specific id version combination. The id associated with the object may also
      * be reused at the factory's discretion though the id version pair will not be reused.</p>
@@ -240,6 +581,116 @@ public abstract class IndexedFactory<E extends IndexedFactory.Identifiable, R>
         return remove(id);
     }
 
+    /**
+     * <p>Removes the object referred to by a {@link Handle}.</p>
+     *
+     * @param handle handle.
+     * @return removed object or null if the handle is stale.
+     */
+    public E remove(long handle)
+    {
+        return remove(Handle.getId(handle), Handle.getVersion(handle));
+    }
+
+    /**
+     * <p>Removes every object referred to by an array of {@link Handle}s. Stale handles are skipped.</p>
+     *
+     * @param handles handles.
+     * @return number of objects removed.
+     */
+    public final int removeMany(long[] handles)
+    {
+        return removeMany(handles, handles.length);
+    }
+
+    /**
+     * <p>Removes the objects referred to by the first count {@link Handle}s of an array, as if by calling
+     * {@link #remove(long)} on each. Stale handles are skipped. {@link OnRemoveListener}s are still told of each
+     * object but subclasses receive a single {@link #onBatchEnd()} once all are removed.</p>
+     *
+     * @param handles handles.
+     * @param count number of handles to read from the start of the array.
+     * @return number of objects removed.
+     * @throws IllegalArgumentException if count is < 0 or > handles.length.
+     */
+    public final int removeMany(long[] handles, int count)
+    {
+        if (count < 0 || count > handles.length) {
+            throw new IllegalArgumentException("Count must be within 0 and " + handles.length + ", count: "
+                    + count);
+        }
+
+        final boolean wasBatching = mBatching;
+        mBatching = true;
+
+        int removed = 0;
+        for (int i = 0; i < count; i++) {
+            if (remove(handles[i]) != null) {
+                removed++;
+            }
+        }
+
+        // Only the outermost batch notifies
+        mBatching = wasBatching;
+        if (!wasBatching) {
+            onBatchEnd();
+        }
+
+        return removed;
+    }
+
+    /**
+     * <p>Queues the object referred to by a {@link Handle} for removal at the next {@link #destroyPending()}. The
+     * object remains in the factory until then. Queueing the same object more than once, or a handle that goes
+     * stale before the queue is drained, is harmless.</p>
+     *
+     * @param handle handle.
+     */
+    public final void destroyLater(long handle)
+    {
+        if (mDestroyCount == mDestroyQueue.length) {
+            mDestroyQueue = Arrays.copyOf(mDestroyQueue, mDestroyCount * 2);
+        }
+
+        mDestroyQueue[mDestroyCount++] = handle;
+    }
+
+    /**
+     * <p>Gets the number of handles queued by {@link #destroyLater(long)} since the last
+     * {@link #destroyPending()}.</p>
+     *
+     * @return queued handle count.
+     */
+    public final int getPendingDestroyCount()
+    {
+        return mDestroyCount;
+    }
+
+    /**
+     * <p>Removes every object queued by {@link #destroyLater(long)} through {@link #removeMany(long[], int)}.
+     * Objects queued while draining, such as by an {@link OnRemoveListener}, are removed before this method
+     * returns.</p>
+     *
+     * @return number of objects removed.
+     */
+    public final int destroyPending()
+    {
+        int removed = 0;
+
+        while (mDestroyCount > 0) {
+            // Swap so removal can queue more without disturbing the handles being read
+            final long[] drain = mDestroyQueue;
+            final int count = mDestroyCount;
+            mDestroyQueue = mDestroyDrain;
+            mDestroyDrain = drain;
+            mDestroyCount = 0;
+
+            removed += removeMany(drain, count);
+        }
+
+        return removed;
+    }
+
     /**
      * <p>Removes an object matching a specific id. The id associated with the object may also be reused at the
      * factory's discretion though the id version pair will not be reused.</p>
@@ -267,6 +718,7 @@ public abstract class IndexedFactory<E extends IndexedFactory.Identifiable, R>
 
         // Move to pool to be used again later
         mCompPool.add(obj);
+        mPoolStats.released();
 
         return obj;
     }
@@ -310,8 +762,9 @@ public abstract class IndexedFactory<E extends IndexedFactory.Identifiable, R>
      */
     public final void removeAll()
     {
-        for (int i = 0, sz = mLookup.size(); i < sz; i++) {
-            remove(i);
+        // Remove from the end so no object has to be moved to fill the gap
+        while (!mLookup.isEmpty()) {
+            remove(mLookup.getAt(mLookup.size() - 1).getId());
         }
     }
 
@@ -320,7 +773,27 @@ public abstract class IndexedFactory<E extends IndexedFactory.Identifiable, R>
      */
     public final void clear()
     {
+        mPoolStats.discarded(mLookup.size());
         mLookup.clear();
+        onClear();
+    }
+
+    /**
+     * <p>Notifies the factory that all objects were dropped by {@link #clear()} without being removed one by one.</p>
+     */
+    protected void onClear()
+    {
+
+    }
+
+    /**
+     * <p>Releases lookup capacity left over from objects no longer in use, such as after a mass removal. Ids of
+     * live objects are unchanged. Recycled objects are also released.</p>
+     */
+    public final void trimToSize()
+    {
+        mLookup.trimToSize();
+        mCompPool.clear();
     }
 
     /**
@@ -363,7 +836,14 @@ public abstract class IndexedFactory<E extends IndexedFactory.Identifiable, R>
      */
     public Config<E, R> addConfig(String name, Config<E, R> config)
     {
-        return mConfigs.put(name, config);
+        final Config<E, R> previous = mConfigs.put(name, config);
+
+        // Replaced Config's prototype no longer applies
+        if (previous != null && previous != config) {
+            mPrototypes.remove(previous);
+        }
+
+        return previous;
     }
 
     /**
@@ -374,7 +854,12 @@ public abstract class IndexedFactory<E extends IndexedFactory.Identifiable, R>
      */
     public Config<E, R> removeConfig(String name)
     {
-        return mConfigs.remove(name);
+        final Config<E, R> config = mConfigs.remove(name);
+        if (config != null) {
+            mPrototypes.remove(config);
+        }
+
+        return config;
     }
 
     /**
@@ -393,6 +878,25 @@ public abstract class IndexedFactory<E extends IndexedFactory.Identifiable, R>
     public final void clearConfigs()
     {
         mConfigs.clear();
+        mPrototypes.clear();
+    }
+
+    /**
+     * <p>
+     *     Config applying {@link #copyPrototype(Identifiable, Identifiable)} from the object given to
+     *     {@link #getCopyOf(Identifiable)}.
+     * </p>
+     */
+    private final class CopyConfig implements Config<E, R>
+    {
+        // Object to copy from
+        private E mSource;
+
+        @Override
+        public void configure(E object, R resource)
+        {
+            copyPrototype(mSource, object);
+        }
     }
 
     /**
@@ -436,6 +940,16 @@ public abstract class IndexedFactory<E extends IndexedFactory.Identifiable, R>
             return mVersion;
         }
 
+        /**
+         * <p>Gets the id and version packed into a {@link Handle}.</p>
+         *
+         * @return handle.
+         */
+        public final long getHandle()
+        {
+            return Handle.pack(mId, mVersion);
+        }
+
         /**
          * <p>Sets the version.</p>
          *
@@ -0,0 +1,146 @@
+package com.cinnamon.utils;
+
+/**
+ * <p>
+ *     Counters describing how well an object pool is serving requests. Every object handed out is either a hit,
+ *     reused from the pool, or a miss, newly allocated. The live count is the number of objects handed out and not
+ *     yet returned and the high-water mark is the greatest live count seen, which is how many objects the pool
+ *     would need to have been prewarmed with for no request to miss.
+ * </p>
+ *
+ * <p>
+ *     PoolStats is not thread-safe and should be updated on the thread using the pool.
+ * </p>
+ */
+public final class PoolStats
+{
+    // Name to identify the pool when printed
+    private final String mName;
+
+    // Requests served from the pool
+    private long mHits = 0;
+
+    // Requests needing a new object
+    private long mMisses = 0;
+
+    // Objects handed out and not yet returned
+    private int mLive = 0;
+
+    // Most objects out at once
+    private int mHighWater = 0;
+
+    /**
+     * <p>Constructs a PoolStats.</p>
+     *
+     * @param name pool name.
+     */
+    public PoolStats(String name)
+    {
+        mName = name;
+    }
+
+    /**
+     * <p>Records an object being handed out.</p>
+     *
+     * @param reused true if the object came from the pool, false if it was newly allocated.
+     */
+    public void acquired(boolean reused)
+    {
+        if (reused) {
+            mHits++;
+        } else {
+            mMisses++;
+        }
+
+        if (++mLive > mHighWater) {
+            mHighWater = mLive;
+        }
+    }
+
+    /**
+     * <p>Records an object being returned.</p>
+     */
+    public void released()
+    {
+        mLive--;
+    }
+
+    /**
+     * <p>Records a number of objects being let go of without being returned to the pool, such as when a container
+     * is cleared.</p>
+     *
+     * @param count number of objects.
+     */
+    public void discarded(int count)
+    {
+        mLive -= count;
+    }
+
+    /**
+     * <p>Zeroes the hit and miss counts and lowers the high-water mark to the current live count, such as once
+     * loading has finished so that only gameplay is measured.</p>
+     */
+    public void reset()
+    {
+        mHits = 0;
+        mMisses = 0;
+        mHighWater = mLive;
+    }
+
+    /**
+     * <p>Gets the pool's name.</p>
+     *
+     * @return name.
+     */
+    public String getName()
+    {
+        return mName;
+    }
+
+    /**
+     * <p>Gets the number of requests served from the pool.</p>
+     *
+     * @return hit count.
+     */
+    public long getHits()
+    {
+        return mHits;
+    }
+
+    /**
+     * <p>Gets the number of requests that allocated a new object.</p>
+     *
+     * @return miss count.
+     */
+    public long getMisses()
+    {
+        return mMisses;
+    }
+
+    /**
+     * <p>Gets the number of objects handed out and not yet returned.</p>
+     *
+     * @return live count.
+     */
+    public int getLive()
+    {
+        return mLive;
+    }
+
+    /**
+     * <p>Gets the most objects out at once since creation or the last {@link #reset()}.</p>
+     *
+     * @return high-water mark.
+     */
+    public int getHighWater()
+    {
+        return mHighWater;
+    }
+
+    @Override
+    public String toString()
+    {
+        return mName + "(hits(" + mHits + "), misses(" + mMisses + "), live(" + mLive + "), high(" + mHighWater
+                + "))";
+    }
+}
@@ -72,6 +72,33 @@ public final class Shape implements Positional, Rotatable
         updateBounds();
     }
 
+    /**
+     * <p>Copies another Shape's points, rotation, bounding box, and lock status into this Shape without allocating.
+     * The points are copied with a single {@link System#arraycopy(Object, int, Object, int, int)}.</p>
+     *
+     * @param shape other Shape.
+     * @return false if this Shape has room for fewer points than the other Shape uses, in which case nothing is
+     * copied.
+     */
+    public boolean copy(Shape shape)
+    {
+        final int length = shape.mSize * FLOATS_PER_POINT;
+        if (length > mPoints.length) {
+            return false;
+        }
+
+        System.arraycopy(shape.mPoints, 0, mPoints, 0, length);
+        mSize = shape.mSize;
+        mAngle = shape.mAngle;
+        mLocked = shape.mLocked;
+
+        // Bounding box is copied rather than recomputed from the points
+        mRect.moveTo(shape.getX(), shape.getY(), shape.getZ());
+        mRect.setWidth(shape.getWidth());
+        mRect.setHeight(shape.getHeight());
+        return true;
+    }
+
     /**
      * <p>Defines the first point as the bottom left corner of the rectangle. The rest of the points are defined
      * counter-clockwise.</p>
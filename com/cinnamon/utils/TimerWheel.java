@@ -0,0 +1,436 @@
+package com.cinnamon.utils;
+
+/**
+ * <p>
+ *     Schedules actions to run a number of ticks in the future. Timers are kept in a hierarchy of wheels, each a ring
+ *     of slots holding doubly linked lists of timers. The first wheel has one slot per tick; each slot of a higher
+ *     wheel covers a whole turn of the wheel below it. Timers are placed in the lowest wheel whose span reaches their
+ *     expiry and are moved down a wheel each time the wheel below completes a turn, so scheduling and cancelling are
+ *     O(1) and {@link #advance()} only visits the timers expiring that tick plus those being moved down.
+ * </p>
+ *
+ * <p>
+ *     A timer either runs a {@link Runnable} or expires a target {@link Handle}, such as a
+ *     {@link com.cinnamon.object.GObject}'s, by passing the handle to the wheel's {@link OnExpireListener}. Each
+ *     timer is identified by its own handle, which {@link #cancel(long)} checks against the timer's version so a
+ *     handle kept after its timer fired cannot cancel a later timer reusing the same entry. Timer entries are pooled.
+ * </p>
+ *
+ * <p>
+ *     Timers expiring on the same tick fire in the order they were scheduled or moved down. Actions may schedule and
+ *     cancel timers, including those due the same tick, while firing.
+ * </p>
+ */
+public final class TimerWheel
+{
+    // Bits of a tick count covered by each wheel
+    private static final int SLOT_BITS = 6;
+
+    // Slots per wheel
+    private static final int SLOTS = 1 << SLOT_BITS;
+
+    // Mask for a slot within a wheel
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    // Number of wheels; timers further out than the wheels span are moved down until they fit
+    private static final int LEVELS = 4;
+
+    // Ticks spanned by all wheels together
+    private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    // Initial number of timer entries
+    private static final int LOAD = 64;
+
+    // Growth factor of the timer lookup
+    private static final float GROWTH = 0.5f;
+
+    // Head of each slot's timer list; index = (level * SLOTS) + slot
+    private final Timer[] mSlots = new Timer[LEVELS * SLOTS];
+
+    // Head of the list of timers being fired
+    private final Timer mFiring = new Timer();
+
+    // Scheduled timers; index = timer id
+    private final IndexList<Timer> mTimers = new IndexList<Timer>(LOAD, GROWTH);
+
+    // Recycled timers
+    private final PooledQueue<Timer> mPool = new PooledQueue<Timer>();
+
+    // Pool hits, misses, and live timers
+    private final PoolStats mPoolStats = new PoolStats("TimerWheel");
+
+    // Receives targets of expiring timers
+    private final OnExpireListener mListener;
+
+    // Current tick
+    private long mNow = 0L;
+
+    /**
+     * <p>Constructs a TimerWheel.</p>
+     *
+     * @param listener listener to receive targets scheduled with {@link #scheduleExpiry(long, long)}.
+     * @throws IllegalArgumentException if listener is null.
+     */
+    public TimerWheel(OnExpireListener listener)
+    {
+        if (listener == null) {
+            throw new IllegalArgumentException("OnExpireListener may not be null");
+        }
+        mListener = listener;
+
+        for (int i = 0; i < mSlots.length; i++) {
+            mSlots[i] = new Timer();
+        }
+    }
+
+    /**
+     * <p>Schedules a {@link Runnable} to run a number of ticks from now.</p>
+     *
+     * @param action action.
+     * @param ticks ticks until the action runs; 1 runs it on the next {@link #advance()}.
+     * @return timer handle for {@link #cancel(long)}.
+     * @throws IllegalArgumentException if action is null or ticks is < 1.
+     */
+    public long schedule(Runnable action, long ticks)
+    {
+        if (action == null) {
+            throw new IllegalArgumentException("Action may not be null");
+        }
+
+        final Timer timer = obtain(ticks);
+        timer.mAction = action;
+        return timer.mHandle;
+    }
+
+    /**
+     * <p>Schedules a target {@link Handle} to be given to the {@link OnExpireListener} a number of ticks from now.
+     * The target is passed along as is; it is up to the listener to check it is still valid.</p>
+     *
+     * @param target handle to expire.
+     * @param ticks ticks until expiry; 1 expires it on the next {@link #advance()}.
+     * @return timer handle for {@link #cancel(long)}.
+     * @throws IllegalArgumentException if target is {@link Handle#NULL} or ticks is < 1.
+     */
+    public long scheduleExpiry(long target, long ticks)
+    {
+        if (target == Handle.NULL) {
+            throw new IllegalArgumentException("Target may not be Handle.NULL");
+        }
+
+        final Timer timer = obtain(ticks);
+        timer.mTarget = target;
+        return timer.mHandle;
+    }
+
+    /**
+     * <p>Cancels a timer before it fires.</p>
+     *
+     * @param timer timer handle.
+     * @return true if the timer was pending and is now cancelled, false if it already fired or was cancelled.
+     */
+    public boolean cancel(long timer)
+    {
+        final Timer entry = lookup(timer);
+        if (entry == null) {
+            return false;
+        }
+
+        entry.unlink();
+        release(entry);
+        return true;
+    }
+
+    /**
+     * <p>Gets the number of ticks until a timer fires.</p>
+     *
+     * @param timer timer handle.
+     * @return remaining ticks, or -1 if the timer already fired or was cancelled.
+     */
+    public long getRemaining(long timer)
+    {
+        final Timer entry = lookup(timer);
+        return (entry == null) ? -1L : entry.mWhen - mNow;
+    }
+
+    /**
+     * <p>Moves to the next tick and fires every timer due on it.</p>
+     */
+    public void advance()
+    {
+        final long now = ++mNow;
+
+        // Move timers down from every wheel that just completed a turn, highest first
+        int level = 1;
+        while (level < LEVELS && (now & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+            level++;
+        }
+        for (int l = level - 1; l > 0; l--) {
+            cascade(l, slotOf(now, l));
+        }
+
+        // Take this tick's timers so any scheduled while firing go to later slots
+        final Timer due = mSlots[slotOf(now, 0)];
+        if (due.mNext == due) {
+            return;
+        }
+        mFiring.takeAll(due);
+
+        while (mFiring.mNext != mFiring) {
+            final Timer timer = mFiring.mNext;
+            timer.unlink();
+
+            // Grab what's needed before the entry is recycled and possibly reused by the action
+            final Runnable action = timer.mAction;
+            final long target = timer.mTarget;
+            release(timer);
+
+            if (action != null) {
+                action.run();
+            } else {
+                mListener.onExpire(target);
+            }
+        }
+    }
+
+    /**
+     * <p>Gets the number of ticks advanced since construction.</p>
+     *
+     * @return current tick.
+     */
+    public long getTick()
+    {
+        return mNow;
+    }
+
+    /**
+     * <p>Gets the number of pending timers.</p>
+     *
+     * @return timer count.
+     */
+    public int size()
+    {
+        return mTimers.size();
+    }
+
+    /**
+     * <p>Checks if size is 0.</p>
+     *
+     * @return true if size == 0.
+     */
+    public boolean isEmpty()
+    {
+        return mTimers.isEmpty();
+    }
+
+    /**
+     * <p>Cancels every pending timer.</p>
+     */
+    public void clear()
+    {
+        while (!mTimers.isEmpty()) {
+            final Timer timer = mTimers.getAt(mTimers.size() - 1);
+            timer.unlink();
+            release(timer);
+        }
+    }
+
+    /**
+     * <p>Gets the {@link PoolStats} of the timer entry pool.</p>
+     *
+     * @return pool statistics.
+     */
+    public PoolStats getPoolStats()
+    {
+        return mPoolStats;
+    }
+
+    /**
+     * <p>Takes a timer entry from the pool, gives it a handle, and places it to fire a number of ticks from now.</p>
+     *
+     * @param ticks ticks until firing.
+     * @return timer.
+     * @throws IllegalArgumentException if ticks is < 1.
+     */
+    private Timer obtain(long ticks)
+    {
+        if (ticks < 1) {
+            throw new IllegalArgumentException("Ticks must be >= 1, ticks: " + ticks);
+        }
+
+        final boolean reused = !mPool.isEmpty();
+        final Timer timer = (reused) ? mPool.poll() : new Timer();
+        mPoolStats.acquired(reused);
+
+        final int id = mTimers.add(timer);
+        timer.mHandle = Handle.pack(id, mTimers.getVersion(id));
+        timer.mWhen = mNow + ticks;
+        place(timer);
+        return timer;
+    }
+
+    /**
+     * <p>Returns a timer entry to the pool, invalidating its handle.</p>
+     *
+     * @param timer timer.
+     */
+    private void release(Timer timer)
+    {
+        mTimers.remove(Handle.getId(timer.mHandle));
+        timer.mHandle = Handle.NULL;
+        timer.mAction = null;
+        timer.mTarget = Handle.NULL;
+
+        mPool.add(timer);
+        mPoolStats.released();
+    }
+
+    /**
+     * <p>Resolves a timer handle to its pending entry.</p>
+     *
+     * @param timer timer handle.
+     * @return entry, or null if the timer is no longer pending.
+     */
+    private Timer lookup(long timer)
+    {
+        if (timer == Handle.NULL) {
+            return null;
+        }
+
+        final int id = Handle.getId(timer);
+        return (mTimers.isLive(id, Handle.getVersion(timer))) ? mTimers.get(id) : null;
+    }
+
+    /**
+     * <p>Adds a timer to the slot of the lowest wheel whose span reaches its expiry.</p>
+     *
+     * @param timer timer.
+     */
+    private void place(Timer timer)
+    {
+        final long delta = timer.mWhen - mNow;
+
+        // Timers beyond every wheel wait in the farthest slot and are moved down as the wheels turn
+        final long when = (delta >= SPAN) ? mNow + SPAN - 1 : timer.mWhen;
+        final long span = when - mNow;
+
+        int level = 0;
+        while (level < LEVELS - 1 && span >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+
+        mSlots[(level * SLOTS) + slotOf(when, level)].append(timer);
+    }
+
+    /**
+     * <p>Moves every timer in a slot of a higher wheel down to the wheels below.</p>
+     *
+     * @param level wheel.
+     * @param slot slot within the wheel.
+     */
+    private void cascade(int level, int slot)
+    {
+        final Timer head = mSlots[(level * SLOTS) + slot];
+        while (head.mNext != head) {
+            final Timer timer = head.mNext;
+            timer.unlink();
+            place(timer);
+        }
+    }
+
+    /**
+     * <p>Gets the slot a tick falls in within a wheel.</p>
+     *
+     * @param tick tick.
+     * @param level wheel.
+     * @return slot.
+     */
+    private static int slotOf(long tick, int level)
+    {
+        return (int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK;
+    }
+
+    /**
+     * <p>
+     *     Receives the targets of timers scheduled with {@link #scheduleExpiry(long, long)} as they expire.
+     * </p>
+     */
+    public interface OnExpireListener
+    {
+        /**
+         * <p>Called when a target's timer expires.</p>
+         *
+         * @param target handle given when scheduled.
+         */
+        void onExpire(long target);
+    }
+
+    /**
+     * <p>
+     *     Timer entry and list link. Each slot's list is circular around an empty Timer acting as its head.
+     * </p>
+     */
+    private static final class Timer
+    {
+        // Handle of the timer; Handle.NULL while pooled
+        private long mHandle = Handle.NULL;
+
+        // Tick to fire on
+        private long mWhen;
+
+        // Action to run; null if expiring a target
+        private Runnable mAction;
+
+        // Handle to expire
+        private long mTarget = Handle.NULL;
+
+        // Neighbouring links
+        private Timer mPrev = this;
+        private Timer mNext = this;
+
+        /**
+         * <p>Adds a timer to the end of the list this Timer heads.</p>
+         *
+         * @param timer timer.
+         */
+        private void append(Timer timer)
+        {
+            timer.mPrev = mPrev;
+            timer.mNext = this;
+            mPrev.mNext = timer;
+            mPrev = timer;
+        }
+
+        /**
+         * <p>Removes this Timer from whichever list it is in.</p>
+         */
+        private void unlink()
+        {
+            mPrev.mNext = mNext;
+            mNext.mPrev = mPrev;
+            mPrev = this;
+            mNext = this;
+        }
+
+        /**
+         * <p>Moves every timer from the list another Timer heads to the end of the list this Timer heads.</p>
+         *
+         * @param head other list's head.
+         */
+        private void takeAll(Timer head)
+        {
+            if (head.mNext == head) {
+                return;
+            }
+
+            final Timer first = head.mNext;
+            final Timer last = head.mPrev;
+            first.mPrev = mPrev;
+            mPrev.mNext = first;
+            last.mNext = this;
+            mPrev = last;
+
+            head.mNext = head;
+            head.mPrev = head;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.cinnamon.utils;
+
+/**
+ * <p>
+ *     Callback to be handed each Object of a container in turn, such as through
+ *     {@link IndexedFactory#forEach(Visitor)}.
+ * </p>
+ */
+public interface Visitor<E>
+{
+    /**
+     * <p>Called once for each Object in a container.</p>
+     *
+     * @param object Object.
+     */
+    void visit(E object);
+}